@@ -1,8 +1,8 @@
 import Link from 'next/link';
-import type { CourtCase } from '../../../lib/api/cases';
+import type { CourtCaseSummary } from '../../../lib/api/cases';
 
 interface CaseCardProps {
-  caseData: CourtCase;
+  caseData: CourtCaseSummary;
 }
 
 export default function CaseCard({ caseData }: CaseCardProps) {
@@ -86,18 +86,18 @@ export default function CaseCard({ caseData }: CaseCardProps) {
           )}
         </div>
 
-        {caseData.parties && caseData.parties.length > 0 && (
+        {caseData.partyCount > 0 && (
           <div className="mt-4 pt-4 border-t border-gray-200">
             <p className="text-xs text-gray-500 mb-2">
-              {caseData.parties.length} {caseData.parties.length === 1 ? 'party' : 'parties'}
+              {caseData.partyCount} {caseData.partyCount === 1 ? 'party' : 'parties'}
             </p>
           </div>
         )}
 
-        {caseData.hearings && caseData.hearings.length > 0 && (
+        {caseData.hearingCount > 0 && (
           <div className="mt-2">
             <p className="text-xs text-gray-500">
-              {caseData.hearings.length} {caseData.hearings.length === 1 ? 'hearing' : 'hearings'} scheduled
+              {caseData.hearingCount} {caseData.hearingCount === 1 ? 'hearing' : 'hearings'} scheduled
             </p>
           </div>
         )}
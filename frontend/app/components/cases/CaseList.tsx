@@ -1,16 +1,19 @@
 'use client';
 
 import { useEffect, useState, useMemo, useCallback, useRef } from 'react';
-import { casesApi, type CourtCase, type CaseFilters } from '../../../lib/api/cases';
+import { casesApi, type CourtCaseSummary, type CaseFilters } from '../../../lib/api/cases';
 import CaseCard from './CaseCard';
 import CaseSearchBar from './CaseSearchBar';
 import CaseFiltersComponent from './CaseFilters';
 import Button from '../common/Button';
 
 export default function CaseList() {
-  const [cases, setCases] = useState<CourtCase[]>([]);
-  const [allCases, setAllCases] = useState<CourtCase[]>([]); // Store all cases for filter options
+  const [cases, setCases] = useState<CourtCaseSummary[]>([]);
+  const [optionCases, setOptionCases] = useState<CourtCaseSummary[]>([]); // Every case loaded so far, for filter options
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [totalCount, setTotalCount] = useState<number | null>(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState<string | null>(null);
   const [filters, setFilters] = useState<CaseFilters>({ sortBy: 'lastUpdated' });
   const [searchTerm, setSearchTerm] = useState('');
@@ -18,28 +21,24 @@ export default function CaseList() {
   const searchTermRef = useRef<string>('');
   const prevFiltersStringRef = useRef<string>('');
   const prevSearchTermRef = useRef<string>('');
+  const loadSeqRef = useRef(0); // Drops pages that arrive after the filters changed
 
   // Extract unique values for filter dropdowns
   const availableCourts = useMemo(() => {
     const courts = new Set<string>();
-    allCases.forEach((c) => {
+    optionCases.forEach((c) => {
       if (c.courtName) courts.add(c.courtName);
     });
     return Array.from(courts).sort();
-  }, [allCases]);
+  }, [optionCases]);
 
   const availableStatuses = useMemo(() => {
     const statuses = new Set<string>();
-    allCases.forEach((c) => {
+    optionCases.forEach((c) => {
       if (c.status) statuses.add(c.status);
     });
     return Array.from(statuses).sort();
-  }, [allCases]);
-
-  // Load all cases once to populate filter options
-  useEffect(() => {
-    loadAllCases();
-  }, []);
+  }, [optionCases]);
 
   // Load filtered cases when filters or search change
   useEffect(() => {
@@ -61,32 +60,58 @@ export default function CaseList() {
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, [filters, searchTerm]);
 
-  const loadAllCases = async () => {
-    try {
-      const data = await casesApi.getCases();
-      setAllCases(data);
-    } catch (err: any) {
-      console.error('Error loading all cases for filters:', err);
-    }
-  };
+  const currentFilters = (): CaseFilters => ({
+    ...filtersRef.current,
+    search: searchTermRef.current || undefined,
+  });
+
+  // Filter options come from the cases seen so far, instead of loading every case up front
+  const rememberOptions = useCallback((loaded: CourtCaseSummary[]) => {
+    setOptionCases((prev) => {
+      const known = new Set(prev.map((c) => c.id));
+      const added = loaded.filter((c) => !known.has(c.id));
+      return added.length > 0 ? [...prev, ...added] : prev;
+    });
+  }, []);
 
   const loadCases = useCallback(async () => {
+    const seq = ++loadSeqRef.current;
     setLoading(true);
     setError(null);
     try {
-      const filtersWithSearch: CaseFilters = {
-        ...filtersRef.current,
-        search: searchTermRef.current || undefined,
-      };
-      const data = await casesApi.getCases(filtersWithSearch);
-      setCases(data);
+      const page = await casesApi.getCasePage(currentFilters());
+      if (seq !== loadSeqRef.current) return;
+      setCases(page.cases);
+      setNextCursor(page.nextCursor);
+      setTotalCount(page.totalCount);
+      rememberOptions(page.cases);
     } catch (err: any) {
+      if (seq !== loadSeqRef.current) return;
       setError(err.message || 'Failed to load cases');
       console.error('Error loading cases:', err);
     } finally {
-      setLoading(false);
+      if (seq === loadSeqRef.current) setLoading(false);
     }
-  }, []);
+  }, [rememberOptions]);
+
+  const loadMore = useCallback(async () => {
+    if (!nextCursor) return;
+    const seq = loadSeqRef.current;
+    setLoadingMore(true);
+    try {
+      const page = await casesApi.getCasePage(currentFilters(), nextCursor);
+      if (seq !== loadSeqRef.current) return;
+      setCases((prev) => [...prev, ...page.cases]);
+      setNextCursor(page.nextCursor);
+      rememberOptions(page.cases);
+    } catch (err: any) {
+      if (seq !== loadSeqRef.current) return;
+      setError(err.message || 'Failed to load cases');
+      console.error('Error loading more cases:', err);
+    } finally {
+      setLoadingMore(false);
+    }
+  }, [nextCursor, rememberOptions]);
 
   const handleFiltersChange = useCallback((newFilters: CaseFilters) => {
     setFilters(newFilters);
@@ -175,7 +200,7 @@ export default function CaseList() {
       {/* Header and Add Button */}
       <div className="flex items-center justify-between mb-6">
         <h2 className="text-xl sm:text-2xl font-bold text-gray-900">
-          My Cases ({cases.length})
+          My Cases ({totalCount ?? cases.length})
         </h2>
         <a href="/cases/add">
           <Button variant="primary" size="sm">
@@ -250,11 +275,20 @@ export default function CaseList() {
           )}
         </div>
       ) : (
-        <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-4 sm:gap-6">
-          {cases.map((caseData) => (
-            <CaseCard key={caseData.id} caseData={caseData} />
-          ))}
-        </div>
+        <>
+          <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-4 sm:gap-6">
+            {cases.map((caseData) => (
+              <CaseCard key={caseData.id} caseData={caseData} />
+            ))}
+          </div>
+          {nextCursor && (
+            <div className="flex justify-center pt-2">
+              <Button onClick={loadMore} variant="outline" size="sm" loading={loadingMore}>
+                Load more
+              </Button>
+            </div>
+          )}
+        </>
       )}
     </div>
   );
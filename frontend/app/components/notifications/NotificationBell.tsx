@@ -1,26 +1,32 @@
 'use client';
 
-import { useEffect, useState } from 'react';
+import { useEffect, useRef, useState } from 'react';
 import { useRouter } from 'next/navigation';
 import { notificationsApi } from '../../../lib/api/notifications';
+import { openNotificationStream } from '../../../lib/api/notificationStream';
 
 export default function NotificationBell() {
   const router = useRouter();
   const [unreadCount, setUnreadCount] = useState(0);
   const [loading, setLoading] = useState(true);
+  const countedIds = useRef(new Set<number>()); // A reconnect may replay a notification already counted
 
   useEffect(() => {
     loadUnreadCount();
-    // Refresh count every 30 seconds
-    const interval = setInterval(loadUnreadCount, 30000);
-    return () => clearInterval(interval);
+    // New notifications are pushed by the server; each one arrives unread
+    return openNotificationStream({
+      onNotification: (notification) => {
+        if (notification.read || countedIds.current.has(notification.id)) return;
+        countedIds.current.add(notification.id);
+        setUnreadCount((count) => count + 1);
+      },
+      onResync: loadUnreadCount,
+    });
   }, []);
 
   const loadUnreadCount = async () => {
     try {
-      const notifications = await notificationsApi.getNotifications();
-      const unread = notifications.filter((n) => !n.read).length;
-      setUnreadCount(unread);
+      setUnreadCount(await notificationsApi.getUnreadCount());
     } catch (error) {
       console.error('Error loading notification count:', error);
       // Don't show error to user, just silently fail
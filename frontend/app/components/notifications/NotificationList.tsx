@@ -1,6 +1,6 @@
 'use client';
 
-import { useEffect, useState } from 'react';
+import { useEffect, useRef, useState } from 'react';
 import { notificationsApi, type Notification } from '../../../lib/api/notifications';
 import NotificationCard from './NotificationCard';
 import Button from '../common/Button';
@@ -11,26 +11,54 @@ interface NotificationListProps {
 
 export default function NotificationList({ caseId }: NotificationListProps) {
   const [notifications, setNotifications] = useState<Notification[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState<string | null>(null);
+  const loadSeqRef = useRef(0); // Drops pages that arrive after the case changed
 
   useEffect(() => {
     loadNotifications();
   }, [caseId]);
 
+  const fetchPage = (cursor?: string) =>
+    caseId
+      ? notificationsApi.getCaseNotifications(caseId, cursor)
+      : notificationsApi.getNotificationPage(cursor);
+
   const loadNotifications = async () => {
+    const seq = ++loadSeqRef.current;
     setLoading(true);
     setError(null);
     try {
-      const data = caseId
-        ? await notificationsApi.getCaseNotifications(caseId)
-        : await notificationsApi.getNotifications();
-      setNotifications(data);
+      const page = await fetchPage();
+      if (seq !== loadSeqRef.current) return;
+      setNotifications(page.notifications);
+      setNextCursor(page.nextCursor);
     } catch (err: any) {
+      if (seq !== loadSeqRef.current) return;
       setError(err.message || 'Failed to load notifications');
       console.error('Error loading notifications:', err);
     } finally {
-      setLoading(false);
+      if (seq === loadSeqRef.current) setLoading(false);
+    }
+  };
+
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    const seq = loadSeqRef.current;
+    setLoadingMore(true);
+    try {
+      const page = await fetchPage(nextCursor);
+      if (seq !== loadSeqRef.current) return;
+      setNotifications((prev) => [...prev, ...page.notifications]);
+      setNextCursor(page.nextCursor);
+    } catch (err: any) {
+      if (seq !== loadSeqRef.current) return;
+      setError(err.message || 'Failed to load notifications');
+      console.error('Error loading more notifications:', err);
+    } finally {
+      setLoadingMore(false);
     }
   };
 
@@ -146,6 +174,14 @@ export default function NotificationList({ caseId }: NotificationListProps) {
           />
         ))}
       </div>
+
+      {nextCursor && (
+        <div className="flex justify-center pt-2">
+          <Button onClick={loadMore} variant="outline" size="sm" loading={loadingMore}>
+            Load more
+          </Button>
+        </div>
+      )}
     </div>
   );
 }
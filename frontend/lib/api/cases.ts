@@ -38,6 +38,29 @@ export interface CourtCase {
   parties?: Party[];
 }
 
+// A case as listed by GET /api/cases: counts instead of the hearings and parties
+export interface CourtCaseSummary {
+  id: number;
+  caseNumber: string;
+  imposedName?: string;
+  department?: string;
+  proceduralStage?: string;
+  category?: string;
+  subject?: string;
+  courtName?: string;
+  status?: string;
+  monitoringEnabled?: boolean;
+  lastUpdated?: string;
+  partyCount: number;
+  hearingCount: number;
+}
+
+export interface CasePage {
+  cases: CourtCaseSummary[];
+  nextCursor: string | null;
+  totalCount: number | null; // Only on the first page
+}
+
 export interface CreateCaseRequest {
   caseNumber: string;
   institution: string;
@@ -69,9 +92,9 @@ export interface CaseFilters {
 
 export const casesApi = {
   /**
-   * Get all cases for the current user with optional filters
+   * Get one page of the current user's cases; pass nextCursor, with the same filters, to continue
    */
-  async getCases(filters?: CaseFilters): Promise<CourtCase[]> {
+  async getCasePage(filters?: CaseFilters, cursor?: string): Promise<CasePage> {
     const params = new URLSearchParams();
     
     if (filters) {
@@ -83,10 +106,11 @@ export const casesApi = {
       if (filters.courtName) params.append('courtName', filters.courtName);
       if (filters.sortBy) params.append('sortBy', filters.sortBy);
     }
+    if (cursor) params.append('cursor', cursor);
     
     const queryString = params.toString();
     const url = queryString ? `/api/cases?${queryString}` : '/api/cases';
-    return apiClient.get<CourtCase[]>(url);
+    return apiClient.get<CasePage>(url);
   },
 
   /**
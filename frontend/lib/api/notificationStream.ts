@@ -0,0 +1,122 @@
+import { tokenStorage } from '../auth/tokenStorage';
+import type { Notification } from './notifications';
+
+export interface NotificationStreamHandlers {
+  onNotification: (notification: Notification) => void;
+  // The server could not replay everything missed while disconnected; reload whatever is shown
+  onResync: () => void;
+}
+
+const INITIAL_RETRY_MS = 2000;
+const MAX_RETRY_MS = 60000;
+
+/**
+ * Opens the server-sent stream of the current user's new notifications.
+ * EventSource cannot send the Authorization header, so the stream is read with fetch instead. The connection is
+ * reopened when it drops, sending the id of the last event received so the server replays what was missed.
+ * Returns a function that closes the stream for good.
+ */
+export function openNotificationStream(handlers: NotificationStreamHandlers): () => void {
+  const baseUrl = process.env.NEXT_PUBLIC_API_URL || '';
+  let controller: AbortController | null = null;
+  let retryTimer: ReturnType<typeof setTimeout> | null = null;
+  let retryMs = INITIAL_RETRY_MS;
+  let lastEventId: string | null = null;
+  let closed = false;
+
+  const dispatch = (event: string, data: string) => {
+    if (event === 'notification' && data) {
+      const notification: Notification = JSON.parse(data);
+      handlers.onNotification({ ...notification, read: notification.readAt != null });
+    } else if (event === 'resync') {
+      handlers.onResync();
+    }
+  };
+
+  const read = async (body: ReadableStream<Uint8Array>) => {
+    const reader = body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+    let event = 'message';
+    let data: string[] = [];
+    let id: string | null = null;
+
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) return;
+      buffer += decoder.decode(value, { stream: true });
+
+      let newline: number;
+      while ((newline = buffer.search(/\r\n|\r|\n/)) >= 0) {
+        const line = buffer.slice(0, newline);
+        buffer = buffer.slice(newline + (buffer.startsWith('\r\n', newline) ? 2 : 1));
+
+        if (line === '') {
+          // Blank line: the event is complete
+          if (id !== null) lastEventId = id;
+          if (data.length > 0 || event !== 'message') dispatch(event, data.join('\n'));
+          event = 'message';
+          data = [];
+          id = null;
+          continue;
+        }
+        if (line.startsWith(':')) continue; // Heartbeat comment
+
+        const colon = line.indexOf(':');
+        const field = colon >= 0 ? line.slice(0, colon) : line;
+        let value = colon >= 0 ? line.slice(colon + 1) : '';
+        if (value.startsWith(' ')) value = value.slice(1);
+        if (field === 'event') event = value;
+        else if (field === 'data') data.push(value);
+        else if (field === 'id') id = value;
+      }
+    }
+  };
+
+  const scheduleReconnect = () => {
+    if (closed) return;
+    retryTimer = setTimeout(connect, retryMs);
+    retryMs = Math.min(retryMs * 2, MAX_RETRY_MS);
+  };
+
+  const connect = async () => {
+    const authHeader = tokenStorage.getAuthHeader();
+    if (closed || !authHeader) return;
+
+    controller = new AbortController();
+    const headers: Record<string, string> = {
+      Accept: 'text/event-stream',
+      Authorization: authHeader,
+    };
+    if (lastEventId) headers['Last-Event-ID'] = lastEventId;
+
+    try {
+      const response = await fetch(`${baseUrl}/api/monitoring/notifications/stream`, {
+        headers,
+        signal: controller.signal,
+      });
+      if (response.status === 401 || response.status === 403) {
+        // Signed out or token expired; the next page load opens a new stream
+        return;
+      }
+      if (!response.ok || !response.body) {
+        throw new Error(`Notification stream failed: ${response.status}`);
+      }
+      retryMs = INITIAL_RETRY_MS;
+      await read(response.body);
+    } catch (error) {
+      if (closed) return;
+      console.error('Notification stream interrupted:', error);
+    }
+    // The server closes streams after a while, or when the client falls behind; resume from the last event
+    scheduleReconnect();
+  };
+
+  connect();
+
+  return () => {
+    closed = true;
+    if (retryTimer) clearTimeout(retryTimer);
+    controller?.abort();
+  };
+}
@@ -6,9 +6,15 @@ export interface Notification {
   sentAt: string;
   caseNumber: string;
   caseId: number;
+  readAt?: string | null;
   read?: boolean;
 }
 
+export interface NotificationPage {
+  notifications: Notification[];
+  nextCursor: string | null;
+}
+
 export interface NotificationSettings {
   notificationIntervalMinutes: number;
   emailEnabled: boolean;
@@ -25,29 +31,51 @@ interface ApiResponse<T> {
   data: T;
 }
 
+function withReadFlag(page: NotificationPage | null): NotificationPage {
+  const notifications = (page?.notifications || []).map((n) => ({ ...n, read: n.readAt != null }));
+  return { notifications, nextCursor: page?.nextCursor ?? null };
+}
+
+function pageQuery(cursor?: string): string {
+  return cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
+}
+
 export const notificationsApi = {
   /**
-   * Get all notifications for the current user
+   * Count all of the current user's unread notifications, on every page of the feed
    */
-  async getNotifications(): Promise<Notification[]> {
-    const response = await apiClient.get<ApiResponse<Notification[]>>('/api/monitoring/notifications');
+  async getUnreadCount(): Promise<number> {
+    const response = await apiClient.get<ApiResponse<number>>('/api/monitoring/notifications/unread-count');
+    if (response.result !== 'SUCCESS') {
+      throw new Error(response.message || 'Failed to fetch unread notification count');
+    }
+    return response.data;
+  },
+
+  /**
+   * Get one page of the current user's notifications; pass nextCursor to continue
+   */
+  async getNotificationPage(cursor?: string): Promise<NotificationPage> {
+    const response = await apiClient.get<ApiResponse<NotificationPage>>(
+      `/api/monitoring/notifications${pageQuery(cursor)}`
+    );
     if (response.result !== 'SUCCESS') {
       throw new Error(response.message || 'Failed to fetch notifications');
     }
-    return response.data || [];
+    return withReadFlag(response.data);
   },
 
   /**
-   * Get notifications for a specific case
+   * Get one page of the notifications for a specific case; pass nextCursor to continue
    */
-  async getCaseNotifications(caseId: number): Promise<Notification[]> {
-    const response = await apiClient.get<ApiResponse<Notification[]>>(
-      `/api/monitoring/notifications/cases/${caseId}`
+  async getCaseNotifications(caseId: number, cursor?: string): Promise<NotificationPage> {
+    const response = await apiClient.get<ApiResponse<NotificationPage>>(
+      `/api/monitoring/notifications/cases/${caseId}${pageQuery(cursor)}`
     );
     if (response.result !== 'SUCCESS') {
       throw new Error(response.message || 'Failed to fetch case notifications');
     }
-    return response.data || [];
+    return withReadFlag(response.data);
   },
 
   /**
@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "monitoring")
@@ -12,4 +15,23 @@ public class MonitoringProperties {
     private long scheduledCheckIntervalMs = 300000; // 5 minutes
     private int defaultNotificationIntervalMinutes = 60;
     private int maxConcurrentChecks = 10;
+    private int claimBatchSize = 50;
+    // Checks of one institution running at once, within maxConcurrentChecks
+    private int maxConcurrentChecksPerInstitution = 2;
+    // A sweep answers an institution's due cases with one modified-since search once it has batchSearchMinCases
+    // of them checked within batchSearchMaxWindow; a result of batchSearchMaxResults or more may be truncated
+    private boolean batchSearch = true;
+    private int batchSearchMinCases = 5;
+    private int batchSearchMaxResults = 1000;
+    private Duration batchSearchMaxWindow = Duration.ofDays(7);
+    private Duration leaseDuration = Duration.ofMinutes(10);
+    // Identifies this instance in notification_settings.claimed_by; defaults to pid@hostname
+    private String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+    // Incremental mode: one modified-since search per institution replaces the per-case portal calls
+    // while the sweep keeps up (its watermark is no older than incrementalSweepMaxLag)
+    private boolean incrementalSweep = false;
+    private long incrementalSweepIntervalMs = 300000;
+    // Searches start this far before the watermark, so modifications stamped late by the portal are not missed
+    private Duration incrementalSweepOverlap = Duration.ofMinutes(5);
+    private Duration incrementalSweepMaxLag = Duration.ofMinutes(15);
 }
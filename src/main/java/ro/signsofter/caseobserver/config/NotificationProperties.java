@@ -0,0 +1,36 @@
+package ro.signsofter.caseobserver.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "notification")
+public class NotificationProperties {
+    // Delivers the notification outbox; with it off, messages stay queued
+    private boolean dispatchEnabled = true;
+    private long dispatchIntervalMs = 5000;
+    // Deliveries running at once, and the most messages claimed but not yet delivered
+    private int dispatchThreads = 4;
+    private int dispatchBatchSize = 50;
+    // A claim lapses after this long, so messages held by a crashed node are delivered by another
+    private Duration dispatchLeaseDuration = Duration.ofMinutes(5);
+    // Failed deliveries are retried after retryBackoff * 2^(attempt - 1), capped at maxRetryBackoff
+    private int maxAttempts = 6;
+    private Duration retryBackoff = Duration.ofSeconds(30);
+    private Duration maxRetryBackoff = Duration.ofMinutes(30);
+    // When hourly and daily digests are flushed, and how many pending notifications one flush transaction takes
+    private String digestHourlyCron = "0 0 * * * *";
+    private String digestDailyCron = "0 0 7 * * *";
+    private int digestBatchSize = 500;
+    // Live notification streams: closed after streamTimeout (clients reconnect and resume), kept alive by heartbeats
+    private Duration streamTimeout = Duration.ofMinutes(30);
+    private long streamHeartbeatMs = 25000;
+    // Threads writing to the streams; a stream with more than streamMaxPendingEvents unsent events is closed,
+    // so a slow client ties up one thread at most and catches up through its reconnect
+    private int streamSendThreads = 4;
+    private int streamMaxPendingEvents = 100;
+}
@@ -13,9 +13,8 @@ import ro.signsofter.caseobserver.exception.portal.PortalQueryException;
 import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
 import ro.signsofter.caseobserver.service.CourtCaseService;
 
-import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/cases")
@@ -26,28 +25,30 @@ public class CourtCaseController {
         this.courtCaseService = courtCaseService;
     }
 
+    /**
+     * The user's cases as summary rows, one page at a time: pass the returned nextCursor as {@code cursor}, with the
+     * same filters and sortBy, to continue. Hearings and parties come with the single case, GET /api/cases/{id}.
+     */
     @GetMapping
-    public List<CourtCaseResponseDto> listCases(
+    public ResponseEntity<?> listCases(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) Boolean monitoringEnabled,
             @RequestParam(required = false) String courtName,
-            @RequestParam(required = false) String sortBy
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
     ) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
-        
-        // If any filter is provided, use filtered query, otherwise use simple query
-        if (search != null || status != null || monitoringEnabled != null || courtName != null || sortBy != null) {
-            return courtCaseService.getCasesForUserWithFilters(username, search, status, monitoringEnabled, courtName, sortBy)
-                    .stream()
-                    .map(CourtCaseMapper::toDto)
-                    .collect(Collectors.toList());
+
+        try {
+            CourtCaseService.CasePage page = courtCaseService.getCasePage(
+                    username, search, status, monitoringEnabled, courtName, sortBy, cursor, limit);
+            return ResponseEntity.ok(CourtCaseMapper.toPageDto(page));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         }
-        
-        return courtCaseService.getCasesForUser(username).stream()
-                .map(CourtCaseMapper::toDto)
-                .collect(Collectors.toList());
     }
 
     @GetMapping("/{id}")
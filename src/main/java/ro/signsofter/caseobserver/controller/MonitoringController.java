@@ -1,19 +1,24 @@
 package ro.signsofter.caseobserver.controller;
 
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ro.signsofter.caseobserver.controller.dto.ApiResponse;
+import ro.signsofter.caseobserver.controller.dto.NotificationPageDto;
 import ro.signsofter.caseobserver.controller.dto.NotificationSettingsDto;
-import ro.signsofter.caseobserver.controller.dto.NotificationResponseDto;
-import ro.signsofter.caseobserver.entity.Notification;
+import ro.signsofter.caseobserver.controller.mapper.NotificationMapper;
 import ro.signsofter.caseobserver.entity.NotificationSettings;
+import ro.signsofter.caseobserver.entity.User;
 import ro.signsofter.caseobserver.service.CaseMonitoringService;
+import ro.signsofter.caseobserver.service.NotificationBroadcaster;
+import ro.signsofter.caseobserver.service.NotificationCursor;
 import ro.signsofter.caseobserver.service.NotificationService;
+import ro.signsofter.caseobserver.service.UserService;
 
-import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
@@ -22,10 +27,15 @@ public class MonitoringController {
 
     private final CaseMonitoringService caseMonitoringService;
     private final NotificationService notificationService;
+    private final UserService userService;
+    private final NotificationBroadcaster notificationBroadcaster;
 
-    public MonitoringController(CaseMonitoringService caseMonitoringService, NotificationService notificationService) {
+    public MonitoringController(CaseMonitoringService caseMonitoringService, NotificationService notificationService,
+                                UserService userService, NotificationBroadcaster notificationBroadcaster) {
         this.caseMonitoringService = caseMonitoringService;
         this.notificationService = notificationService;
+        this.userService = userService;
+        this.notificationBroadcaster = notificationBroadcaster;
     }
 
     @PostMapping("/cases/{caseId}/start")
@@ -76,6 +86,8 @@ public class MonitoringController {
             settings.setNotifyOnStatusChanges(settingsDto.getNotifyOnStatusChanges());
             settings.setNotifyOnPartyChanges(settingsDto.getNotifyOnPartyChanges());
             settings.setNotifyOnProceduralStageChanges(settingsDto.getNotifyOnProceduralStageChanges());
+            settings.setMinCheckIntervalMinutes(settingsDto.getMinCheckIntervalMinutes());
+            settings.setMaxCheckIntervalMinutes(settingsDto.getMaxCheckIntervalMinutes());
 
             caseMonitoringService.updateNotificationSettings(caseId, settings);
             return ResponseEntity.ok(new ApiResponse<>("SUCCESS", "Notification settings updated successfully", null));
@@ -85,43 +97,65 @@ public class MonitoringController {
         }
     }
 
+    /**
+     * The current user's notifications, newest first, one page at a time: pass the returned nextCursor
+     * as {@code cursor} to continue. {@code limit} is capped at {@link NotificationService#MAX_FEED_PAGE_SIZE}.
+     */
     @GetMapping("/notifications")
-    public ResponseEntity<ApiResponse<List<NotificationResponseDto>>> getUserNotifications() {
+    public ResponseEntity<ApiResponse<NotificationPageDto>> getUserNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            String username = auth.getName();
-
-            // Get user ID from username (you might need to implement this)
-            // For now, we'll use a placeholder approach
-            List<Notification> notifications = notificationService.getNotificationsForUser(3L); // TODO: Get actual user ID
-            
-            List<NotificationResponseDto> notificationDtos = notifications.stream()
-                    .map(this::mapToNotificationDto)
-                    .collect(Collectors.toList());
-            
-            return ResponseEntity.ok(new ApiResponse<>("SUCCESS", "Notifications retrieved successfully", notificationDtos));
+            NotificationService.FeedPage page = notificationService.getNotificationFeed(
+                    currentUserId(), NotificationCursor.decode(cursor), limit);
+            return ResponseEntity.ok(new ApiResponse<>("SUCCESS", "Notifications retrieved successfully", mapToNotificationPage(page)));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse<>("ERROR", e.getMessage(), null));
         }
     }
 
+    /**
+     * How many of the current user's notifications are unread, across the whole feed.
+     */
+    @GetMapping("/notifications/unread-count")
+    public ResponseEntity<ApiResponse<Long>> getUnreadNotificationCount() {
+        try {
+            long unread = notificationService.countUnreadNotifications(currentUserId());
+            return ResponseEntity.ok(new ApiResponse<>("SUCCESS", "Unread notification count retrieved successfully", unread));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>("ERROR", e.getMessage(), null));
+        }
+    }
+
+    /**
+     * The current user's notifications about one case, paged like {@link #getUserNotifications}.
+     */
     @GetMapping("/notifications/cases/{caseId}")
-    public ResponseEntity<ApiResponse<List<NotificationResponseDto>>> getCaseNotifications(@PathVariable Long caseId) {
+    public ResponseEntity<ApiResponse<NotificationPageDto>> getCaseNotifications(
+            @PathVariable Long caseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         try {
-            List<Notification> notifications = notificationService.getNotificationsForCase(caseId);
-            
-            List<NotificationResponseDto> notificationDtos = notifications.stream()
-                    .map(this::mapToNotificationDto)
-                    .collect(Collectors.toList());
-            
-            return ResponseEntity.ok(new ApiResponse<>("SUCCESS", "Case notifications retrieved successfully", notificationDtos));
+            NotificationService.FeedPage page = notificationService.getCaseNotificationFeed(
+                    currentUserId(), caseId, NotificationCursor.decode(cursor), limit);
+            return ResponseEntity.ok(new ApiResponse<>("SUCCESS", "Case notifications retrieved successfully", mapToNotificationPage(page)));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse<>("ERROR", e.getMessage(), null));
         }
     }
 
+    /**
+     * Server-sent stream of the current user's new notifications, pushed as soon as they are recorded.
+     * Each event's id is a feed cursor: on reconnect the client's Last-Event-ID replays what it missed.
+     */
+    @GetMapping(path = "/notifications/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        return notificationBroadcaster.subscribe(currentUserId(), lastEventId);
+    }
+
     @PostMapping("/notifications/{notificationId}/read")
     public ResponseEntity<ApiResponse<String>> markNotificationAsRead(@PathVariable Long notificationId) {
         try {
@@ -144,13 +178,19 @@ public class MonitoringController {
         }
     }
 
-    private NotificationResponseDto mapToNotificationDto(Notification notification) {
-        NotificationResponseDto dto = new NotificationResponseDto();
-        dto.setId(notification.getId());
-        dto.setMessage(notification.getMessage());
-        dto.setSentAt(notification.getSentAt());
-        dto.setCaseNumber(notification.getCourtCase().getCaseNumber());
-        dto.setCaseId(notification.getCourtCase().getId());
+    private Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return userService.getUserByUsername(auth.getName())
+                .map(User::getId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    private NotificationPageDto mapToNotificationPage(NotificationService.FeedPage page) {
+        NotificationPageDto dto = new NotificationPageDto();
+        dto.setNotifications(page.items().stream()
+                .map(NotificationMapper::toDto)
+                .collect(Collectors.toList()));
+        dto.setNextCursor(page.next() != null ? page.next().encode() : null);
         return dto;
     }
 }
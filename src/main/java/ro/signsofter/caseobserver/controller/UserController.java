@@ -52,6 +52,7 @@ public class UserController {
             dto.setUsername(u.getUsername());
             dto.setEmail(u.getEmail());
             dto.setRole(u.getRole().name()); // Include role for frontend context
+            dto.setDigestMode(u.getDigestMode().name());
             return ResponseEntity.ok(dto);
         }).orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -63,12 +64,13 @@ public class UserController {
     public ResponseEntity<UserProfileDto> updateCurrentUser(@Valid @RequestBody UpdateProfileRequest request) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName();
-        User updated = userService.updateUserProfile(username, request.email());
+        User updated = userService.updateUserProfile(username, request.email(), request.digestMode());
         UserProfileDto dto = new UserProfileDto();
         dto.setId(updated.getId());
         dto.setUsername(updated.getUsername());
         dto.setEmail(updated.getEmail());
         dto.setRole(updated.getRole().name()); // Include role for frontend context
+        dto.setDigestMode(updated.getDigestMode().name());
         return ResponseEntity.ok(dto);
     }
 
@@ -103,7 +105,7 @@ public class UserController {
 
     // mapping moved to UserMapper
 
-    public record UpdateProfileRequest(@NotBlank String email) {}
+    public record UpdateProfileRequest(@NotBlank String email, User.DigestMode digestMode) {}
     
     public record ChangePasswordRequest(
             @NotBlank String currentPassword,
@@ -0,0 +1,12 @@
+package ro.signsofter.caseobserver.controller.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CourtCasePageDto {
+    private List<CourtCaseSummaryDto> cases;
+    private String nextCursor; // Pass back as ?cursor= with the same filters and sortBy; null on the last page
+    private Long totalCount; // Matching cases; only on the first page
+}
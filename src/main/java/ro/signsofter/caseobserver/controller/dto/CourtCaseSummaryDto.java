@@ -0,0 +1,24 @@
+package ro.signsofter.caseobserver.controller.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// A case as listed: only the number of hearings and parties; the full ones are in CourtCaseResponseDto,
+// from GET /api/cases/{id}
+@Data
+public class CourtCaseSummaryDto {
+    private Long id;
+    private String caseNumber;
+    private String imposedName;
+    private String department;
+    private String proceduralStage;
+    private String category;
+    private String subject;
+    private String courtName;
+    private String status;
+    private Boolean monitoringEnabled;
+    private LocalDateTime lastUpdated;
+    private Long partyCount;
+    private Long hearingCount;
+}
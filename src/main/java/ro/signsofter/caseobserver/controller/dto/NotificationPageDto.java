@@ -0,0 +1,11 @@
+package ro.signsofter.caseobserver.controller.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class NotificationPageDto {
+    private List<NotificationResponseDto> notifications;
+    private String nextCursor; // Pass back as ?cursor= for the next page; null on the last page
+}
@@ -9,6 +9,7 @@ public class NotificationResponseDto {
     private Long id;
     private String message;
     private LocalDateTime sentAt;
+    private LocalDateTime readAt;
     private String caseNumber;
     private Long caseId;
 }
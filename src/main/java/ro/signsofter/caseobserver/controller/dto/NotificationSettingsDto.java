@@ -1,5 +1,7 @@
 package ro.signsofter.caseobserver.controller.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
@@ -28,4 +30,18 @@ public class NotificationSettingsDto {
     
     @NotNull(message = "Procedural stage changes notification setting is required")
     private Boolean notifyOnProceduralStageChanges = true;
+    
+    // Optional bounds for the adaptive check interval; left unchanged when omitted
+    @Min(value = 1, message = "Minimum check interval must be at least 1 minute")
+    private Integer minCheckIntervalMinutes;
+    
+    @Min(value = 1, message = "Maximum check interval must be at least 1 minute")
+    private Integer maxCheckIntervalMinutes;
+
+    @JsonIgnore
+    @AssertTrue(message = "Minimum check interval must not exceed the maximum check interval")
+    public boolean isCheckIntervalRangeValid() {
+        return minCheckIntervalMinutes == null || maxCheckIntervalMinutes == null
+                || minCheckIntervalMinutes <= maxCheckIntervalMinutes;
+    }
 }
@@ -16,5 +16,7 @@ public class UserProfileDto {
     private String email;
 
     private String role; // Role is needed for frontend context (e.g., UI permissions), but not displayed in profile settings UI
+
+    private String digestMode; // IMMEDIATE, HOURLY or DAILY delivery of change notifications
 }
 
@@ -1,17 +1,49 @@
 package ro.signsofter.caseobserver.controller.mapper;
 
+import ro.signsofter.caseobserver.controller.dto.CourtCasePageDto;
 import ro.signsofter.caseobserver.controller.dto.CourtCaseResponseDto;
+import ro.signsofter.caseobserver.controller.dto.CourtCaseSummaryDto;
 import ro.signsofter.caseobserver.controller.dto.HearingResponseDto;
 import ro.signsofter.caseobserver.controller.dto.PartyResponseDto;
 import ro.signsofter.caseobserver.entity.CourtCase;
 import ro.signsofter.caseobserver.entity.Hearing;
 import ro.signsofter.caseobserver.entity.Party;
+import ro.signsofter.caseobserver.repository.UserCaseRepository;
+import ro.signsofter.caseobserver.service.CourtCaseService;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class CourtCaseMapper {
 
+    public static CourtCasePageDto toPageDto(CourtCaseService.CasePage page) {
+        CourtCasePageDto dto = new CourtCasePageDto();
+        dto.setCases(page.cases().stream()
+                .map(CourtCaseMapper::toSummaryDto)
+                .collect(Collectors.toList()));
+        dto.setNextCursor(page.nextCursor());
+        dto.setTotalCount(page.totalCount());
+        return dto;
+    }
+
+    public static CourtCaseSummaryDto toSummaryDto(UserCaseRepository.CaseSummary summary) {
+        CourtCaseSummaryDto dto = new CourtCaseSummaryDto();
+        dto.setId(summary.getId());
+        dto.setCaseNumber(summary.getCaseNumber());
+        dto.setImposedName(summary.getImposedName());
+        dto.setDepartment(summary.getDepartment());
+        dto.setProceduralStage(summary.getProceduralStage());
+        dto.setCategory(summary.getCategory());
+        dto.setSubject(summary.getSubject());
+        dto.setCourtName(summary.getCourtName());
+        dto.setStatus(summary.getStatus());
+        dto.setMonitoringEnabled(summary.getMonitoringEnabled());
+        dto.setLastUpdated(summary.getLastUpdated());
+        dto.setPartyCount(summary.getPartyCount());
+        dto.setHearingCount(summary.getHearingCount());
+        return dto;
+    }
+
     public static CourtCaseResponseDto toDto(CourtCase courtCase) {
         CourtCaseResponseDto dto = new CourtCaseResponseDto();
         dto.setId(courtCase.getId());
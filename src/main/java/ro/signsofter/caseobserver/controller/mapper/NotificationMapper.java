@@ -0,0 +1,30 @@
+package ro.signsofter.caseobserver.controller.mapper;
+
+import ro.signsofter.caseobserver.controller.dto.NotificationResponseDto;
+import ro.signsofter.caseobserver.entity.Notification;
+import ro.signsofter.caseobserver.repository.NotificationRepository;
+
+public class NotificationMapper {
+
+    public static NotificationResponseDto toDto(NotificationRepository.FeedItem item) {
+        NotificationResponseDto dto = new NotificationResponseDto();
+        dto.setId(item.getId());
+        dto.setMessage(item.getMessage());
+        dto.setSentAt(item.getSentAt());
+        dto.setReadAt(item.getReadAt());
+        dto.setCaseNumber(item.getCaseNumber());
+        dto.setCaseId(item.getCaseId());
+        return dto;
+    }
+
+    public static NotificationResponseDto toDto(Notification notification) {
+        NotificationResponseDto dto = new NotificationResponseDto();
+        dto.setId(notification.getId());
+        dto.setMessage(notification.getMessage());
+        dto.setSentAt(notification.getSentAt());
+        dto.setReadAt(notification.getReadAt());
+        dto.setCaseNumber(notification.getCourtCase().getCaseNumber());
+        dto.setCaseId(notification.getCourtCase().getId());
+        return dto;
+    }
+}
@@ -0,0 +1,37 @@
+package ro.signsofter.caseobserver.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One detected change of a case, rendered once. Every subscriber's {@link Notification} and every queued
+ * email or SMS reference it instead of carrying their own copy of the message.
+ */
+@Entity
+@Data
+@Table(name = "case_change_event")
+public class CaseChangeEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "case_change_event_id")
+    @TableGenerator(name = "case_change_event_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "case_change_event", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "case_id", nullable = false)
+    private CourtCase courtCase;
+
+    @Column(name = "subject", length = 500)
+    private String subject;
+
+    @Column(name = "message", nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
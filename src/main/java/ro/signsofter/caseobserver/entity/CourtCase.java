@@ -8,6 +8,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Entity
 @Data
@@ -15,7 +16,9 @@ import java.util.List;
 public class CourtCase {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "court_case_id")
+    @TableGenerator(name = "court_case_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "court_case", allocationSize = 50)
     private Long id;
 
     @Column(name = "number", nullable = false, unique = true)
@@ -54,6 +57,18 @@ public class CourtCase {
     @Column(name = "monitoring_enabled", nullable = false)
     private Boolean monitoringEnabled = true;
 
+    // Fingerprint of the portal content last seen by the monitor, and the portal's dataModificare for it
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "portal_modification_date", length = 64)
+    private String portalModificationDate;
+
+    // Guards the monitoring write phase, which saves a snapshot loaded before the portal call
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "courtCase", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
     private List<Hearing> hearings = new ArrayList<>();
@@ -61,4 +76,23 @@ public class CourtCase {
     @OneToMany(mappedBy = "courtCase", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
     private List<Party> parties = new ArrayList<>();
+
+    // Helper method to check whether the portal content is the one last recorded
+    public boolean hasPortalContent(String contentHash, String modificationDate) {
+        // The portal's modification date is the cheap check; the fingerprint covers responses without one
+        if (modificationDate != null && !modificationDate.isEmpty() && modificationDate.equals(portalModificationDate)) {
+            return true;
+        }
+        return contentHash != null && contentHash.equals(this.contentHash);
+    }
+
+    // Helper method to record the portal content the case now reflects; returns false when it was already recorded
+    public boolean recordPortalContent(String contentHash, String modificationDate) {
+        if (Objects.equals(this.contentHash, contentHash) && Objects.equals(portalModificationDate, modificationDate)) {
+            return false;
+        }
+        this.contentHash = contentHash;
+        this.portalModificationDate = modificationDate;
+        return true;
+    }
 }
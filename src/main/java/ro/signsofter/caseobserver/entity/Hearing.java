@@ -11,8 +11,11 @@ import java.time.LocalDateTime;
 @Table(name = "hearing")
 public class Hearing {
 
+    // Pooled ids from id_generator rather than IDENTITY, which would rule out batched inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "hearing_id")
+    @TableGenerator(name = "hearing_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "hearing", allocationSize = 100)
     private Long id;
 
     @ManyToOne
@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "notification_id")
+    @TableGenerator(name = "notification_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "notification", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -23,10 +25,40 @@ public class Notification {
     @JoinColumn(name = "case_id", nullable = false)
     private CourtCase courtCase;
 
-    @Column(name = "message", nullable = false, columnDefinition = "TEXT")
-    private String message;
+    // The rendered change, shared by every subscriber notified of it
+    @ManyToOne
+    @JoinColumn(name = "event_id", nullable = false)
+    private CaseChangeEvent event;
 
     @Column(name = "sent_at", nullable = false)
     @CreationTimestamp
     private LocalDateTime sentAt;
+
+    @Column(name = "read_at")
+    private LocalDateTime readAt;
+
+    // Channels this notification still has to go out on with the user's next digest
+    @Column(name = "digest_email", nullable = false)
+    private Boolean digestEmail = false;
+
+    @Column(name = "digest_sms", nullable = false)
+    private Boolean digestSms = false;
+
+    // Helper method for the message, which lives on the shared event
+    public String getMessage() {
+        return event != null ? event.getMessage() : null;
+    }
+
+    // Helper method to mark the notification as carried by a digest
+    public void markDigested() {
+        this.digestEmail = false;
+        this.digestSms = false;
+    }
+
+    // Helper method to mark the notification as read; the first read is kept
+    public void markRead(LocalDateTime readAt) {
+        if (this.readAt == null) {
+            this.readAt = readAt;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package ro.signsofter.caseobserver.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One aggregated message for a user in hourly or daily digest mode, covering every change notified to
+ * them since their previous digest. It is queued in the outbox once per channel instead of each change.
+ */
+@Entity
+@Data
+@Table(name = "notification_digest")
+public class NotificationDigest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "notification_digest_id")
+    @TableGenerator(name = "notification_digest_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "notification_digest", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "subject", length = 500)
+    private String subject;
+
+    @Column(name = "message", nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "notification_count", nullable = false)
+    private Integer notificationCount;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
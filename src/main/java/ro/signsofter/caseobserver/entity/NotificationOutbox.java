@@ -0,0 +1,120 @@
+package ro.signsofter.caseobserver.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * One email or SMS waiting to be delivered. Rows are written in the transaction that records the change,
+ * and delivered afterwards by the notification dispatcher, so a slow provider never holds up a check.
+ */
+@Entity
+@Data
+@Table(name = "notification_outbox")
+public class NotificationOutbox {
+
+    public enum Channel { EMAIL, SMS }
+
+    public enum Status { PENDING, SENT, FAILED }
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "notification_outbox_id")
+    @TableGenerator(name = "notification_outbox_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "notification_outbox", allocationSize = 50)
+    private Long id;
+
+    // Subject and message come from the notification's event, or from the digest for digest users
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "notification_id")
+    private Notification notification;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "digest_id")
+    private NotificationDigest digest;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel", nullable = false)
+    private Channel channel;
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = MAX_ERROR_LENGTH)
+    private String lastError;
+
+    // Node currently delivering this message; the claim lapses at lease_until if that node dies
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Helper methods for the content to deliver
+    public String getSubject() {
+        return digest != null ? digest.getSubject() : notification.getEvent().getSubject();
+    }
+
+    public String getMessage() {
+        return digest != null ? digest.getMessage() : notification.getEvent().getMessage();
+    }
+
+    // Helper method to take the delivery lease
+    public void claim(String nodeId, LocalDateTime leaseUntil) {
+        this.claimedBy = nodeId;
+        this.leaseUntil = leaseUntil;
+    }
+
+    // Helper method to record a successful delivery
+    public void recordDelivery(LocalDateTime deliveredAt) {
+        this.attempts = attempts + 1;
+        this.status = Status.SENT;
+        this.sentAt = deliveredAt;
+        this.lastError = null;
+        releaseClaim();
+    }
+
+    // Helper method to record a failed delivery: retried after backoff * 2^(attempts - 1), capped at maxBackoff,
+    // and given up on after maxAttempts
+    public void recordFailure(String error, LocalDateTime failedAt, int maxAttempts, Duration backoff, Duration maxBackoff) {
+        this.attempts = attempts + 1;
+        this.lastError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        if (attempts >= maxAttempts) {
+            this.status = Status.FAILED;
+        } else {
+            Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+            this.nextAttemptAt = failedAt.plus(delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay);
+        }
+        releaseClaim();
+    }
+
+    private void releaseClaim() {
+        this.claimedBy = null;
+        this.leaseUntil = null;
+    }
+}
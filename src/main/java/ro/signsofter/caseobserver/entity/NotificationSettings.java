@@ -6,13 +6,23 @@ import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 @Entity
 @Data
 @Table(name = "notification_settings")
 public class NotificationSettings {
 
+    // Adaptive scheduling: checks run at the minimum interval around hearings and right after a change,
+    // and back off exponentially (up to the maximum interval) while the case stays unchanged
+    private static final Duration HEARING_WINDOW = Duration.ofHours(48);
+    private static final Duration RECENT_CHANGE_WINDOW = Duration.ofHours(6);
+    private static final int UNCHANGED_CHECKS_BEFORE_BACKOFF = 3;
+    private static final int MAX_BACKOFF_DOUBLINGS = 10;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -25,6 +35,14 @@ public class NotificationSettings {
     @Min(value = 1, message = "Notification interval must be at least 1 minute")
     private Integer notificationIntervalMinutes = 60; // Default 1 hour
 
+    @Column(name = "min_check_interval_minutes", nullable = false)
+    @Min(value = 1, message = "Minimum check interval must be at least 1 minute")
+    private Integer minCheckIntervalMinutes = 15;
+
+    @Column(name = "max_check_interval_minutes", nullable = false)
+    @Min(value = 1, message = "Maximum check interval must be at least 1 minute")
+    private Integer maxCheckIntervalMinutes = 10080; // 1 week
+
     @Column(name = "email_enabled", nullable = false)
     private Boolean emailEnabled = true;
 
@@ -49,6 +67,23 @@ public class NotificationSettings {
     @Column(name = "next_check_at")
     private LocalDateTime nextCheckAt;
 
+    @Column(name = "last_change_detected_at")
+    private LocalDateTime lastChangeDetectedAt;
+
+    @Column(name = "unchanged_check_count", nullable = false)
+    private Integer unchangedCheckCount = 0;
+
+    // Node currently checking this case; the claim lapses at lease_until if that node dies
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -59,11 +94,74 @@ public class NotificationSettings {
 
     // Helper method to calculate next check time
     public void calculateNextCheckTime() {
-        if (lastCheckedAt != null) {
-            this.nextCheckAt = lastCheckedAt.plusMinutes(notificationIntervalMinutes);
+        calculateNextCheckTime(List.of());
+    }
+
+    // Helper method to calculate next check time, tightened around the given hearings
+    public void calculateNextCheckTime(List<Hearing> hearings) {
+        LocalDateTime from = lastCheckedAt != null ? lastCheckedAt : LocalDateTime.now();
+        setNextCheckAt(from.plusMinutes(checkIntervalMinutes(from, hearings)));
+    }
+
+    // next_check_at holds whole seconds and MySQL rounds on insert; truncated, the stored due time is never
+    // later than the one the case's timer is armed for
+    public void setNextCheckAt(LocalDateTime nextCheckAt) {
+        this.nextCheckAt = nextCheckAt != null ? nextCheckAt.truncatedTo(ChronoUnit.SECONDS) : null;
+    }
+
+    // Helper method to record the outcome of a check, which drives the adaptive interval
+    public void recordCheck(LocalDateTime checkedAt, boolean changed) {
+        this.lastCheckedAt = checkedAt;
+        if (changed) {
+            this.lastChangeDetectedAt = checkedAt;
+            this.unchangedCheckCount = 0;
         } else {
-            this.nextCheckAt = LocalDateTime.now().plusMinutes(notificationIntervalMinutes);
+            this.unchangedCheckCount = unchangedCheckCount + 1;
+        }
+    }
+
+    private long checkIntervalMinutes(LocalDateTime from, List<Hearing> hearings) {
+        long interval = notificationIntervalMinutes;
+        long lower = Math.min(minCheckIntervalMinutes, interval);
+        long upper = Math.max(maxCheckIntervalMinutes, interval);
+
+        if (lastChangeDetectedAt != null && !lastChangeDetectedAt.isBefore(from.minus(RECENT_CHANGE_WINDOW))) {
+            return lower;
+        }
+
+        LocalDateTime nextHearingWindow = null;
+        for (Hearing hearing : hearings) {
+            LocalDateTime hearingDate = hearing.getHearingDate();
+            if (hearingDate == null) {
+                continue;
+            }
+            if (Duration.between(from, hearingDate).abs().compareTo(HEARING_WINDOW) <= 0) {
+                return lower;
+            }
+            LocalDateTime windowStart = hearingDate.minus(HEARING_WINDOW);
+            if (windowStart.isAfter(from) && (nextHearingWindow == null || windowStart.isBefore(nextHearingWindow))) {
+                nextHearingWindow = windowStart;
+            }
         }
+
+        int doublings = Math.min(Math.max(0, unchangedCheckCount - UNCHANGED_CHECKS_BEFORE_BACKOFF), MAX_BACKOFF_DOUBLINGS);
+        interval = Math.min(interval << doublings, upper);
+        // Never back off past the start of an upcoming hearing's window
+        if (nextHearingWindow != null) {
+            interval = Math.min(interval, Math.max(lower, Duration.between(from, nextHearingWindow).toMinutes()));
+        }
+        return interval;
+    }
+
+    // Helper methods to take and give back the monitoring lease
+    public void claim(String nodeId, LocalDateTime leaseUntil) {
+        this.claimedBy = nodeId;
+        this.leaseUntil = leaseUntil;
+    }
+
+    public void releaseClaim() {
+        this.claimedBy = null;
+        this.leaseUntil = null;
     }
 
     // Helper method to check if it's time for next check
@@ -10,7 +10,9 @@ import lombok.Data;
 public class Party {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "party_id")
+    @TableGenerator(name = "party_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "party", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false)
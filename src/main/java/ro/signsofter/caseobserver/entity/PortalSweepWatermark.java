@@ -0,0 +1,52 @@
+package ro.signsofter.caseobserver.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "portal_sweep_watermark")
+public class PortalSweepWatermark {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "institution", nullable = false, unique = true)
+    private String institution;
+
+    // Start of the unbroken run of incremental sweeps; modifications before it were never swept
+    @Column(name = "tracked_since", nullable = false)
+    private LocalDateTime trackedSince;
+
+    // Every case the portal reports as modified up to this time has been checked
+    @Column(name = "synced_until", nullable = false)
+    private LocalDateTime syncedUntil;
+
+    // Node currently sweeping this institution; the claim lapses at lease_until if that node dies
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Helper method to check whether the sweeps vouch for a case last read from the portal at lastCheckedAt:
+    // any later modification was either checked by a sweep or will be within maxLag
+    public boolean covers(LocalDateTime lastCheckedAt, LocalDateTime now, Duration maxLag) {
+        return lastCheckedAt != null
+                && !lastCheckedAt.isBefore(trackedSince)
+                && !syncedUntil.isBefore(now.minus(maxLag));
+    }
+}
@@ -47,7 +47,16 @@ public class User {
     @Column(nullable = false)
     private Role role = Role.USER;
 
+    // How change notifications reach this user by email and SMS: one message per change, or collected into a digest
+    @Enumerated(EnumType.STRING)
+    @Column(name = "digest_mode", nullable = false)
+    private DigestMode digestMode = DigestMode.IMMEDIATE;
+
     public enum Role {
         ADMIN, USER
     }
+
+    public enum DigestMode {
+        IMMEDIATE, HOURLY, DAILY
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package ro.signsofter.caseobserver.exception.portal;
+
+import java.time.Instant;
+
+/**
+ * Thrown without contacting the portal while its circuit breaker is open.
+ */
+public class PortalUnavailableException extends PortalQueryException {
+
+    private final Instant retryAt;
+
+    public PortalUnavailableException(String message, Instant retryAt) {
+        super(message);
+        this.retryAt = retryAt;
+    }
+
+    public Instant getRetryAt() {
+        return retryAt;
+    }
+}
@@ -0,0 +1,94 @@
+package ro.signsofter.caseobserver.external;
+
+import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
+import ro.signsofter.caseobserver.external.dto.caseResponse.HearingDto;
+import ro.signsofter.caseobserver.external.dto.caseResponse.PartyDto;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * SHA-256 over the parts of a {@link CaseDetailsDto} the change detector compares.
+ * Hearings and parties are hashed independently of their order, as the detector matches them by key;
+ * the portal's modification date is left out so an unchanged case keeps its fingerprint.
+ */
+public final class CaseContentFingerprint {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private CaseContentFingerprint() {
+    }
+
+    /**
+     * The fingerprint computed when the response was parsed, or a freshly computed one for DTOs built elsewhere.
+     */
+    public static String of(CaseDetailsDto caseDetails) {
+        return caseDetails.getContentHash() != null ? caseDetails.getContentHash() : compute(caseDetails);
+    }
+
+    static String compute(CaseDetailsDto caseDetails) {
+        MessageDigest digest = sha256();
+        update(digest, caseDetails.getProceduralStage());
+        update(digest, caseDetails.getCaseCategory());
+        update(digest, caseDetails.getSubject());
+        update(digest, caseDetails.getDepartment());
+
+        List<String> hearings = new ArrayList<>();
+        if (caseDetails.getHearings() != null) {
+            for (HearingDto hearing : caseDetails.getHearings()) {
+                hearings.add(digestOf(hearing.getDate(), hearing.getTime(), hearing.getSolution(),
+                        hearing.getSummary(), hearing.getJudicialPanel()));
+            }
+        }
+        updateUnordered(digest, hearings);
+
+        List<String> parties = new ArrayList<>();
+        if (caseDetails.getParties() != null) {
+            for (PartyDto party : caseDetails.getParties()) {
+                parties.add(digestOf(party.getName(), party.getRole()));
+            }
+        }
+        updateUnordered(digest, parties);
+        return HEX.formatHex(digest.digest());
+    }
+
+    private static String digestOf(String... values) {
+        MessageDigest digest = sha256();
+        for (String value : values) {
+            update(digest, value);
+        }
+        return HEX.formatHex(digest.digest());
+    }
+
+    private static void updateUnordered(MessageDigest digest, List<String> itemDigests) {
+        itemDigests.sort(null);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(itemDigests.size()).array());
+        for (String itemDigest : itemDigests) {
+            digest.update(itemDigest.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        // Length-prefixed so field boundaries are unambiguous; -1 keeps null apart from ""
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package ro.signsofter.caseobserver.external;
+
+import ro.signsofter.caseobserver.exception.portal.PortalQueryException;
+import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
+import ro.signsofter.caseobserver.external.dto.caseResponse.HearingDto;
+import ro.signsofter.caseobserver.external.dto.caseResponse.PartyDto;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pull parser for CautareDosare SOAP responses.
+ * Reads the DTOs straight off the response stream, so nothing but the resulting objects is kept in memory;
+ * produces the same {@link CaseDetailsDto} the JAXB binding does.
+ */
+final class CaseDetailsStaxParser {
+
+    private static final String SOAP_NS = "http://schemas.xmlsoap.org/soap/envelope/";
+    private static final String PORTAL_NS = "portalquery.just.ro";
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private CaseDetailsStaxParser() {
+    }
+
+    static CaseDetailsDto parse(InputStream inputStream) throws XMLStreamException, PortalQueryException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(inputStream);
+        try {
+            if (!nextStartElement(reader) || !isElement(reader, SOAP_NS, "Envelope")
+                    || !nextChild(reader, SOAP_NS, "Body")
+                    || !nextChild(reader, PORTAL_NS, "CautareDosareResponse")
+                    || !nextChild(reader, PORTAL_NS, "CautareDosareResult")
+                    || !nextChild(reader, PORTAL_NS, "Dosar")) {
+                throw new PortalQueryException("Portal returned an empty or malformed response");
+            }
+            return readCaseDetails(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads every case in the result, for searches that can match more than one (an empty result yields an empty list).
+     */
+    static List<CaseDetailsDto> parseAll(InputStream inputStream) throws XMLStreamException, PortalQueryException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(inputStream);
+        try {
+            if (!nextStartElement(reader) || !isElement(reader, SOAP_NS, "Envelope")
+                    || !nextChild(reader, SOAP_NS, "Body")
+                    || !nextChild(reader, PORTAL_NS, "CautareDosareResponse")) {
+                throw new PortalQueryException("Portal returned an empty or malformed response");
+            }
+            List<CaseDetailsDto> cases = new ArrayList<>();
+            if (nextChild(reader, PORTAL_NS, "CautareDosareResult")) {
+                while (nextChild(reader, PORTAL_NS, "Dosar")) {
+                    cases.add(readCaseDetails(reader));
+                }
+            }
+            return cases;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static CaseDetailsDto readCaseDetails(XMLStreamReader reader) throws XMLStreamException {
+        CaseDetailsDto caseDetails = new CaseDetailsDto();
+        while (nextStartElement(reader)) {
+            if (!PORTAL_NS.equals(reader.getNamespaceURI())) {
+                skipElement(reader);
+                continue;
+            }
+            switch (reader.getLocalName()) {
+                case "numar" -> caseDetails.setNumber(readText(reader));
+                case "institutie" -> caseDetails.setInstitution(readText(reader));
+                case "departament" -> caseDetails.setDepartment(readText(reader));
+                case "categorieCaz" -> caseDetails.setCaseCategory(readText(reader));
+                case "categorieCazNume" -> caseDetails.setCaseCategoryName(readText(reader));
+                case "stadiuProcesual" -> caseDetails.setProceduralStage(readText(reader));
+                case "stadiuProcesualNume" -> caseDetails.setProceduralStageName(readText(reader));
+                case "obiect" -> caseDetails.setSubject(readText(reader));
+                case "dataModificare" -> caseDetails.setModificationDateTime(readText(reader));
+                case "parti" -> caseDetails.setParties(readParties(reader));
+                case "sedinte" -> caseDetails.setHearings(readHearings(reader));
+                default -> skipElement(reader);
+            }
+        }
+        return caseDetails;
+    }
+
+    private static List<PartyDto> readParties(XMLStreamReader reader) throws XMLStreamException {
+        List<PartyDto> parties = new ArrayList<>();
+        while (nextStartElement(reader)) {
+            if (!isElement(reader, PORTAL_NS, "DosarParte")) {
+                skipElement(reader);
+                continue;
+            }
+            PartyDto party = new PartyDto();
+            while (nextStartElement(reader)) {
+                if (isElement(reader, PORTAL_NS, "nume")) {
+                    party.setName(readText(reader));
+                } else if (isElement(reader, PORTAL_NS, "calitateParte")) {
+                    party.setRole(readText(reader));
+                } else {
+                    skipElement(reader);
+                }
+            }
+            parties.add(party);
+        }
+        return parties;
+    }
+
+    private static List<HearingDto> readHearings(XMLStreamReader reader) throws XMLStreamException {
+        List<HearingDto> hearings = new ArrayList<>();
+        while (nextStartElement(reader)) {
+            if (!isElement(reader, PORTAL_NS, "DosarSedinta")) {
+                skipElement(reader);
+                continue;
+            }
+            HearingDto hearing = new HearingDto();
+            while (nextStartElement(reader)) {
+                if (!PORTAL_NS.equals(reader.getNamespaceURI())) {
+                    skipElement(reader);
+                    continue;
+                }
+                switch (reader.getLocalName()) {
+                    case "complet" -> hearing.setJudicialPanel(readText(reader));
+                    case "data" -> hearing.setDate(readText(reader));
+                    case "ora" -> hearing.setTime(readText(reader));
+                    case "solutie" -> hearing.setSolution(readText(reader));
+                    case "solutieSumar" -> hearing.setSummary(readText(reader));
+                    case "dataPronuntare" -> hearing.setPronouncementDate(readText(reader));
+                    default -> skipElement(reader);
+                }
+            }
+            hearings.add(hearing);
+        }
+        return hearings;
+    }
+
+    /**
+     * Advances to the next child element of the current element.
+     * Returns false, positioned on the current element's end tag, when there are no more children.
+     */
+    private static boolean nextStartElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                return true;
+            }
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean nextChild(XMLStreamReader reader, String namespace, String localName) throws XMLStreamException {
+        while (nextStartElement(reader)) {
+            if (isElement(reader, namespace, localName)) {
+                return true;
+            }
+            skipElement(reader);
+        }
+        return false;
+    }
+
+    private static boolean isElement(XMLStreamReader reader, String namespace, String localName) {
+        return localName.equals(reader.getLocalName()) && namespace.equals(reader.getNamespaceURI());
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Text content of the current element (an empty element yields ""); nested elements are ignored.
+     */
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = null;
+        String single = "";
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE || event == XMLStreamConstants.ENTITY_REFERENCE) {
+                if (text != null) {
+                    text.append(reader.getText());
+                } else if (single.isEmpty()) {
+                    single = reader.getText();
+                } else {
+                    text = new StringBuilder(single).append(reader.getText());
+                }
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                skipElement(reader);
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return text != null ? text.toString() : single;
+            }
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
@@ -0,0 +1,55 @@
+package ro.signsofter.caseobserver.external;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+import ro.signsofter.caseobserver.external.dto.caseResponse.FetchCaseEnvelope;
+
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Process-wide JAXB binding for {@link FetchCaseEnvelope}.
+ * The context is built once (it is thread-safe and expensive to create); unmarshallers are not
+ * thread-safe, so they are handed out from a small bounded pool and returned after use.
+ */
+final class CaseEnvelopeUnmarshaller {
+
+    private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final JAXBContext CONTEXT = createContext();
+
+    private static final BlockingQueue<Unmarshaller> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private CaseEnvelopeUnmarshaller() {
+    }
+
+    /**
+     * Forces the context to be built and seeds the pool, so the first fetch does not pay for it.
+     */
+    static void preload() throws JAXBException {
+        POOL.offer(CONTEXT.createUnmarshaller());
+    }
+
+    static FetchCaseEnvelope unmarshal(InputStream inputStream) throws JAXBException {
+        Unmarshaller unmarshaller = POOL.poll();
+        if (unmarshaller == null) {
+            unmarshaller = CONTEXT.createUnmarshaller();
+        }
+        try {
+            return (FetchCaseEnvelope) unmarshaller.unmarshal(inputStream);
+        } finally {
+            // Drop the instance when the pool is already full, so the pool never grows past POOL_SIZE
+            POOL.offer(unmarshaller);
+        }
+    }
+
+    private static JAXBContext createContext() {
+        try {
+            return JAXBContext.newInstance(FetchCaseEnvelope.class);
+        } catch (JAXBException e) {
+            throw new IllegalStateException("Could not initialize JAXB context for portal responses", e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ro.signsofter.caseobserver.external;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Pre-rendered CautareDosare request envelope.
+ * Writes the same bytes the SAAJ message built in {@link PortalQueryService} serializes to, without building
+ * a DOM per request: the fixed parts are encoded once and only the parameters are escaped on the fly.
+ */
+final class CautareDosareRequestTemplate {
+
+    private static final byte[] ENVELOPE_START = bytes(
+            "<SOAP-ENV:Envelope xmlns:SOAP-ENV=\"http://schemas.xmlsoap.org/soap/envelope/\""
+                    + " xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\""
+                    + " xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\""
+                    + " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">"
+                    + "<SOAP-ENV:Header/><SOAP-ENV:Body><CautareDosare xmlns=\"portalquery.just.ro\">");
+
+    private static final byte[] ENVELOPE_END = bytes("</CautareDosare></SOAP-ENV:Body></SOAP-ENV:Envelope>");
+
+    private CautareDosareRequestTemplate() {
+    }
+
+    static void writeTo(OutputStream out, String caseNumber, String institution) throws IOException {
+        writeTo(out, caseNumber, institution, null, null);
+    }
+
+    /**
+     * Writes the envelope with the optional last-modification range; null bounds are left out.
+     */
+    static void writeTo(OutputStream out, String caseNumber, String institution,
+                        String modifiedStart, String modifiedStop) throws IOException {
+        out.write(ENVELOPE_START);
+        writeElement(out, "numarDosar", caseNumber);
+        writeElement(out, "obiectDosar", "");
+        writeElement(out, "numeParte", "");
+        writeElement(out, "institutie", institution);
+        if (modifiedStart != null) {
+            writeElement(out, "dataUltimaModificareStart", modifiedStart);
+        }
+        if (modifiedStop != null) {
+            writeElement(out, "dataUltimaModificareStop", modifiedStop);
+        }
+        out.write(ENVELOPE_END);
+    }
+
+    private static void writeElement(OutputStream out, String name, String value) throws IOException {
+        Objects.requireNonNull(value, name);
+        out.write('<');
+        writeAscii(out, name);
+        if (value.isEmpty()) {
+            out.write('/');
+            out.write('>');
+            return;
+        }
+        out.write('>');
+        writeEscaped(out, value);
+        out.write('<');
+        out.write('/');
+        writeAscii(out, name);
+        out.write('>');
+    }
+
+    /**
+     * Escapes text content the way the SAAJ serializer does: markup characters as entities, control
+     * characters (except tab and newline), C1 controls and supplementary code points as decimal
+     * character references, everything else as UTF-8.
+     */
+    private static void writeEscaped(OutputStream out, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '&') {
+                writeAscii(out, "&amp;");
+            } else if (c == '<') {
+                writeAscii(out, "&lt;");
+            } else if (c == '>') {
+                writeAscii(out, "&gt;");
+            } else if ((c < 0x20 && c != '\t' && c != '\n') || (c >= 0x7F && c <= 0x9F)) {
+                writeCharacterReference(out, c);
+            } else if (c < 0x80) {
+                out.write(c);
+            } else if (c < 0x800) {
+                out.write(0xC0 | (c >> 6));
+                out.write(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                writeCharacterReference(out, Character.toCodePoint(c, value.charAt(++i)));
+            } else if (Character.isSurrogate(c)) {
+                throw new IllegalArgumentException("Invalid UTF-16 surrogate in request parameter");
+            } else {
+                out.write(0xE0 | (c >> 12));
+                out.write(0x80 | ((c >> 6) & 0x3F));
+                out.write(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static void writeCharacterReference(OutputStream out, int codePoint) throws IOException {
+        out.write('&');
+        out.write('#');
+        writeAscii(out, Integer.toString(codePoint));
+        out.write(';');
+    }
+
+    private static void writeAscii(OutputStream out, String ascii) throws IOException {
+        for (int i = 0; i < ascii.length(); i++) {
+            out.write(ascii.charAt(i));
+        }
+    }
+
+    private static byte[] bytes(String ascii) {
+        return ascii.getBytes(StandardCharsets.US_ASCII);
+    }
+}
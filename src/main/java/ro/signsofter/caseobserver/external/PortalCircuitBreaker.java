@@ -0,0 +1,139 @@
+package ro.signsofter.caseobserver.external;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Count-based circuit breaker for the portal.
+ * Tracks the outcome of the last {@code windowSize} requests; once at least {@code minimumCalls} have been
+ * recorded and the failure rate reaches the threshold, the breaker opens and rejects requests for
+ * {@code openDuration}. After that a single trial request is let through: success closes the breaker,
+ * failure opens it again.
+ */
+final class PortalCircuitBreaker {
+
+    enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    // Ring buffer of the latest outcomes, true for a failure
+    private final boolean[] outcomes;
+    private int nextOutcome;
+    private int calls;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private Instant openUntil;
+    private boolean trialInFlight;
+
+    PortalCircuitBreaker(int windowSize, int minimumCalls, double failureRatePercent, Duration openDuration, Clock clock) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = failureRatePercent / 100.0;
+        this.openDuration = openDuration;
+        this.clock = clock;
+        this.outcomes = new boolean[this.windowSize];
+    }
+
+    /**
+     * @return whether a request may be sent now; every permitted request must be followed by
+     * exactly one of {@link #onSuccess()}, {@link #onFailure()} or {@link #onIgnored()}
+     */
+    synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.instant().isBefore(openUntil)) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (calls >= minimumCalls && failureRate() >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * The permitted request was never sent (e.g. no local capacity), so it says nothing about the portal.
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    synchronized State state() {
+        if (state == State.OPEN && !clock.instant().isBefore(openUntil)) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    synchronized double failureRate() {
+        return calls == 0 ? 0 : (double) failures / calls;
+    }
+
+    /**
+     * @return when an open breaker lets the next trial through, or now when it is not open
+     */
+    synchronized Instant retryAt() {
+        Instant now = clock.instant();
+        return state == State.OPEN && now.isBefore(openUntil) ? openUntil : now;
+    }
+
+    private void record(boolean failure) {
+        if (calls == windowSize) {
+            if (outcomes[nextOutcome]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        outcomes[nextOutcome] = failure;
+        if (failure) {
+            failures++;
+        }
+        nextOutcome = (nextOutcome + 1) % windowSize;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntil = clock.instant().plus(openDuration);
+        trialInFlight = false;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        trialInFlight = false;
+        calls = 0;
+        failures = 0;
+        nextOutcome = 0;
+    }
+}
@@ -0,0 +1,30 @@
+package ro.signsofter.caseobserver.external;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the portal circuit breaker under /actuator/health.
+ * Always UP: the portal being down does not make this instance unhealthy, and a DOWN here would
+ * get the container restarted. The breaker state is in the details.
+ */
+@Component("portal")
+public class PortalHealthIndicator implements HealthIndicator {
+
+    @Autowired
+    private PortalQueryService portalQueryService;
+
+    @Override
+    public Health health() {
+        PortalCircuitBreaker circuitBreaker = portalQueryService.circuitBreaker();
+        Health.Builder health = Health.up()
+                .withDetail("circuitBreaker", circuitBreaker.state())
+                .withDetail("failureRate", circuitBreaker.failureRate());
+        if (circuitBreaker.state() == PortalCircuitBreaker.State.OPEN) {
+            health.withDetail("retryAt", circuitBreaker.retryAt());
+        }
+        return health.build();
+    }
+}
@@ -14,6 +14,28 @@ public class PortalProperties {
     private int connectTimeoutMs;
     private int readTimeoutMs;
     private int retries;
+    // Pull-parse responses off the connection; false falls back to the JAXB binding
+    private boolean streamingParser = true;
+    // Write requests from the pre-rendered envelope; false builds each one with SAAJ
+    private boolean requestTemplate = true;
+    private int maxConnectionsPerHost = 10;
+    private boolean gzipRequests = false;
+    private boolean gzipResponses = true;
+    // Global cap on requests sent to the portal; zero or less disables it
+    private double requestsPerSecond = 5;
+    // Longest wait for a rate limit token and then for a free connection; zero or less waits without a limit
+    private long acquireTimeoutMs = 30000;
+    // Retries wait a random time of up to retryBackoffMs * 2^(retry - 1), capped at maxRetryBackoffMs
+    private long retryBackoffMs = 250;
+    private long maxRetryBackoffMs = 5000;
+    // Circuit breaker: opens when failureRatePercent of the last windowSize requests failed
+    private int circuitWindowSize = 20;
+    private int circuitMinimumCalls = 10;
+    private double circuitFailureRatePercent = 50;
+    private long circuitOpenMs = 60000;
+    // Case details recently read from the portal; an entry weighs 1 + its hearings + its parties. Zero TTL disables it
+    private long responseCacheTtlMs = 120000;
+    private long responseCacheMaxWeight = 20000;
 }
 
 
@@ -1,71 +1,322 @@
 package ro.signsofter.caseobserver.external;
 
-import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.Unmarshaller;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.xml.bind.JAXBException;
 import jakarta.xml.soap.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import ro.signsofter.caseobserver.exception.portal.PortalQueryException;
+import ro.signsofter.caseobserver.exception.portal.PortalUnavailableException;
 import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
+import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsResult;
 import ro.signsofter.caseobserver.external.dto.caseResponse.FetchCaseEnvelope;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class PortalQueryService {
 
+    private static final int MAX_ERROR_PAYLOAD_BYTES = 8192;
+
     @Autowired
     private PortalProperties portalProperties;
 
+    // One client for the whole process: it keeps the TCP connections to the portal alive between requests
+    private HttpClient httpClient;
+
+    private MessageFactory messageFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Caps the number of requests (and therefore pooled connections) open against the portal at once
+    private Semaphore connectionPermits;
+
+    private PortalRateLimiter rateLimiter;
+
+    private PortalCircuitBreaker circuitBreaker;
+
+    private Counter successfulRequests;
+    private Counter failedRequests;
+    private Counter rejectedRequests;
+    private Counter coalescedRequests;
+
+    // Fetches currently on the wire, so concurrent callers asking for the same case share one request
+    private final Map<FetchKey, CompletableFuture<CaseDetailsDto>> inFlightFetches = new ConcurrentHashMap<>();
+
+    // Recently fetched cases, so a lookup followed by creating the same case reaches the portal once; null when disabled
+    private Cache<FetchKey, CaseDetailsDto> responseCache;
+
+    @PostConstruct
+    void initialize() throws JAXBException, SOAPException {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (portalProperties.getConnectTimeoutMs() > 0) {
+            builder.connectTimeout(Duration.ofMillis(portalProperties.getConnectTimeoutMs()));
+        }
+        httpClient = builder.build();
+        messageFactory = MessageFactory.newInstance();
+        connectionPermits = new Semaphore(Math.max(1, portalProperties.getMaxConnectionsPerHost()), true);
+        rateLimiter = new PortalRateLimiter(portalProperties.getRequestsPerSecond());
+        circuitBreaker = new PortalCircuitBreaker(portalProperties.getCircuitWindowSize(),
+                portalProperties.getCircuitMinimumCalls(), portalProperties.getCircuitFailureRatePercent(),
+                Duration.ofMillis(portalProperties.getCircuitOpenMs()), Clock.systemUTC());
+
+        Gauge.builder("portal.circuit.state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .description("Portal circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .register(meterRegistry);
+        Gauge.builder("portal.circuit.failure.rate", circuitBreaker, PortalCircuitBreaker::failureRate)
+                .register(meterRegistry);
+        successfulRequests = Counter.builder("portal.requests").tag("outcome", "success").register(meterRegistry);
+        failedRequests = Counter.builder("portal.requests").tag("outcome", "failure").register(meterRegistry);
+        rejectedRequests = Counter.builder("portal.requests").tag("outcome", "rejected").register(meterRegistry);
+        coalescedRequests = Counter.builder("portal.requests.coalesced")
+                .description("Fetches that joined an identical fetch already in flight")
+                .register(meterRegistry);
+
+        if (portalProperties.getResponseCacheTtlMs() > 0 && portalProperties.getResponseCacheMaxWeight() > 0) {
+            responseCache = Caffeine.newBuilder()
+                    .expireAfterWrite(Duration.ofMillis(portalProperties.getResponseCacheTtlMs()))
+                    .maximumWeight(portalProperties.getResponseCacheMaxWeight())
+                    .weigher((FetchKey key, CaseDetailsDto caseDetails) -> weigh(caseDetails))
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, responseCache, "portal.case-details");
+        }
+
+        if (!portalProperties.isStreamingParser()) {
+            CaseEnvelopeUnmarshaller.preload();
+        }
+    }
+
+    /**
+     * Fetches the case, answering from the response cache when it was fetched within the last
+     * {@code portal.response-cache-ttl-ms}. A caller that asks for a case which is already being fetched waits for
+     * that request and gets its result (or exception) instead of sending another one; the returned DTO may
+     * therefore be shared and must not be modified.
+     */
     public CaseDetailsDto fetchCaseDetails(String caseNumber, String institution) throws PortalQueryException {
+        FetchKey key = new FetchKey(caseNumber, institution);
+        if (responseCache != null) {
+            CaseDetailsDto cached = responseCache.getIfPresent(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return fetchShared(key);
+    }
+
+    /**
+     * Like {@link #fetchCaseDetails}, but never answers from the response cache; the result replaces the cached one.
+     * For callers that need the portal's current state, such as the monitoring checks.
+     */
+    public CaseDetailsDto fetchFreshCaseDetails(String caseNumber, String institution) throws PortalQueryException {
+        return fetchShared(new FetchKey(caseNumber, institution));
+    }
+
+    private CaseDetailsDto fetchShared(FetchKey key) throws PortalQueryException {
+        CompletableFuture<CaseDetailsDto> fetch = new CompletableFuture<>();
+        CompletableFuture<CaseDetailsDto> inFlight = inFlightFetches.putIfAbsent(key, fetch);
+        if (inFlight != null) {
+            coalescedRequests.increment();
+            return awaitFetch(inFlight);
+        }
+        try {
+            CaseDetailsDto caseDetails = fetchFromPortal(key.caseNumber(), key.institution());
+            if (responseCache != null) {
+                responseCache.put(key, caseDetails);
+            }
+            fetch.complete(caseDetails);
+            return caseDetails;
+        } catch (PortalQueryException | RuntimeException e) {
+            fetch.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightFetches.remove(key, fetch);
+        }
+    }
+
+    private CaseDetailsDto fetchFromPortal(String caseNumber, String institution) throws PortalQueryException {
         System.out.println("PortalQueryService - Fetching case: " + caseNumber + " from " + institution);
+        return query(new CautareDosareQuery(caseNumber, institution, null, null), this::parseCaseDetails);
+    }
+
+    /**
+     * Searches the institution for every case the portal reports as modified within the range.
+     * Not cached or coalesced: each call asks the portal.
+     */
+    public List<CaseDetailsDto> fetchModifiedCases(String institution, LocalDateTime modifiedFrom,
+                                                   LocalDateTime modifiedTo) throws PortalQueryException {
+        System.out.println("PortalQueryService - Fetching cases of " + institution + " modified between "
+                + modifiedFrom + " and " + modifiedTo);
+        return query(new CautareDosareQuery("", institution, modifiedFrom, modifiedTo), this::parseCases);
+    }
+
+    private <T> T query(CautareDosareQuery query, ResponseParser<T> parser) throws PortalQueryException {
         int attempts = Math.max(1, portalProperties.getRetries() + 1);
         Exception last = null;
         for (int i = 0; i < attempts; i++) {
+            if (i > 0) {
+                backOff(i);
+            }
+            if (!circuitBreaker.tryAcquirePermission()) {
+                rejectedRequests.increment();
+                throw new PortalUnavailableException("Portal is unavailable, circuit breaker is open", circuitBreaker.retryAt());
+            }
             try {
                 System.out.println("PortalQueryService - Attempt " + (i + 1) + "/" + attempts);
-                String soapResponse = sendSoapRequest(caseNumber, institution);
-                System.out.println("PortalQueryService - SOAP response length: " + soapResponse.length());
-                JAXBContext context = JAXBContext.newInstance(FetchCaseEnvelope.class);
-                Unmarshaller unmarshaller = context.createUnmarshaller();
-                FetchCaseEnvelope envelope = (FetchCaseEnvelope) unmarshaller.unmarshal(new StringReader(soapResponse));
-
-                if (envelope == null || envelope.getBody() == null || envelope.getBody().getResponse() == null
-                        || envelope.getBody().getResponse().getResult() == null
-                        || envelope.getBody().getResponse().getResult().getCaseDetails() == null) {
-                    throw new PortalQueryException("Portal returned an empty or malformed response");
-                }
+                T result = sendSoapRequest(query, parser);
+                circuitBreaker.onSuccess();
+                successfulRequests.increment();
 
                 System.out.println("PortalQueryService - Successfully parsed response");
-                return envelope.getBody().getResponse().getResult().getCaseDetails();
+                return result;
+            } catch (CapacityException e) {
+                // Never reached the portal
+                circuitBreaker.onIgnored();
+                System.out.println("PortalQueryService - Attempt " + (i + 1) + " failed: " + e.getMessage());
+                last = e;
             } catch (Exception e) {
                 System.out.println("PortalQueryService - Attempt " + (i + 1) + " failed: " + e.getMessage());
                 last = e;
-                // simple retry on transient errors
+                if (!isPortalFault(e)) {
+                    // The portal answered (client error, unusable payload); retrying would get the same answer
+                    circuitBreaker.onSuccess();
+                    break;
+                }
+                circuitBreaker.onFailure();
+                failedRequests.increment();
             }
         }
         throw new PortalQueryException("Error fetching case details: " + (last != null ? last.getMessage() : "unknown error"));
     }
 
-    private String sendSoapRequest(String caseNumber, String institution) throws Exception {
-        SOAPMessage soapMessage = createSoapRequest(caseNumber, institution);
-        HttpURLConnection conn = createConnection();
+    private static CaseDetailsDto awaitFetch(CompletableFuture<CaseDetailsDto> fetch) throws PortalQueryException {
+        try {
+            return fetch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PortalQueryException("Interrupted while waiting for a portal fetch in flight");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PortalQueryException portalQueryException) {
+                throw portalQueryException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new PortalQueryException("Error fetching case details: " + e.getCause().getMessage());
+        }
+    }
+
+    private static int weigh(CaseDetailsDto caseDetails) {
+        int hearings = caseDetails.getHearings() != null ? caseDetails.getHearings().size() : 0;
+        int parties = caseDetails.getParties() != null ? caseDetails.getParties().size() : 0;
+        return 1 + hearings + parties;
+    }
+
+    PortalCircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    CaseDetailsDto parseCaseDetails(InputStream soapResponse) throws Exception {
+        CaseDetailsDto caseDetails = unmarshalCaseDetails(soapResponse);
+        // Fingerprinted once here, so cached and coalesced results share it and the monitoring check can
+        // compare it without hashing again
+        caseDetails.setContentHash(CaseContentFingerprint.compute(caseDetails));
+        return caseDetails;
+    }
+
+    List<CaseDetailsDto> parseCases(InputStream soapResponse) throws Exception {
+        List<CaseDetailsDto> cases;
+        if (portalProperties.isStreamingParser()) {
+            cases = CaseDetailsStaxParser.parseAll(soapResponse);
+        } else {
+            FetchCaseEnvelope envelope = CaseEnvelopeUnmarshaller.unmarshal(soapResponse);
+            if (envelope == null || envelope.getBody() == null || envelope.getBody().getResponse() == null) {
+                throw new PortalQueryException("Portal returned an empty or malformed response");
+            }
+            CaseDetailsResult result = envelope.getBody().getResponse().getResult();
+            cases = result != null && result.getCases() != null ? result.getCases() : List.of();
+        }
+        for (CaseDetailsDto caseDetails : cases) {
+            caseDetails.setContentHash(CaseContentFingerprint.compute(caseDetails));
+        }
+        return cases;
+    }
 
-        try (var outputStream = conn.getOutputStream()) {
-            soapMessage.writeTo(outputStream);
+    private CaseDetailsDto unmarshalCaseDetails(InputStream soapResponse) throws Exception {
+        if (portalProperties.isStreamingParser()) {
+            return CaseDetailsStaxParser.parse(soapResponse);
         }
 
-        return readResponse(conn);
+        FetchCaseEnvelope envelope = CaseEnvelopeUnmarshaller.unmarshal(soapResponse);
+
+        if (envelope == null || envelope.getBody() == null || envelope.getBody().getResponse() == null
+                || envelope.getBody().getResponse().getResult() == null
+                || envelope.getBody().getResponse().getResult().getCaseDetails() == null) {
+            throw new PortalQueryException("Portal returned an empty or malformed response");
+        }
+        return envelope.getBody().getResponse().getResult().getCaseDetails();
+    }
+
+    private <T> T sendSoapRequest(CautareDosareQuery query, ResponseParser<T> parser) throws Exception {
+        HttpRequest request = createRequest(serializeRequest(query));
+
+        long acquireTimeoutMs = portalProperties.getAcquireTimeoutMs() > 0 ? portalProperties.getAcquireTimeoutMs() : Long.MAX_VALUE;
+        try {
+            if (!rateLimiter.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new CapacityException("Timed out waiting for the portal rate limit");
+            }
+            if (!connectionPermits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new CapacityException("Timed out waiting for a free portal connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CapacityException("Interrupted while waiting to query the portal");
+        }
+        try {
+            return readResponse(httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream()), parser);
+        } finally {
+            connectionPermits.release();
+        }
+    }
+
+    SOAPMessage createSoapRequest(String caseNumber, String institution) throws Exception {
+        return createSoapRequest(new CautareDosareQuery(caseNumber, institution, null, null));
     }
 
-    private SOAPMessage createSoapRequest(String caseNumber, String institution) throws Exception {
+    SOAPMessage createSoapRequest(CautareDosareQuery query) throws Exception {
         // Create SOAP Message
-        MessageFactory messageFactory = MessageFactory.newInstance();
         SOAPMessage soapMessage = messageFactory.createMessage();
         SOAPPart soapPart = soapMessage.getSOAPPart();
 
@@ -80,14 +331,18 @@ public class PortalQueryService {
         SOAPElement bodyElement = soapBody.addChildElement("CautareDosare", "", "portalquery.just.ro");
 
         // Add Parameters
-        bodyElement.addChildElement("numarDosar").addTextNode(caseNumber);
+        bodyElement.addChildElement("numarDosar").addTextNode(query.caseNumber());
         bodyElement.addChildElement("obiectDosar").addTextNode("");
         bodyElement.addChildElement("numeParte").addTextNode("");
-        bodyElement.addChildElement("institutie").addTextNode(institution);
+        bodyElement.addChildElement("institutie").addTextNode(query.institution());
 //        bodyElement.addChildElement("dataStart").addTextNode("2022-01-01"); // Optional
 //        bodyElement.addChildElement("dataStop").addTextNode("2024-01-01");  // Optional
-//        bodyElement.addChildElement("dataUltimaModificareStart").addTextNode("2022-01-01");  // Optional
-//        bodyElement.addChildElement("dataUltimaModificareStop").addTextNode("2024-01-01");  // Optional
+        if (query.modifiedStart() != null) {
+            bodyElement.addChildElement("dataUltimaModificareStart").addTextNode(query.modifiedStart());
+        }
+        if (query.modifiedStop() != null) {
+            bodyElement.addChildElement("dataUltimaModificareStop").addTextNode(query.modifiedStop());
+        }
 
         // Save and return SOAP message
         soapMessage.saveChanges();
@@ -95,35 +350,135 @@ public class PortalQueryService {
         return soapMessage;
     }
 
-    private HttpURLConnection createConnection() throws Exception {
-        URL url = new URL(portalProperties.getBaseUrl());
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("POST");
-        conn.setRequestProperty("Host", portalProperties.getHost());
-        conn.setRequestProperty("Content-Type", "text/xml; charset=utf-8");
-        conn.setRequestProperty("SOAPAction", portalProperties.getSoapAction());
-        conn.setConnectTimeout(portalProperties.getConnectTimeoutMs());
-        conn.setReadTimeout(portalProperties.getReadTimeoutMs());
-        conn.setDoOutput(true);
-
-        return conn;
-    }
-
-    private String readResponse(HttpURLConnection conn) throws Exception {
-        int code = conn.getResponseCode();
-        InputStream inputStream = (code >= 200 && code < 300) ? conn.getInputStream() : conn.getErrorStream();
-        try (inputStream) {
-            ByteArrayOutputStream result = new ByteArrayOutputStream();
-            byte[] buffer = new byte[1024];
-            int length;
-            while ((length = inputStream.read(buffer)) != -1) {
-                result.write(buffer, 0, length);
+    private byte[] serializeRequest(CautareDosareQuery query) throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+        if (portalProperties.isGzipRequests()) {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(body)) {
+                writeRequest(gzip, query);
             }
-            String payload = result.toString(StandardCharsets.UTF_8);
+        } else {
+            writeRequest(body, query);
+        }
+        return body.toByteArray();
+    }
+
+    void writeRequest(OutputStream out, String caseNumber, String institution) throws Exception {
+        writeRequest(out, new CautareDosareQuery(caseNumber, institution, null, null));
+    }
+
+    void writeRequest(OutputStream out, CautareDosareQuery query) throws Exception {
+        if (portalProperties.isRequestTemplate()) {
+            CautareDosareRequestTemplate.writeTo(out, query.caseNumber(), query.institution(),
+                    query.modifiedStart(), query.modifiedStop());
+        } else {
+            createSoapRequest(query).writeTo(out);
+        }
+    }
+
+    private HttpRequest createRequest(byte[] body) {
+        // The Host header is derived from the base URL; java.net.http does not allow overriding it
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(portalProperties.getBaseUrl()))
+                .header("Content-Type", "text/xml; charset=utf-8")
+                .header("SOAPAction", portalProperties.getSoapAction())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (portalProperties.getReadTimeoutMs() > 0) {
+            builder.timeout(Duration.ofMillis(portalProperties.getReadTimeoutMs()));
+        }
+        if (portalProperties.isGzipRequests()) {
+            builder.header("Content-Encoding", "gzip");
+        }
+        if (portalProperties.isGzipResponses()) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        return builder.build();
+    }
+
+    private <T> T readResponse(HttpResponse<InputStream> response, ResponseParser<T> parser) throws Exception {
+        int code = response.statusCode();
+        // Closing the body after reading it to the end hands the connection back to the client's pool
+        try (InputStream inputStream = decode(response)) {
             if (code < 200 || code >= 300) {
-                throw new PortalQueryException("Portal responded with status " + code + ": " + payload);
+                throw new StatusException(code, "Portal responded with status " + code + ": " + readErrorPayload(inputStream));
             }
-            return payload;
+            T result = parser.parse(inputStream);
+            inputStream.transferTo(OutputStream.nullOutputStream());
+            return result;
+        }
+    }
+
+    private InputStream decode(HttpResponse<InputStream> response) throws Exception {
+        InputStream body = response.body();
+        boolean gzipped = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+        return new BufferedInputStream(gzipped ? new GZIPInputStream(body) : body);
+    }
+
+    private String readErrorPayload(InputStream errorStream) throws Exception {
+        // Only the start of the fault is useful in the exception message
+        return new String(errorStream.readNBytes(MAX_ERROR_PAYLOAD_BYTES), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Failures that say the portal is struggling: no usable connection or response, server errors and throttling.
+     * These are retried and count against the circuit breaker.
+     */
+    private static boolean isPortalFault(Exception e) {
+        if (e instanceof StatusException statusException) {
+            return statusException.status >= 500 || statusException.status == 429;
+        }
+        return e instanceof IOException;
+    }
+
+    private void backOff(int retry) throws PortalQueryException {
+        // Full jitter: concurrent callers that failed together do not retry together
+        long ceiling = Math.min(portalProperties.getMaxRetryBackoffMs(),
+                portalProperties.getRetryBackoffMs() << Math.min(retry - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(Math.max(0, ceiling) + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PortalQueryException("Interrupted while waiting to retry the portal");
+        }
+    }
+
+    private record FetchKey(String caseNumber, String institution) {
+    }
+
+    /**
+     * CautareDosare parameters; the modification range bounds are sent as portal dateTime values and
+     * left out when null.
+     */
+    record CautareDosareQuery(String caseNumber, String institution, LocalDateTime modifiedFrom, LocalDateTime modifiedTo) {
+
+        private static final DateTimeFormatter PORTAL_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+        String modifiedStart() {
+            return modifiedFrom != null ? modifiedFrom.format(PORTAL_DATE_TIME) : null;
+        }
+
+        String modifiedStop() {
+            return modifiedTo != null ? modifiedTo.format(PORTAL_DATE_TIME) : null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResponseParser<T> {
+        T parse(InputStream soapResponse) throws Exception;
+    }
+
+    private static final class StatusException extends PortalQueryException {
+        private final int status;
+
+        StatusException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private static final class CapacityException extends PortalQueryException {
+        CapacityException(String message) {
+            super(message);
         }
     }
 }
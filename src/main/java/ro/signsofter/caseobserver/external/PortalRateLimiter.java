@@ -0,0 +1,57 @@
+package ro.signsofter.caseobserver.external;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket shared by every request to the portal.
+ * Tokens refill continuously at the configured rate and up to one second's worth can be saved up for a burst.
+ * A caller that finds the bucket empty reserves the next token and sleeps until it is due, so waiting callers
+ * are spaced out evenly instead of all retrying at once.
+ */
+final class PortalRateLimiter {
+
+    private final double permitsPerSecond;
+    private final double capacity;
+    private final double nanosPerPermit;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * @param permitsPerSecond requests per second; zero or less disables limiting
+     */
+    PortalRateLimiter(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = Math.max(1, permitsPerSecond);
+        this.nanosPerPermit = permitsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / permitsPerSecond : 0;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes a token, waiting for it if necessary.
+     * @return false, without taking anything, when the token would not be available within the timeout
+     */
+    boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        if (permitsPerSecond <= 0) {
+            return true;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / nanosPerPermit);
+            lastRefillNanos = now;
+
+            waitNanos = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * nanosPerPermit);
+            if (waitNanos > unit.toNanos(timeout)) {
+                return false;
+            }
+            // May go negative: later callers then wait behind this reservation
+            tokens -= 1;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return true;
+    }
+}
@@ -1,9 +1,11 @@
 package ro.signsofter.caseobserver.external.dto.caseResponse;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.xml.bind.annotation.XmlAccessType;
 import jakarta.xml.bind.annotation.XmlAccessorType;
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlElementWrapper;
+import jakarta.xml.bind.annotation.XmlTransient;
 import lombok.Data;
 
 import java.util.List;
@@ -48,4 +50,9 @@ public class CaseDetailsDto {
     @XmlElement(name = "DosarSedinta", namespace = "portalquery.just.ro")
     private List<HearingDto> hearings;
 
+    // Set by PortalQueryService when the response is parsed; see CaseContentFingerprint
+    @XmlTransient
+    @JsonIgnore
+    private String contentHash;
+
 }
\ No newline at end of file
@@ -5,10 +5,18 @@ import jakarta.xml.bind.annotation.XmlAccessorType;
 import jakarta.xml.bind.annotation.XmlElement;
 import lombok.Data;
 
+import java.util.ArrayList;
+import java.util.List;
+
 //@XmlRootElement(name = "CautareDosareResult", namespace = "portalquery.just.ro")
 @XmlAccessorType(XmlAccessType.FIELD)
 @Data
 public class CaseDetailsResult {
     @XmlElement(name = "Dosar", namespace = "portalquery.just.ro")
-    private CaseDetailsDto caseDetails;
+    private List<CaseDetailsDto> cases = new ArrayList<>();
+
+    // A search by case number returns that case first
+    public CaseDetailsDto getCaseDetails() {
+        return cases == null || cases.isEmpty() ? null : cases.get(0);
+    }
 }
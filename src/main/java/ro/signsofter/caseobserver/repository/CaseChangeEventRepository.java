@@ -0,0 +1,9 @@
+package ro.signsofter.caseobserver.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ro.signsofter.caseobserver.entity.CaseChangeEvent;
+
+@Repository
+public interface CaseChangeEventRepository extends JpaRepository<CaseChangeEvent, Long> {
+}
@@ -0,0 +1,55 @@
+package ro.signsofter.caseobserver.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * The orders a user's case list can be sorted in. Only these reach the ORDER BY; each is tie-broken on the
+ * case id in the same direction, so (key, id) is unique and a page can start right after the previous one.
+ */
+public enum CaseSort {
+    LAST_UPDATED("lastUpdated", "cc.lastUpdated", true, true),
+    CASE_NUMBER("caseNumber", "cc.caseNumber", false, false),
+    STATUS("status", "cc.status", false, true);
+
+    private final String parameter;
+    private final String path;
+    private final boolean descending;
+    private final boolean nullable;
+
+    CaseSort(String parameter, String path, boolean descending, boolean nullable) {
+        this.parameter = parameter;
+        this.path = path;
+        this.descending = descending;
+        this.nullable = nullable;
+    }
+
+    /**
+     * @return the sort named by the sortBy request parameter; most recently updated first when absent or unknown
+     */
+    public static CaseSort fromParameter(String sortBy) {
+        for (CaseSort sort : values()) {
+            if (sort.parameter.equals(sortBy)) {
+                return sort;
+            }
+        }
+        return LAST_UPDATED;
+    }
+
+    String path() {
+        return path;
+    }
+
+    boolean descending() {
+        return descending;
+    }
+
+    // Cases without the key are listed after all the others
+    boolean nullable() {
+        return nullable;
+    }
+
+    // Reads a sort key written with toString() back into the type of its column
+    public Object parseKey(String key) {
+        return this == LAST_UPDATED ? LocalDateTime.parse(key) : key;
+    }
+}
@@ -1,9 +1,12 @@
 package ro.signsofter.caseobserver.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ro.signsofter.caseobserver.entity.CourtCase;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +14,17 @@ public interface CourtCaseRepository extends JpaRepository<CourtCase, Long> {
 
     Optional<CourtCase> findByCaseNumber(String caseId);
     boolean existsByCaseNumber(String caseId);
+
+    @Query("SELECT DISTINCT c.courtName FROM CourtCase c WHERE c.monitoringEnabled = true AND c.courtName IS NOT NULL")
+    List<String> findMonitoredCourtNames();
+
+    @Query("SELECT c.id AS id, c.caseNumber AS caseNumber FROM CourtCase c " +
+            "WHERE c.monitoringEnabled = true AND c.courtName = :courtName")
+    List<MonitoredCase> findMonitoredCases(@Param("courtName") String courtName);
+
+    interface MonitoredCase {
+        Long getId();
+
+        String getCaseNumber();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package ro.signsofter.caseobserver.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ro.signsofter.caseobserver.entity.NotificationDigest;
+
+@Repository
+public interface NotificationDigestRepository extends JpaRepository<NotificationDigest, Long> {
+}
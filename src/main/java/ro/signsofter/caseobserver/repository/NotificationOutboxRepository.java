@@ -0,0 +1,37 @@
+package ro.signsofter.caseobserver.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ro.signsofter.caseobserver.entity.NotificationOutbox;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Locks a batch of pending messages that are due for an attempt and not leased by a live node,
+     * skipping rows another dispatcher is claiming (FOR UPDATE SKIP LOCKED on MySQL 8).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = NotificationSettingsRepository.SKIP_LOCKED))
+    @Query("SELECT o FROM NotificationOutbox o WHERE o.status = ro.signsofter.caseobserver.entity.NotificationOutbox.Status.PENDING " +
+            "AND o.nextAttemptAt <= :currentTime AND (o.leaseUntil IS NULL OR o.leaseUntil < :currentTime) " +
+            "ORDER BY o.nextAttemptAt")
+    List<NotificationOutbox> findClaimable(@Param("currentTime") LocalDateTime currentTime, Pageable pageable);
+
+    // Loads the rendered event or digest along with the claimed messages, without locking it
+    @Query("SELECT o FROM NotificationOutbox o LEFT JOIN FETCH o.notification n LEFT JOIN FETCH n.event " +
+            "LEFT JOIN FETCH o.digest WHERE o.id IN :ids")
+    List<NotificationOutbox> findWithEventByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,13 +1,82 @@
 package ro.signsofter.caseobserver.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ro.signsofter.caseobserver.entity.Notification;
+import ro.signsofter.caseobserver.entity.User;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByUserIdOrderBySentAtDesc(Long userId);
-    List<Notification> findByCourtCaseIdOrderBySentAtDesc(Long courtCaseId);
-}
\ No newline at end of file
+
+    String FEED_SELECT = "SELECT n.id AS id, e.message AS message, n.sentAt AS sentAt, n.readAt AS readAt, " +
+            "c.id AS caseId, c.caseNumber AS caseNumber FROM Notification n JOIN n.event e JOIN n.courtCase c ";
+
+    // Strictly after the cursor in (sentAt DESC, id DESC) order
+    String AFTER_CURSOR = "AND (n.sentAt < :sentAt OR (n.sentAt = :sentAt AND n.id < :id)) ";
+
+    String FEED_ORDER = "ORDER BY n.sentAt DESC, n.id DESC";
+
+    /**
+     * First page of a user's notification feed, newest first, read as projections: neither the case
+     * nor the user is loaded. Served by the (user_id, sent_at, id) index.
+     */
+    @Query(FEED_SELECT + "WHERE n.user.id = :userId " + FEED_ORDER)
+    List<FeedItem> findFeed(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(FEED_SELECT + "WHERE n.user.id = :userId " + AFTER_CURSOR + FEED_ORDER)
+    List<FeedItem> findFeedAfter(@Param("userId") Long userId, @Param("sentAt") LocalDateTime sentAt,
+                                 @Param("id") Long id, Pageable pageable);
+
+    // Notifications newer than the cursor, oldest first, to replay what a reconnecting stream missed
+    @Query(FEED_SELECT + "WHERE n.user.id = :userId AND (n.sentAt > :sentAt OR (n.sentAt = :sentAt AND n.id > :id)) " +
+            "ORDER BY n.sentAt, n.id")
+    List<FeedItem> findFeedSince(@Param("userId") Long userId, @Param("sentAt") LocalDateTime sentAt,
+                                 @Param("id") Long id, Pageable pageable);
+
+    // The same feed narrowed to one case, served by the (user_id, case_id, sent_at, id) index
+    @Query(FEED_SELECT + "WHERE n.user.id = :userId AND c.id = :caseId " + FEED_ORDER)
+    List<FeedItem> findCaseFeed(@Param("userId") Long userId, @Param("caseId") Long caseId, Pageable pageable);
+
+    @Query(FEED_SELECT + "WHERE n.user.id = :userId AND c.id = :caseId " + AFTER_CURSOR + FEED_ORDER)
+    List<FeedItem> findCaseFeedAfter(@Param("userId") Long userId, @Param("caseId") Long caseId,
+                                     @Param("sentAt") LocalDateTime sentAt, @Param("id") Long id, Pageable pageable);
+
+    // Counted from the (user_id, read_at) index alone, however long the feed is
+    long countByUserIdAndReadAtIsNull(Long userId);
+
+    /**
+     * Locks a batch of notifications still flagged for a digest, owed to users now in one of the given digest
+     * modes, grouped by user, skipping rows another node is flushing (FOR UPDATE SKIP LOCKED on MySQL 8).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = NotificationSettingsRepository.SKIP_LOCKED))
+    @Query("SELECT n FROM Notification n JOIN FETCH n.user u JOIN FETCH n.event " +
+            "WHERE u.digestMode IN :modes AND (n.digestEmail = true OR n.digestSms = true) ORDER BY u.id, n.sentAt, n.id")
+    List<Notification> findPendingDigest(@Param("modes") Collection<User.DigestMode> modes, Pageable pageable);
+
+    interface FeedItem {
+        Long getId();
+
+        String getMessage();
+
+        LocalDateTime getSentAt();
+
+        LocalDateTime getReadAt();
+
+        Long getCaseId();
+
+        String getCaseNumber();
+    }
+}
@@ -1,7 +1,14 @@
 package ro.signsofter.caseobserver.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ro.signsofter.caseobserver.entity.NotificationSettings;
@@ -13,11 +20,50 @@ import java.util.Optional;
 @Repository
 public interface NotificationSettingsRepository extends JpaRepository<NotificationSettings, Long> {
 
+    // Lock timeout Hibernate renders as SKIP LOCKED
+    String SKIP_LOCKED = "-2";
+
     Optional<NotificationSettings> findByCourtCaseId(Long courtCaseId);
 
     @Query("SELECT ns FROM NotificationSettings ns WHERE ns.courtCase.monitoringEnabled = true AND ns.nextCheckAt <= :currentTime")
     List<NotificationSettings> findSettingsReadyForCheck(@Param("currentTime") LocalDateTime currentTime);
 
+    /**
+     * Locks a batch of due settings that no live node holds a lease on.
+     * Rows locked by another node's claim transaction are skipped rather than waited for
+     * (FOR UPDATE SKIP LOCKED on MySQL 8), so concurrent claimers get disjoint batches.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = SKIP_LOCKED))
+    @Query("SELECT ns FROM NotificationSettings ns WHERE ns.courtCase.monitoringEnabled = true AND ns.nextCheckAt <= :currentTime " +
+            "AND (ns.leaseUntil IS NULL OR ns.leaseUntil < :currentTime) ORDER BY ns.nextCheckAt")
+    List<NotificationSettings> findClaimableSettings(@Param("currentTime") LocalDateTime currentTime, Pageable pageable);
+
+    /**
+     * Takes the lease on one case if it is due and not held by a live node.
+     * @return 1 when this call won the lease, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE VERSIONED NotificationSettings ns SET ns.claimedBy = :nodeId, ns.leaseUntil = :leaseUntil " +
+            "WHERE ns.courtCase.id = :caseId AND ns.nextCheckAt <= :currentTime " +
+            "AND (ns.leaseUntil IS NULL OR ns.leaseUntil < :currentTime)")
+    int claimCase(@Param("caseId") Long caseId, @Param("nodeId") String nodeId,
+                  @Param("leaseUntil") LocalDateTime leaseUntil, @Param("currentTime") LocalDateTime currentTime);
+
+    /**
+     * Takes the lease on one case whether or not it is due, for checks driven by the incremental sweep.
+     * @return 1 when this call won the lease, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE VERSIONED NotificationSettings ns SET ns.claimedBy = :nodeId, ns.leaseUntil = :leaseUntil " +
+            "WHERE ns.courtCase.id = :caseId AND (ns.leaseUntil IS NULL OR ns.leaseUntil < :currentTime)")
+    int claimCaseIfUnleased(@Param("caseId") Long caseId, @Param("nodeId") String nodeId,
+                            @Param("leaseUntil") LocalDateTime leaseUntil, @Param("currentTime") LocalDateTime currentTime);
+
+    @Query("SELECT ns.courtCase.id AS caseId, ns.nextCheckAt AS nextCheckAt FROM NotificationSettings ns " +
+            "WHERE ns.courtCase.monitoringEnabled = true")
+    List<ScheduledCheck> findScheduledChecks();
+
     @Query("SELECT ns FROM NotificationSettings ns WHERE ns.courtCase.monitoringEnabled = true")
     List<NotificationSettings> findAllActiveMonitoringSettings();
 
@@ -25,4 +71,10 @@ public interface NotificationSettingsRepository extends JpaRepository<Notificati
     Optional<NotificationSettings> findActiveSettingsByCaseId(@Param("caseId") Long caseId);
 
     boolean existsByCourtCaseId(Long courtCaseId);
+
+    interface ScheduledCheck {
+        Long getCaseId();
+
+        LocalDateTime getNextCheckAt();
+    }
 }
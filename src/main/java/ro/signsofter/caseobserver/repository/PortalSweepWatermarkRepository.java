@@ -0,0 +1,27 @@
+package ro.signsofter.caseobserver.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ro.signsofter.caseobserver.entity.PortalSweepWatermark;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface PortalSweepWatermarkRepository extends JpaRepository<PortalSweepWatermark, Long> {
+
+    Optional<PortalSweepWatermark> findByInstitution(String institution);
+
+    /**
+     * Takes the lease on sweeping an institution if no live node holds it.
+     * @return 1 when this call won the lease, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE VERSIONED PortalSweepWatermark w SET w.claimedBy = :nodeId, w.leaseUntil = :leaseUntil " +
+            "WHERE w.institution = :institution AND (w.leaseUntil IS NULL OR w.leaseUntil < :currentTime)")
+    int claimInstitution(@Param("institution") String institution, @Param("nodeId") String nodeId,
+                         @Param("leaseUntil") LocalDateTime leaseUntil, @Param("currentTime") LocalDateTime currentTime);
+}
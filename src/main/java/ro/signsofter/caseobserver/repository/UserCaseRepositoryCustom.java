@@ -0,0 +1,20 @@
+package ro.signsofter.caseobserver.repository;
+
+import java.util.List;
+
+public interface UserCaseRepositoryCustom {
+
+    /**
+     * One page of the user's cases as summary rows, filtered and ordered in the database. With {@code afterId}
+     * set, the page starts right after the case with that id and sort key {@code afterKey} (null when that case
+     * had no key); without it, at the start of the list.
+     */
+    List<UserCaseRepository.CaseSummary> findCaseSummaryPage(String username, CaseFilter filter, CaseSort sort,
+                                                             Object afterKey, Long afterId, int limit);
+
+    long countCases(String username, CaseFilter filter);
+
+    // Null or blank criteria are not applied
+    record CaseFilter(String search, String status, Boolean monitoringEnabled, String courtName) {
+    }
+}
@@ -0,0 +1,186 @@
+package ro.signsofter.caseobserver.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the case list query from the filters actually given and a whitelisted {@link CaseSort}, so the database
+ * filters, orders and limits the rows and each page reads on from a (key, id) position instead of an offset.
+ * Cases missing a nullable key are read in a second pass after the others, keeping both passes index-ordered.
+ */
+class UserCaseRepositoryCustomImpl implements UserCaseRepositoryCustom {
+
+    private static final String SUMMARY_COLUMNS = "SELECT cc.id AS id, cc.caseNumber AS caseNumber, " +
+            "cc.imposedName AS imposedName, cc.department AS department, cc.proceduralStage AS proceduralStage, " +
+            "cc.category AS category, cc.subject AS subject, cc.courtName AS courtName, cc.status AS status, " +
+            "cc.monitoringEnabled AS monitoringEnabled, cc.lastUpdated AS lastUpdated, " +
+            // Counted per listed case off the case_id indexes, in the same statement
+            "(SELECT COUNT(p) FROM Party p WHERE p.courtCase = cc) AS partyCount, " +
+            "(SELECT COUNT(h) FROM Hearing h WHERE h.courtCase = cc) AS hearingCount ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserCaseRepository.CaseSummary> findCaseSummaryPage(String username, CaseFilter filter, CaseSort sort,
+                                                                    Object afterKey, Long afterId, int limit) {
+        boolean pastKeyedCases = sort.nullable() && afterId != null && afterKey == null;
+        List<UserCaseRepository.CaseSummary> page = new ArrayList<>(limit);
+        if (!pastKeyedCases) {
+            page.addAll(findKeyed(username, filter, sort, afterKey, afterId, limit));
+        }
+        if (sort.nullable() && page.size() < limit) {
+            page.addAll(findUnkeyed(username, filter, sort, pastKeyedCases ? afterId : null, limit - page.size()));
+        }
+        return page;
+    }
+
+    @Override
+    public long countCases(String username, CaseFilter filter) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder jpql = new StringBuilder("SELECT COUNT(uc) ");
+        appendFrom(jpql, parameters, username, filter);
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        parameters.forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    private List<UserCaseRepository.CaseSummary> findKeyed(String username, CaseFilter filter, CaseSort sort,
+                                                           Object afterKey, Long afterId, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(SUMMARY_COLUMNS);
+        appendFrom(jpql, parameters, username, filter);
+        String key = sort.path();
+        String after = sort.descending() ? " < " : " > ";
+        if (sort.nullable()) {
+            jpql.append(" AND ").append(key).append(" IS NOT NULL");
+        }
+        if (afterId != null) {
+            jpql.append(" AND (").append(key).append(after).append(":afterKey OR (")
+                    .append(key).append(" = :afterKey AND cc.id").append(after).append(":afterId))");
+            parameters.put("afterKey", afterKey);
+            parameters.put("afterId", afterId);
+        }
+        String direction = sort.descending() ? " DESC" : " ASC";
+        jpql.append(" ORDER BY ").append(key).append(direction).append(", cc.id").append(direction);
+        return list(jpql, parameters, limit);
+    }
+
+    private List<UserCaseRepository.CaseSummary> findUnkeyed(String username, CaseFilter filter, CaseSort sort,
+                                                             Long afterId, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(SUMMARY_COLUMNS);
+        appendFrom(jpql, parameters, username, filter);
+        jpql.append(" AND ").append(sort.path()).append(" IS NULL");
+        if (afterId != null) {
+            jpql.append(" AND cc.id").append(sort.descending() ? " < " : " > ").append(":afterId");
+            parameters.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY cc.id").append(sort.descending() ? " DESC" : " ASC");
+        return list(jpql, parameters, limit);
+    }
+
+    private static void appendFrom(StringBuilder jpql, Map<String, Object> parameters, String username, CaseFilter filter) {
+        jpql.append("FROM UserCase uc JOIN uc.courtCase cc WHERE uc.user.username = :username");
+        parameters.put("username", username);
+        if (hasText(filter.search())) {
+            jpql.append(" AND (LOWER(cc.caseNumber) LIKE :search ESCAPE '\\'" +
+                    " OR LOWER(cc.imposedName) LIKE :search ESCAPE '\\'" +
+                    " OR LOWER(cc.courtName) LIKE :search ESCAPE '\\'" +
+                    " OR LOWER(cc.subject) LIKE :search ESCAPE '\\')");
+            parameters.put("search", "%" + escapeLike(filter.search().toLowerCase()) + "%");
+        }
+        if (hasText(filter.status())) {
+            jpql.append(" AND cc.status = :status");
+            parameters.put("status", filter.status());
+        }
+        if (filter.monitoringEnabled() != null) {
+            jpql.append(" AND cc.monitoringEnabled = :monitoringEnabled");
+            parameters.put("monitoringEnabled", filter.monitoringEnabled());
+        }
+        if (hasText(filter.courtName())) {
+            jpql.append(" AND cc.courtName = :courtName");
+            parameters.put("courtName", filter.courtName());
+        }
+    }
+
+    private List<UserCaseRepository.CaseSummary> list(StringBuilder jpql, Map<String, Object> parameters, int limit) {
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        parameters.forEach(query::setParameter);
+        query.setMaxResults(limit);
+        return query.getResultList().stream()
+                .<UserCaseRepository.CaseSummary>map(TupleCaseSummary::new)
+                .toList();
+    }
+
+    // The search text is matched literally: "50%" or "a_b" must not act as a LIKE pattern
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private record TupleCaseSummary(Tuple tuple) implements UserCaseRepository.CaseSummary {
+        public Long getId() {
+            return tuple.get("id", Long.class);
+        }
+
+        public String getCaseNumber() {
+            return tuple.get("caseNumber", String.class);
+        }
+
+        public String getImposedName() {
+            return tuple.get("imposedName", String.class);
+        }
+
+        public String getDepartment() {
+            return tuple.get("department", String.class);
+        }
+
+        public String getProceduralStage() {
+            return tuple.get("proceduralStage", String.class);
+        }
+
+        public String getCategory() {
+            return tuple.get("category", String.class);
+        }
+
+        public String getSubject() {
+            return tuple.get("subject", String.class);
+        }
+
+        public String getCourtName() {
+            return tuple.get("courtName", String.class);
+        }
+
+        public String getStatus() {
+            return tuple.get("status", String.class);
+        }
+
+        public Boolean getMonitoringEnabled() {
+            return tuple.get("monitoringEnabled", Boolean.class);
+        }
+
+        public LocalDateTime getLastUpdated() {
+            return tuple.get("lastUpdated", LocalDateTime.class);
+        }
+
+        public Long getPartyCount() {
+            return tuple.get("partyCount", Long.class);
+        }
+
+        public Long getHearingCount() {
+            return tuple.get("hearingCount", Long.class);
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package ro.signsofter.caseobserver.service;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import ro.signsofter.caseobserver.entity.CourtCase;
+import ro.signsofter.caseobserver.entity.Hearing;
+import ro.signsofter.caseobserver.entity.Party;
 import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
 import ro.signsofter.caseobserver.external.dto.caseResponse.HearingDto;
 import ro.signsofter.caseobserver.external.dto.caseResponse.PartyDto;
@@ -48,6 +52,10 @@ public interface CaseChangeDetectorService {
             private String type; // ADDED, UPDATED, REMOVED
             private HearingDto hearing;
             private String description;
+            // The stored hearing a REMOVED or UPDATED change applies to
+            @ToString.Exclude
+            @EqualsAndHashCode.Exclude
+            private Hearing existingHearing;
         }
         
         @Data
@@ -55,6 +63,10 @@ public interface CaseChangeDetectorService {
             private String type; // ADDED, UPDATED, REMOVED
             private PartyDto party;
             private String description;
+            // The stored party a REMOVED or UPDATED change applies to
+            @ToString.Exclude
+            @EqualsAndHashCode.Exclude
+            private Party existingParty;
         }
     }
 }
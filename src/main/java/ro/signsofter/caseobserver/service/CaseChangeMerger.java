@@ -0,0 +1,128 @@
+package ro.signsofter.caseobserver.service;
+
+import ro.signsofter.caseobserver.entity.CourtCase;
+import ro.signsofter.caseobserver.entity.Hearing;
+import ro.signsofter.caseobserver.entity.Party;
+import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
+import ro.signsofter.caseobserver.external.dto.caseResponse.HearingDto;
+import ro.signsofter.caseobserver.external.dto.caseResponse.PartyDto;
+import ro.signsofter.caseobserver.service.CaseChangeDetectorService.CaseChanges;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Applies detected {@link CaseChanges} to a stored case, touching only the hearings and parties that changed:
+ * added ones are appended, updated ones are modified in place and removed ones are dropped from the collection
+ * (orphan removal deletes their rows). Saving the case then writes just those rows, in JDBC batches.
+ */
+public final class CaseChangeMerger {
+
+    private static final DateTimeFormatter PORTAL_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+
+    private CaseChangeMerger() {
+    }
+
+    public static void apply(CourtCase courtCase, CaseDetailsDto latestData, CaseChanges changes) {
+        // Update basic fields
+        courtCase.setStatus(latestData.getProceduralStage());
+        courtCase.setCategory(latestData.getCaseCategory());
+        courtCase.setDepartment(latestData.getDepartment());
+        courtCase.setSubject(latestData.getSubject());
+        courtCase.setProceduralStage(latestData.getProceduralStage());
+
+        for (CaseChanges.HearingChange change : changes.getHearingChanges()) {
+            switch (change.getType()) {
+                case "ADDED" -> addHearing(courtCase, change.getHearing());
+                case "UPDATED" -> {
+                    if (change.getExistingHearing() != null) {
+                        copyHearing(change.getHearing(), change.getExistingHearing());
+                    }
+                }
+                case "REMOVED" -> {
+                    Hearing removed = change.getExistingHearing();
+                    // By identity: entity equality walks the whole graph
+                    courtCase.getHearings().removeIf(hearing -> hearing == removed);
+                }
+                default -> System.err.println("Unknown hearing change type: " + change.getType());
+            }
+        }
+
+        for (CaseChanges.PartyChange change : changes.getPartyChanges()) {
+            switch (change.getType()) {
+                case "ADDED" -> courtCase.getParties().add(newParty(courtCase, change.getParty()));
+                case "UPDATED" -> {
+                    if (change.getExistingParty() != null) {
+                        change.getExistingParty().setName(change.getParty().getName());
+                        change.getExistingParty().setRole(change.getParty().getRole());
+                    }
+                }
+                case "REMOVED" -> {
+                    Party removed = change.getExistingParty();
+                    courtCase.getParties().removeIf(party -> party == removed);
+                }
+                default -> System.err.println("Unknown party change type: " + change.getType());
+            }
+        }
+    }
+
+    public static Hearing newHearing(CourtCase courtCase, HearingDto dto) {
+        LocalDateTime hearingDate = parseHearingDate(dto);
+        if (hearingDate == null) {
+            throw new IllegalArgumentException("Missing or unparseable hearing date: " + dto.getDate() + " " + dto.getTime());
+        }
+        Hearing hearing = new Hearing();
+        hearing.setCourtCase(courtCase);
+        hearing.setHearingDate(hearingDate);
+        hearing.setPronouncementDate(hearing.getHearingDate());
+        copyHearing(dto, hearing);
+        return hearing;
+    }
+
+    public static Party newParty(CourtCase courtCase, PartyDto dto) {
+        Party party = new Party();
+        party.setCourtCase(courtCase);
+        party.setName(dto.getName());
+        party.setRole(dto.getRole());
+        return party;
+    }
+
+    private static void addHearing(CourtCase courtCase, HearingDto dto) {
+        try {
+            courtCase.getHearings().add(newHearing(courtCase, dto));
+        } catch (IllegalArgumentException e) {
+            // hearing_date is required, so an undated hearing is not stored. The detector leaves such hearings out
+            // as well; once the portal dates one, the content changes and the next check reports it as added
+            System.err.println("Skipping hearing for case " + courtCase.getId() + ": " + e.getMessage());
+        }
+    }
+
+    private static void copyHearing(HearingDto dto, Hearing hearing) {
+        hearing.setSolution(dto.getSolution());
+        hearing.setDescription(dto.getSummary());
+        hearing.setJudicialPanel(dto.getJudicialPanel());
+    }
+
+    /**
+     * The hearing's start as it is stored, or null when the portal gives no usable date. Hearings without one
+     * are never stored, and the change detector keys portal hearings with this same parser.
+     */
+    public static LocalDateTime parseHearingDate(HearingDto dto) {
+        String rawDate = dto.getDate();
+        if (rawDate == null || rawDate.isEmpty()) {
+            return null;
+        }
+        try {
+            // If rawDate is a full ISO datetime
+            if (rawDate.contains("T") && rawDate.length() > 10) {
+                return LocalDateTime.parse(rawDate);
+            }
+
+            // If only date and time separated
+            return LocalDateTime.parse(rawDate + "T" + dto.getTime(), PORTAL_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ro.signsofter.caseobserver.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * In-process timers for the monitoring checks, one per case, armed for the case's next check time.
+ * A timer hands the case id to the due handler exactly when it expires, so short intervals are honoured
+ * without polling the database. The timer thread only dispatches; the handler must not block it.
+ */
+@Component
+public class CaseCheckScheduler {
+
+    private final Map<Long, Timer> timers = new ConcurrentHashMap<>();
+
+    private final ScheduledThreadPoolExecutor timerExecutor;
+
+    private volatile Consumer<Long> dueHandler = caseId -> { };
+
+    public CaseCheckScheduler() {
+        timerExecutor = new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("case-timer-"));
+        // Rescheduling cancels the previous timer; drop it from the queue right away
+        timerExecutor.setRemoveOnCancelPolicy(true);
+    }
+
+    public void onDue(Consumer<Long> handler) {
+        this.dueHandler = handler;
+    }
+
+    /**
+     * (Re)arms the case's timer for {@code dueAt}; a time in the past fires immediately.
+     * Inside a transaction the timer is armed once it commits, so it never fires on uncommitted state.
+     */
+    public void schedule(Long caseId, LocalDateTime dueAt) {
+        if (dueAt == null) {
+            cancel(caseId);
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    arm(caseId, dueAt);
+                }
+            });
+        } else {
+            arm(caseId, dueAt);
+        }
+    }
+
+    public void cancel(Long caseId) {
+        Timer timer = timers.remove(caseId);
+        if (timer != null) {
+            timer.cancel();
+        }
+    }
+
+    public Set<Long> scheduledCaseIds() {
+        return Set.copyOf(timers.keySet());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timerExecutor.shutdownNow();
+    }
+
+    private void arm(Long caseId, LocalDateTime dueAt) {
+        Timer timer = new Timer(dueAt);
+        Timer[] replaced = new Timer[1];
+        Timer current = timers.compute(caseId, (id, existing) -> {
+            if (existing != null && existing.dueAt().equals(dueAt)) {
+                return existing;
+            }
+            replaced[0] = existing;
+            return timer;
+        });
+        if (current != timer) {
+            return;
+        }
+        if (replaced[0] != null) {
+            replaced[0].cancel();
+        }
+        // Started only once registered: an overdue timer may fire before schedule() even returns
+        long delayMs = Math.max(0, Duration.between(LocalDateTime.now(), dueAt).toMillis());
+        timer.start(timerExecutor.schedule(() -> fire(caseId, timer), delayMs, TimeUnit.MILLISECONDS));
+    }
+
+    private void fire(Long caseId, Timer timer) {
+        // Only the timer still registered counts; a replaced one may race its cancellation
+        if (!timers.remove(caseId, timer)) {
+            return;
+        }
+        try {
+            dueHandler.accept(caseId);
+        } catch (Exception e) {
+            System.err.println("Error dispatching scheduled check for case " + caseId + ": " + e.getMessage());
+        }
+    }
+
+    private static final class Timer {
+        private final LocalDateTime dueAt;
+        private ScheduledFuture<?> future;
+        private boolean cancelled;
+
+        Timer(LocalDateTime dueAt) {
+            this.dueAt = dueAt;
+        }
+
+        LocalDateTime dueAt() {
+            return dueAt;
+        }
+
+        synchronized void start(ScheduledFuture<?> future) {
+            this.future = future;
+            if (cancelled) {
+                future.cancel(false);
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ro.signsofter.caseobserver.service;
+
+import ro.signsofter.caseobserver.repository.CaseSort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a user's case list: the sort it was read in and the (key, id) of the last case returned, key being
+ * null for a case without one. The next page starts strictly after it, so it is read off the index instead of
+ * skipping an offset. Clients get it as an opaque string.
+ */
+public record CaseListCursor(CaseSort sort, String key, Long id) {
+
+    public String encode() {
+        // The key goes last: it is free text and may contain the separator
+        String raw = sort.name() + "|" + id + (key != null ? "|" + key : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Object parsedKey() {
+        return key != null ? sort.parseKey(key) : null;
+    }
+
+    /**
+     * @return the decoded cursor, or null for a missing one (the first page)
+     * @throws IllegalArgumentException when the cursor was not produced by {@link #encode()} for this sort
+     */
+    public static CaseListCursor decode(String cursor, CaseSort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        CaseListCursor decoded;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            decoded = new CaseListCursor(CaseSort.valueOf(parts[0]), parts.length > 2 ? parts[2] : null,
+                    Long.valueOf(parts[1]));
+            decoded.parsedKey();
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid case list cursor");
+        }
+        if (decoded.sort() != sort) {
+            throw new IllegalArgumentException("Case list cursor belongs to another sort order");
+        }
+        return decoded;
+    }
+}
@@ -1,16 +1,41 @@
 package ro.signsofter.caseobserver.service;
 
+import lombok.Data;
 import ro.signsofter.caseobserver.entity.CourtCase;
 import ro.signsofter.caseobserver.entity.NotificationSettings;
 import ro.signsofter.caseobserver.exception.portal.PortalQueryException;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public interface CaseMonitoringService {
     
-    void checkAllMonitoredCases();
+    /**
+     * Checks every due case right away, claiming them in batches. Routine checks are fired by the
+     * per-case timers; this is the catch-up path for a backlog.
+     */
+    SweepReport checkAllMonitoredCases();
     
-    void checkCaseForUpdates(Long caseId) throws PortalQueryException;
+    /**
+     * Re-arms the per-case check timers from the database, picking up cases scheduled by other
+     * nodes and dropping timers of cases that are no longer monitored.
+     */
+    void reconcileScheduledChecks();
+    
+    /**
+     * Incremental mode: asks the portal, once per institution, for the cases modified since that institution's
+     * watermark and checks the monitored ones among them. While the sweep keeps up, the per-case checks of
+     * the institution's other cases complete without calling the portal.
+     */
+    void sweepModifiedCases();
+    
+    /**
+     * @return true when the portal data differed from the stored case
+     */
+    boolean checkCaseForUpdates(Long caseId) throws PortalQueryException;
     
     void startMonitoringCase(Long caseId, Integer notificationIntervalMinutes);
     
@@ -23,4 +48,51 @@ public interface CaseMonitoringService {
     boolean isCaseBeingMonitored(Long caseId);
     
     void scheduleNextCheck(Long caseId);
+    
+    @Data
+    class SweepReport {
+        private int checked;
+        private int changed;
+        private int failed;
+        // Pushed back because the portal circuit breaker was open
+        private int deferred;
+        private Duration duration = Duration.ZERO;
+        // Breakdown by institution, accumulated over the claimed batches
+        private Map<String, InstitutionStats> institutions = new TreeMap<>();
+        
+        public void addInstitutionStats(String institution, InstitutionStats stats) {
+            checked += stats.getChecked().get();
+            changed += stats.getChanged().get();
+            failed += stats.getFailed().get();
+            deferred += stats.getDeferred().get();
+            institutions.merge(institution, stats, InstitutionStats::add);
+        }
+    }
+    
+    @Data
+    class InstitutionStats {
+        private final AtomicInteger checked = new AtomicInteger();
+        private final AtomicInteger changed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger deferred = new AtomicInteger();
+        // Date-range searches sent for the institution, and the cases they answered without a fetch of their own
+        private final AtomicInteger searches = new AtomicInteger();
+        private final AtomicInteger demultiplexed = new AtomicInteger();
+        private Duration duration = Duration.ZERO;
+        
+        public double getChecksPerSecond() {
+            return duration.isZero() ? 0 : checked.get() * 1_000_000_000.0 / duration.toNanos();
+        }
+        
+        public InstitutionStats add(InstitutionStats other) {
+            checked.addAndGet(other.checked.get());
+            changed.addAndGet(other.changed.get());
+            failed.addAndGet(other.failed.get());
+            deferred.addAndGet(other.deferred.get());
+            searches.addAndGet(other.searches.get());
+            demultiplexed.addAndGet(other.demultiplexed.get());
+            duration = duration.plus(other.duration);
+            return this;
+        }
+    }
 }
@@ -5,16 +5,16 @@ import org.springframework.stereotype.Service;
 import ro.signsofter.caseobserver.controller.dto.CreateCaseRequestDto;
 import ro.signsofter.caseobserver.entity.*;
 import ro.signsofter.caseobserver.exception.portal.PortalQueryException;
+import ro.signsofter.caseobserver.external.CaseContentFingerprint;
 import ro.signsofter.caseobserver.external.PortalQueryService;
 import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
+import ro.signsofter.caseobserver.repository.CaseSort;
 import ro.signsofter.caseobserver.repository.CourtCaseRepository;
 import ro.signsofter.caseobserver.repository.NotificationSettingsRepository;
 import ro.signsofter.caseobserver.repository.UserCaseRepository;
+import ro.signsofter.caseobserver.repository.UserCaseRepositoryCustom;
 import ro.signsofter.caseobserver.repository.UserRepository;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -22,81 +22,73 @@ import java.util.stream.Collectors;
 @Service
 public class CourtCaseService {
 
+    public static final int MAX_CASE_PAGE_SIZE = 100;
+
     private final CourtCaseRepository courtCaseRepository;
     private final UserRepository userRepository;
     private final UserCaseRepository userCaseRepository;
     private final NotificationSettingsRepository notificationSettingsRepository;
     private final PortalQueryService portalQueryService;
     private final CaseMonitoringService caseMonitoringService;
+    private final CaseChangeDetectorService caseChangeDetectorService;
 
     public CourtCaseService(CourtCaseRepository courtCaseRepository,
                            UserRepository userRepository,
                            UserCaseRepository userCaseRepository,
                            NotificationSettingsRepository notificationSettingsRepository,
                            PortalQueryService portalQueryService,
-                           CaseMonitoringService caseMonitoringService) {
+                           CaseMonitoringService caseMonitoringService,
+                           CaseChangeDetectorService caseChangeDetectorService) {
         this.courtCaseRepository = courtCaseRepository;
         this.userRepository = userRepository;
         this.userCaseRepository = userCaseRepository;
         this.notificationSettingsRepository = notificationSettingsRepository;
         this.portalQueryService = portalQueryService;
         this.caseMonitoringService = caseMonitoringService;
+        this.caseChangeDetectorService = caseChangeDetectorService;
+    }
+
+    public record CasePage(List<UserCaseRepository.CaseSummary> cases, String nextCursor, Long totalCount) {
     }
 
     public List<CourtCase> getAllCases() {
         return courtCaseRepository.findAll();
     }
 
-    public List<CourtCase> getCasesForUser(String username) {
-        return userCaseRepository.findByUserUsername(username)
-                .stream()
-                .map(UserCase::getCourtCase)
-                .collect(Collectors.toList());
+    /**
+     * One page of the user's cases, filtered, sorted and limited in the database: pass the returned nextCursor
+     * as {@code cursor} to continue. The total is counted for the first page only, when the client has no
+     * count yet; later pages leave it null. {@code limit} is capped at {@link #MAX_CASE_PAGE_SIZE}.
+     *
+     * @throws IllegalArgumentException when the cursor is invalid or was issued for another sortBy
+     */
+    public CasePage getCasePage(String username, String search, String status, Boolean monitoringEnabled,
+                                String courtName, String sortBy, String cursor, int limit) {
+        CaseSort sort = CaseSort.fromParameter(sortBy);
+        CaseListCursor after = CaseListCursor.decode(cursor, sort);
+        UserCaseRepositoryCustom.CaseFilter filter =
+                new UserCaseRepositoryCustom.CaseFilter(search, status, monitoringEnabled, courtName);
+        int pageSize = Math.max(1, Math.min(limit, MAX_CASE_PAGE_SIZE));
+
+        // One row past the page tells whether there is a next one
+        List<UserCaseRepository.CaseSummary> cases = userCaseRepository.findCaseSummaryPage(username, filter, sort,
+                after != null ? after.parsedKey() : null, after != null ? after.id() : null, pageSize + 1);
+        Long totalCount = after == null ? userCaseRepository.countCases(username, filter) : null;
+        if (cases.size() <= pageSize) {
+            return new CasePage(cases, null, totalCount);
+        }
+        UserCaseRepository.CaseSummary last = cases.get(pageSize - 1);
+        String next = new CaseListCursor(sort, sortKey(sort, last), last.getId()).encode();
+        return new CasePage(cases.subList(0, pageSize), next, totalCount);
     }
 
-    public List<CourtCase> getCasesForUserWithFilters(String username, String search, String status, 
-                                                      Boolean monitoringEnabled, String courtName, String sortBy) {
-        List<CourtCase> cases = userCaseRepository.findCasesWithFilters(username, search, status, monitoringEnabled, courtName, sortBy)
-                .stream()
-                .map(UserCase::getCourtCase)
-                .collect(Collectors.toList());
-        
-        // Apply sorting in Java (simpler than complex JPQL CASE statements)
-        if (sortBy != null && !sortBy.isEmpty()) {
-            switch (sortBy) {
-                case "caseNumber":
-                    cases.sort((a, b) -> {
-                        if (a.getCaseNumber() == null) return 1;
-                        if (b.getCaseNumber() == null) return -1;
-                        return a.getCaseNumber().compareTo(b.getCaseNumber());
-                    });
-                    break;
-                case "status":
-                    cases.sort((a, b) -> {
-                        if (a.getStatus() == null) return 1;
-                        if (b.getStatus() == null) return -1;
-                        return a.getStatus().compareTo(b.getStatus());
-                    });
-                    break;
-                case "lastUpdated":
-                default:
-                    cases.sort((a, b) -> {
-                        if (a.getLastUpdated() == null) return 1;
-                        if (b.getLastUpdated() == null) return -1;
-                        return b.getLastUpdated().compareTo(a.getLastUpdated()); // Descending
-                    });
-                    break;
-            }
-        } else {
-            // Default: sort by lastUpdated descending
-            cases.sort((a, b) -> {
-                if (a.getLastUpdated() == null) return 1;
-                if (b.getLastUpdated() == null) return -1;
-                return b.getLastUpdated().compareTo(a.getLastUpdated());
-            });
-        }
-        
-        return cases;
+    private static String sortKey(CaseSort sort, UserCaseRepository.CaseSummary summary) {
+        Object key = switch (sort) {
+            case LAST_UPDATED -> summary.getLastUpdated();
+            case CASE_NUMBER -> summary.getCaseNumber();
+            case STATUS -> summary.getStatus();
+        };
+        return key != null ? key.toString() : null;
     }
 
     public Optional<CourtCase> getCaseById(Long id) {
@@ -126,33 +118,19 @@ public class CourtCaseService {
         courtCase.setDepartment(externalData.getDepartment());
         courtCase.setSubject(externalData.getSubject());
         courtCase.setProceduralStage(externalData.getProceduralStage());
+        courtCase.recordPortalContent(CaseContentFingerprint.of(externalData), externalData.getModificationDateTime());
 
         // Must be a parameter
         courtCase.setMonitoringEnabled(true);
 
+        // Undated hearings are not stored, as in every later check
         List<Hearing> hearings = externalData.getHearings().stream()
-                .map(h -> {
-                    Hearing hearing = new Hearing();
-                    hearing.setCourtCase(courtCase);
-                    hearing.setHearingDate(parseDate(h.getDate(), h.getTime()));
-                    hearing.setSolution(h.getSolution());
-                    hearing.setDescription(h.getSummary());
-                    hearing.setJudicialPanel(h.getJudicialPanel());
-                    hearing.setPronouncementDate(parseDate(h.getDate(), h.getTime()));
-
-                    return hearing;
-                })
+                .filter(h -> CaseChangeMerger.parseHearingDate(h) != null)
+                .map(h -> CaseChangeMerger.newHearing(courtCase, h))
                 .collect(Collectors.toList());
 
         List<Party> parties = externalData.getParties().stream()
-                .map(p -> {
-                    Party party = new Party();
-                    party.setCourtCase(courtCase);
-                    party.setName(p.getName());
-                    party.setRole(p.getRole());
-
-                    return party;
-                })
+                .map(p -> CaseChangeMerger.newParty(courtCase, p))
                 .collect(Collectors.toList());
 
         courtCase.setHearings(hearings);
@@ -171,20 +149,6 @@ public class CourtCaseService {
         userCaseRepository.save(userCase);
     }
 
-    private LocalDateTime parseDate(String rawDate, String rawTime) {
-        try {
-            // If rawDate is a full ISO datetime
-            if (rawDate.contains("T") && rawDate.length() > 10) {
-                return LocalDateTime.parse(rawDate);
-            }
-
-            // If only date and time separated
-            return LocalDateTime.parse(rawDate + "T" + rawTime, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-        } catch (DateTimeParseException e) {
-            throw new IllegalArgumentException("Failed to parse date/time: " + rawDate + " " + rawTime, e);
-        }
-    }
-
     public CaseDetailsDto fetchCaseDetailsFromPortal(String caseNumber, String institution) throws PortalQueryException {
         return portalQueryService.fetchCaseDetails(caseNumber, institution);
     }
@@ -194,20 +158,16 @@ public class CourtCaseService {
         CourtCase existingCase = courtCaseRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Case not found with id " + id));
 
-        CaseDetailsDto externalData = portalQueryService.fetchCaseDetails(existingCase.getCaseNumber(), existingCase.getCourtName());
+        CaseDetailsDto externalData = portalQueryService.fetchFreshCaseDetails(existingCase.getCaseNumber(), existingCase.getCourtName());
 
         if (externalData == null || externalData.getNumber() == null) {
             throw new IllegalArgumentException("Failed to fetch case data from portal");
         }
 
-        // Update fields (similar to createCase)
-        existingCase.setStatus(externalData.getProceduralStage());
-        existingCase.setCategory(externalData.getCaseCategory());
-        existingCase.setDepartment(externalData.getDepartment());
-        existingCase.setSubject(externalData.getSubject());
-        existingCase.setProceduralStage(externalData.getProceduralStage());
-
-        // TODO: Update hearings and parties if needed
+        // Apply only what changed, so unchanged hearings and parties are not rewritten
+        CaseChangeDetectorService.CaseChanges changes = caseChangeDetectorService.detectChanges(existingCase, externalData);
+        CaseChangeMerger.apply(existingCase, externalData, changes);
+        existingCase.recordPortalContent(CaseContentFingerprint.of(externalData), externalData.getModificationDateTime());
 
         return courtCaseRepository.save(existingCase);
     }
@@ -0,0 +1,237 @@
+package ro.signsofter.caseobserver.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ro.signsofter.caseobserver.config.NotificationProperties;
+import ro.signsofter.caseobserver.controller.dto.NotificationResponseDto;
+import ro.signsofter.caseobserver.controller.mapper.NotificationMapper;
+import ro.signsofter.caseobserver.entity.Notification;
+import ro.signsofter.caseobserver.repository.NotificationRepository;
+
+import java.io.IOException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes new notifications to the users' open server-sent event streams, keyed by user id.
+ * Notifications are pushed once the transaction recording them commits, from a small pool of its own, so a slow
+ * client never holds up a check. Each stream sends its events in order from its own queue, one pool thread at a
+ * time: a slow client holds up only its own stream, and is closed once too far behind to resume from the feed.
+ * Streams are held in this process only: a notification recorded on another node reaches a client when it
+ * reconnects, through the Last-Event-ID replay.
+ */
+@Component
+public class NotificationBroadcaster {
+
+    static final String NOTIFICATION_EVENT = "notification";
+
+    // Sent instead of a replay that would not fit one page; the client reloads the feed
+    static final String RESYNC_EVENT = "resync";
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationProperties notificationProperties;
+
+    private final Map<Long, Set<Stream>> emitters = new ConcurrentHashMap<>();
+
+    private ExecutorService streamExecutor;
+
+    @PostConstruct
+    void startStreamExecutor() {
+        // Holds at most one queued drain per stream, so the queue is bounded by the open streams
+        streamExecutor = Executors.newFixedThreadPool(Math.max(1, notificationProperties.getStreamSendThreads()),
+                new CustomizableThreadFactory("notification-stream-"));
+    }
+
+    @PreDestroy
+    void stopStreamExecutor() {
+        streamExecutor.shutdownNow();
+        emitters.values().forEach(userStreams -> userStreams.forEach(stream -> stream.emitter.complete()));
+        emitters.clear();
+    }
+
+    /**
+     * Opens a stream for the user. With {@code lastEventId} (the id of the last event the client received),
+     * the notifications recorded since are replayed first; an id that is not a feed cursor is ignored.
+     */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(notificationProperties.getStreamTimeout().toMillis());
+        // Registered before the replay, so nothing recorded meanwhile is missed; it may arrive twice instead
+        Stream stream = register(userId, emitter);
+        NotificationCursor cursor = null;
+        try {
+            cursor = NotificationCursor.decode(lastEventId);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ignoring Last-Event-ID of user " + userId + ": " + e.getMessage());
+        }
+        if (cursor != null) {
+            replay(userId, stream, cursor);
+        }
+        return emitter;
+    }
+
+    /**
+     * Pushes the notifications to their users' streams; inside a transaction, once it commits.
+     */
+    public void publish(List<Notification> notifications) {
+        List<Notification> streamed = notifications.stream()
+                .filter(notification -> emitters.containsKey(notification.getUser().getId()))
+                .toList();
+        if (streamed.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(streamed);
+                }
+            });
+        } else {
+            dispatch(streamed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.stream-heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        emitters.values().forEach(userStreams -> userStreams.forEach(
+                stream -> enqueue(stream, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    int connectionCount(Long userId) {
+        Set<Stream> userStreams = emitters.get(userId);
+        return userStreams != null ? userStreams.size() : 0;
+    }
+
+    Stream register(Long userId, SseEmitter emitter) {
+        Stream stream = new Stream(userId, emitter);
+        emitters.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>()).add(stream);
+        emitter.onCompletion(() -> unregister(stream));
+        emitter.onTimeout(() -> unregister(stream));
+        emitter.onError(e -> unregister(stream));
+        return stream;
+    }
+
+    private void unregister(Stream stream) {
+        stream.pending.clear();
+        emitters.computeIfPresent(stream.userId, (id, userStreams) -> {
+            userStreams.remove(stream);
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+    }
+
+    private void replay(Long userId, Stream stream, NotificationCursor cursor) {
+        List<NotificationRepository.FeedItem> missed = notificationRepository.findFeedSince(
+                userId, cursor.sentAt(), cursor.id(), PageRequest.of(0, NotificationService.MAX_FEED_PAGE_SIZE + 1));
+        if (missed.size() > NotificationService.MAX_FEED_PAGE_SIZE) {
+            send(stream, SseEmitter.event().name(RESYNC_EVENT).data(""));
+            return;
+        }
+        for (NotificationRepository.FeedItem item : missed) {
+            send(stream, event(new NotificationCursor(item.getSentAt(), item.getId()), NotificationMapper.toDto(item)));
+        }
+    }
+
+    private void dispatch(List<Notification> notifications) {
+        for (Notification notification : notifications) {
+            Long userId = notification.getUser().getId();
+            // sent_at is stored to the second; a cursor on the truncated time may replay this notification
+            // again on reconnect, but never skips one
+            NotificationCursor cursor = new NotificationCursor(
+                    notification.getSentAt().truncatedTo(ChronoUnit.SECONDS), notification.getId());
+            NotificationResponseDto dto = NotificationMapper.toDto(notification);
+            Set<Stream> userStreams = emitters.get(userId);
+            if (userStreams != null) {
+                userStreams.forEach(stream -> enqueue(stream, event(cursor, dto)));
+            }
+        }
+    }
+
+    private void enqueue(Stream stream, SseEmitter.SseEventBuilder event) {
+        if (stream.pendingCount.incrementAndGet() > notificationProperties.getStreamMaxPendingEvents()) {
+            // Too far behind: close the stream, the client reconnects and resumes from its Last-Event-ID
+            System.err.println("Closing notification stream of user " + stream.userId + ": client is not keeping up");
+            unregister(stream);
+            stream.emitter.complete();
+            return;
+        }
+        stream.pending.add(event);
+        scheduleDrain(stream);
+    }
+
+    private void scheduleDrain(Stream stream) {
+        if (!stream.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            streamExecutor.execute(() -> drain(stream));
+        } catch (RejectedExecutionException e) {
+            // Shutting down; clients reconnect to another node and resume
+            stream.draining.set(false);
+        }
+    }
+
+    private void drain(Stream stream) {
+        SseEmitter.SseEventBuilder event;
+        while ((event = stream.pending.poll()) != null) {
+            stream.pendingCount.decrementAndGet();
+            send(stream, event);
+        }
+        stream.draining.set(false);
+        // An event queued after the last poll but before the flag was cleared would otherwise wait for the next one
+        if (!stream.pending.isEmpty()) {
+            scheduleDrain(stream);
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder event(NotificationCursor cursor, NotificationResponseDto dto) {
+        return SseEmitter.event().id(cursor.encode()).name(NOTIFICATION_EVENT).data(dto);
+    }
+
+    private void send(Stream stream, SseEmitter.SseEventBuilder event) {
+        try {
+            stream.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the container completes the emitter, drop it now
+            unregister(stream);
+        }
+    }
+
+    // An open stream and the events waiting to be written to it, in order
+    static final class Stream {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Stream(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ro.signsofter.caseobserver.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a notification feed: the (sentAt, id) of the last notification returned. The next page starts
+ * strictly after it in (sentAt DESC, id DESC) order, so it is read off the index instead of skipping an offset.
+ * Clients get it as an opaque string.
+ */
+public record NotificationCursor(LocalDateTime sentAt, Long id) {
+
+    public String encode() {
+        String raw = sentAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or null for a missing one (the first page)
+     * @throws IllegalArgumentException when the cursor was not produced by {@link #encode()}
+     */
+    public static NotificationCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new NotificationCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid notification cursor");
+        }
+    }
+}
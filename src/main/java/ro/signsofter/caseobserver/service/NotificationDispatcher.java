@@ -0,0 +1,157 @@
+package ro.signsofter.caseobserver.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.signsofter.caseobserver.config.MonitoringProperties;
+import ro.signsofter.caseobserver.config.NotificationProperties;
+import ro.signsofter.caseobserver.entity.NotificationOutbox;
+import ro.signsofter.caseobserver.entity.User;
+import ro.signsofter.caseobserver.repository.NotificationOutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers the notification outbox on its own thread pool. Each run claims a batch of due messages under a lease
+ * (other nodes skip them), hands them to the pool and returns, so the scheduler thread shared with the monitoring
+ * sweeps never waits on a provider. Failed deliveries are retried with exponential backoff until maxAttempts.
+ * It also flushes the hourly and daily digests into the outbox on their schedules.
+ */
+@Component
+public class NotificationDispatcher {
+
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationProperties notificationProperties;
+
+    @Autowired
+    private MonitoringProperties monitoringProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Messages claimed by this node and not yet delivered or given back
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private ExecutorService dispatchExecutor;
+
+    @PostConstruct
+    void startDispatchExecutor() {
+        dispatchExecutor = Executors.newFixedThreadPool(
+                Math.max(1, notificationProperties.getDispatchThreads()),
+                new CustomizableThreadFactory("notification-dispatch-"));
+    }
+
+    @PreDestroy
+    void stopDispatchExecutor() {
+        dispatchExecutor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${notification.dispatch-interval-ms:5000}")
+    public void dispatchPending() {
+        if (!notificationProperties.isDispatchEnabled()) {
+            return;
+        }
+        int capacity = notificationProperties.getDispatchBatchSize() - inFlight.get();
+        if (capacity <= 0) {
+            return;
+        }
+        try {
+            for (NotificationOutbox outboxMessage : claimDueMessages(capacity)) {
+                inFlight.incrementAndGet();
+                try {
+                    dispatchExecutor.execute(() -> {
+                        try {
+                            deliver(outboxMessage);
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Shutting down; the lease lapses and another node delivers it
+                    inFlight.decrementAndGet();
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error dispatching notifications: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${notification.digest-hourly-cron:0 0 * * * *}")
+    public void flushHourlyDigests() {
+        flushDigests(User.DigestMode.HOURLY);
+    }
+
+    @Scheduled(cron = "${notification.digest-daily-cron:0 0 7 * * *}")
+    public void flushDailyDigests() {
+        flushDigests(User.DigestMode.DAILY);
+    }
+
+    void flushDigests(User.DigestMode mode) {
+        if (!notificationProperties.isDispatchEnabled()) {
+            return;
+        }
+        try {
+            // One transaction per batch, so a large backlog never holds its locks for the whole flush
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            int flushed;
+            do {
+                flushed = transaction.execute(
+                        status -> notificationService.flushDigests(mode, notificationProperties.getDigestBatchSize()));
+            } while (flushed > 0);
+        } catch (Exception e) {
+            System.err.println("Error flushing " + mode + " digests: " + e.getMessage());
+        }
+    }
+
+    List<NotificationOutbox> claimDueMessages(int limit) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime leaseUntil = now.plus(notificationProperties.getDispatchLeaseDuration());
+            List<NotificationOutbox> due = notificationOutboxRepository.findClaimable(now, PageRequest.of(0, limit));
+            if (due.isEmpty()) {
+                return List.of();
+            }
+            due.forEach(outboxMessage -> outboxMessage.claim(monitoringProperties.getNodeId(), leaseUntil));
+            notificationOutboxRepository.saveAll(due);
+            // The event is fetched in one query; the claimed messages are delivered after this session closes
+            return notificationOutboxRepository.findWithEventByIdIn(due.stream().map(NotificationOutbox::getId).toList());
+        });
+    }
+
+    void deliver(NotificationOutbox outboxMessage) {
+        try {
+            notificationService.deliver(outboxMessage);
+            outboxMessage.recordDelivery(LocalDateTime.now());
+        } catch (Exception e) {
+            System.err.println("Delivery of " + outboxMessage.getChannel() + " notification " + outboxMessage.getId()
+                    + " failed (attempt " + (outboxMessage.getAttempts() + 1) + "): " + e.getMessage());
+            outboxMessage.recordFailure(e.getMessage(), LocalDateTime.now(), notificationProperties.getMaxAttempts(),
+                    notificationProperties.getRetryBackoff(), notificationProperties.getMaxRetryBackoff());
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> notificationOutboxRepository.save(outboxMessage));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // The lease ran out mid-delivery and another node took the message over
+            System.err.println("Outbox message " + outboxMessage.getId() + " was reclaimed during delivery");
+        }
+    }
+}
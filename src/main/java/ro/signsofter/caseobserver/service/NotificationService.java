@@ -1,28 +1,61 @@
 package ro.signsofter.caseobserver.service;
 
 import ro.signsofter.caseobserver.entity.CourtCase;
-import ro.signsofter.caseobserver.entity.Notification;
+import ro.signsofter.caseobserver.entity.NotificationOutbox;
 import ro.signsofter.caseobserver.entity.NotificationSettings;
 import ro.signsofter.caseobserver.entity.User;
+import ro.signsofter.caseobserver.repository.NotificationRepository;
 import ro.signsofter.caseobserver.service.CaseChangeDetectorService.CaseChanges;
 
 import java.util.List;
 
 public interface NotificationService {
-    
-    void sendCaseChangeNotification(User user, CourtCase courtCase, CaseChanges changes, NotificationSettings settings);
+
+    int MAX_FEED_PAGE_SIZE = 100;
+    
+    /**
+     * Renders the change once, records a notification for each user and queues their email and SMS in the outbox,
+     * within the caller's transaction. Nothing is delivered here; once it has committed the dispatcher sends the
+     * messages and the broadcaster pushes the notifications to open streams.
+     */
+    void sendCaseChangeNotification(List<User> users, CourtCase courtCase, CaseChanges changes, NotificationSettings settings);
+    
+    /**
+     * Collects one batch of notifications owed to users in the given digest mode into one digest per user
+     * and queues it, within the caller's transaction. The hourly flush also takes what is still pending for
+     * users who have switched to immediate delivery.
+     * @return the number of notifications taken; 0 once nothing is pending
+     */
+    int flushDigests(User.DigestMode mode, int limit);
+    
+    /**
+     * Delivers one queued message through its channel; throws when the provider fails, so it is retried.
+     */
+    void deliver(NotificationOutbox outboxMessage);
     
     void sendEmailNotification(User user, CourtCase courtCase, String subject, String message);
     
     void sendSmsNotification(User user, CourtCase courtCase, String message);
     
-    List<Notification> getNotificationsForUser(Long userId);
+    /**
+     * One page of the user's notifications, newest first, starting after {@code cursor} (null for the first page).
+     * The limit is capped at {@link #MAX_FEED_PAGE_SIZE}.
+     */
+    FeedPage getNotificationFeed(Long userId, NotificationCursor cursor, int limit);
     
-    List<Notification> getNotificationsForCase(Long caseId);
+    // The same, restricted to the user's notifications about one case
+    FeedPage getCaseNotificationFeed(Long userId, Long caseId, NotificationCursor cursor, int limit);
+    
+    // All of the user's unread notifications, not only those on the first feed page
+    long countUnreadNotifications(Long userId);
     
     void markNotificationAsRead(Long notificationId);
     
     String generateNotificationMessage(CourtCase courtCase, CaseChanges changes);
     
     String generateNotificationSubject(CourtCase courtCase, CaseChanges changes);
+
+    // A feed page and the cursor of the next one, null on the last page
+    record FeedPage(List<NotificationRepository.FeedItem> items, NotificationCursor next) {
+    }
 }
@@ -55,9 +55,9 @@ public class UserService {
     }
 
     /**
-     * Update user profile (email only, username cannot be changed)
+     * Update user profile (email and notification digest mode, username cannot be changed)
      */
-    public User updateUserProfile(String username, String email) {
+    public User updateUserProfile(String username, String email, User.DigestMode digestMode) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
@@ -69,6 +69,9 @@ public class UserService {
         });
         
         user.setEmail(email);
+        if (digestMode != null) {
+            user.setDigestMode(digestMode);
+        }
         return userRepository.save(user);
     }
 
@@ -1,7 +1,6 @@
 package ro.signsofter.caseobserver.service.impl;
 
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import ro.signsofter.caseobserver.entity.CourtCase;
 import ro.signsofter.caseobserver.entity.Hearing;
 import ro.signsofter.caseobserver.entity.Party;
@@ -9,19 +8,25 @@ import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
 import ro.signsofter.caseobserver.external.dto.caseResponse.HearingDto;
 import ro.signsofter.caseobserver.external.dto.caseResponse.PartyDto;
 import ro.signsofter.caseobserver.service.CaseChangeDetectorService;
+import ro.signsofter.caseobserver.service.CaseChangeMerger;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 public class CaseChangeDetectorServiceImpl implements CaseChangeDetectorService {
 
+    private static final DateTimeFormatter DISPLAY_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
     @Override
-    @Transactional(readOnly = true)
     public CaseChanges detectChanges(CourtCase existingCase, CaseDetailsDto newData) {
         CaseChanges changes = new CaseChanges();
         
@@ -79,28 +84,36 @@ public class CaseChangeDetectorServiceImpl implements CaseChangeDetectorService
         List<Hearing> existingHearings = existingCase.getHearings();
         List<HearingDto> newHearings = newData.getHearings();
         
-        if (existingHearings == null) existingHearings = new ArrayList<>();
-        if (newHearings == null) newHearings = new ArrayList<>();
+        if (existingHearings == null) existingHearings = Collections.emptyList();
+        if (newHearings == null) newHearings = Collections.emptyList();
         
-        // Create maps for easier comparison
-        Map<String, Hearing> existingHearingMap = existingHearings.stream()
-                .collect(Collectors.toMap(
-                    h -> generateHearingKey(h),
-                    h -> h,
-                    (existing, replacement) -> existing
-                ));
+        // Keys are computed once per hearing; the first hearing wins on duplicate keys. Hearings without a
+        // usable date are left out on both sides: they are never stored, so they could only ever show up as added
+        Map<HearingKey, Hearing> existingHearingMap = new HashMap<>(capacityFor(existingHearings.size()));
+        HearingKey[] existingKeys = new HearingKey[existingHearings.size()];
+        for (int i = 0; i < existingKeys.length; i++) {
+            Hearing hearing = existingHearings.get(i);
+            LocalDateTime hearingDate = hearing.getHearingDate();
+            if (hearingDate != null) {
+                existingKeys[i] = HearingKey.at(hearingDate);
+                existingHearingMap.putIfAbsent(existingKeys[i], hearing);
+            }
+        }
         
-        Map<String, HearingDto> newHearingMap = newHearings.stream()
-                .collect(Collectors.toMap(
-                    h -> generateHearingKey(h),
-                    h -> h,
-                    (existing, replacement) -> existing
-                ));
+        Set<HearingKey> newHearingKeys = new HashSet<>(capacityFor(newHearings.size()));
+        HearingKey[] newKeys = new HearingKey[newHearings.size()];
+        for (int i = 0; i < newKeys.length; i++) {
+            LocalDateTime hearingDate = CaseChangeMerger.parseHearingDate(newHearings.get(i));
+            if (hearingDate != null) {
+                newKeys[i] = HearingKey.at(hearingDate);
+                newHearingKeys.add(newKeys[i]);
+            }
+        }
         
         // Find added hearings
-        for (HearingDto newHearing : newHearings) {
-            String key = generateHearingKey(newHearing);
-            if (!existingHearingMap.containsKey(key)) {
+        for (int i = 0; i < newKeys.length; i++) {
+            if (newKeys[i] != null && !existingHearingMap.containsKey(newKeys[i])) {
+                HearingDto newHearing = newHearings.get(i);
                 CaseChanges.HearingChange change = new CaseChanges.HearingChange();
                 change.setType("ADDED");
                 change.setHearing(newHearing);
@@ -111,11 +124,12 @@ public class CaseChangeDetectorServiceImpl implements CaseChangeDetectorService
         }
         
         // Find removed hearings
-        for (Hearing existingHearing : existingHearings) {
-            String key = generateHearingKey(existingHearing);
-            if (!newHearingMap.containsKey(key)) {
+        for (int i = 0; i < existingKeys.length; i++) {
+            if (existingKeys[i] != null && !newHearingKeys.contains(existingKeys[i])) {
+                Hearing existingHearing = existingHearings.get(i);
                 CaseChanges.HearingChange change = new CaseChanges.HearingChange();
                 change.setType("REMOVED");
+                change.setExistingHearing(existingHearing);
                 change.setDescription("Hearing removed: " + formatHearingDate(existingHearing));
                 changes.getHearingChanges().add(change);
                 changes.setHearingsChanged(true);
@@ -123,13 +137,14 @@ public class CaseChangeDetectorServiceImpl implements CaseChangeDetectorService
         }
         
         // Find updated hearings
-        for (HearingDto newHearing : newHearings) {
-            String key = generateHearingKey(newHearing);
-            Hearing existingHearing = existingHearingMap.get(key);
+        for (int i = 0; i < newKeys.length; i++) {
+            HearingDto newHearing = newHearings.get(i);
+            Hearing existingHearing = newKeys[i] != null ? existingHearingMap.get(newKeys[i]) : null;
             if (existingHearing != null && !isHearingEqual(existingHearing, newHearing)) {
                 CaseChanges.HearingChange change = new CaseChanges.HearingChange();
                 change.setType("UPDATED");
                 change.setHearing(newHearing);
+                change.setExistingHearing(existingHearing);
                 change.setDescription("Hearing updated: " + formatHearingDate(newHearing));
                 changes.getHearingChanges().add(change);
                 changes.setHearingsChanged(true);
@@ -141,28 +156,29 @@ public class CaseChangeDetectorServiceImpl implements CaseChangeDetectorService
         List<Party> existingParties = existingCase.getParties();
         List<PartyDto> newParties = newData.getParties();
         
-        if (existingParties == null) existingParties = new ArrayList<>();
-        if (newParties == null) newParties = new ArrayList<>();
+        if (existingParties == null) existingParties = Collections.emptyList();
+        if (newParties == null) newParties = Collections.emptyList();
         
-        // Create maps for easier comparison
-        Map<String, Party> existingPartyMap = existingParties.stream()
-                .collect(Collectors.toMap(
-                    p -> generatePartyKey(p),
-                    p -> p,
-                    (existing, replacement) -> existing
-                ));
+        Map<PartyKey, Party> existingPartyMap = new HashMap<>(capacityFor(existingParties.size()));
+        PartyKey[] existingKeys = new PartyKey[existingParties.size()];
+        for (int i = 0; i < existingKeys.length; i++) {
+            Party party = existingParties.get(i);
+            existingKeys[i] = PartyKey.of(party.getName(), party.getRole());
+            existingPartyMap.putIfAbsent(existingKeys[i], party);
+        }
         
-        Map<String, PartyDto> newPartyMap = newParties.stream()
-                .collect(Collectors.toMap(
-                    p -> generatePartyKey(p),
-                    p -> p,
-                    (existing, replacement) -> existing
-                ));
+        Set<PartyKey> newPartyKeys = new HashSet<>(capacityFor(newParties.size()));
+        PartyKey[] newKeys = new PartyKey[newParties.size()];
+        for (int i = 0; i < newKeys.length; i++) {
+            PartyDto party = newParties.get(i);
+            newKeys[i] = PartyKey.of(party.getName(), party.getRole());
+            newPartyKeys.add(newKeys[i]);
+        }
         
         // Find added parties
-        for (PartyDto newParty : newParties) {
-            String key = generatePartyKey(newParty);
-            if (!existingPartyMap.containsKey(key)) {
+        for (int i = 0; i < newKeys.length; i++) {
+            if (!existingPartyMap.containsKey(newKeys[i])) {
+                PartyDto newParty = newParties.get(i);
                 CaseChanges.PartyChange change = new CaseChanges.PartyChange();
                 change.setType("ADDED");
                 change.setParty(newParty);
@@ -173,11 +189,12 @@ public class CaseChangeDetectorServiceImpl implements CaseChangeDetectorService
         }
         
         // Find removed parties
-        for (Party existingParty : existingParties) {
-            String key = generatePartyKey(existingParty);
-            if (!newPartyMap.containsKey(key)) {
+        for (int i = 0; i < existingKeys.length; i++) {
+            if (!newPartyKeys.contains(existingKeys[i])) {
+                Party existingParty = existingParties.get(i);
                 CaseChanges.PartyChange change = new CaseChanges.PartyChange();
                 change.setType("REMOVED");
+                change.setExistingParty(existingParty);
                 change.setDescription("Party removed: " + existingParty.getName() + " (" + existingParty.getRole() + ")");
                 changes.getPartyChanges().add(change);
                 changes.setPartiesChanged(true);
@@ -185,13 +202,14 @@ public class CaseChangeDetectorServiceImpl implements CaseChangeDetectorService
         }
         
         // Find updated parties
-        for (PartyDto newParty : newParties) {
-            String key = generatePartyKey(newParty);
-            Party existingParty = existingPartyMap.get(key);
+        for (int i = 0; i < newKeys.length; i++) {
+            PartyDto newParty = newParties.get(i);
+            Party existingParty = existingPartyMap.get(newKeys[i]);
             if (existingParty != null && !isPartyEqual(existingParty, newParty)) {
                 CaseChanges.PartyChange change = new CaseChanges.PartyChange();
                 change.setType("UPDATED");
                 change.setParty(newParty);
+                change.setExistingParty(existingParty);
                 change.setDescription("Party updated: " + newParty.getName() + " (" + newParty.getRole() + ")");
                 changes.getPartyChanges().add(change);
                 changes.setPartiesChanged(true);
@@ -199,30 +217,6 @@ public class CaseChangeDetectorServiceImpl implements CaseChangeDetectorService
         }
     }
     
-    private String generateHearingKey(Hearing hearing) {
-        return hearing.getHearingDate() != null ? 
-            hearing.getHearingDate().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : 
-            "unknown_" + System.currentTimeMillis();
-    }
-    
-    private String generateHearingKey(HearingDto hearing) {
-        // Generate key that matches Hearing entity key format
-        try {
-            LocalDateTime hearingDateTime = parseDate(hearing.getDate(), hearing.getTime());
-            return hearingDateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-        } catch (Exception e) {
-            return hearing.getDate() + "_" + hearing.getTime();
-        }
-    }
-    
-    private String generatePartyKey(Party party) {
-        return party.getName() + "_" + party.getRole();
-    }
-    
-    private String generatePartyKey(PartyDto party) {
-        return party.getName() + "_" + party.getRole();
-    }
-    
     private boolean isHearingEqual(Hearing existing, HearingDto newHearing) {
         return equalsIgnoreCase(existing.getSolution(), newHearing.getSolution()) &&
                equalsIgnoreCase(existing.getDescription(), newHearing.getSummary()) &&
@@ -240,7 +234,7 @@ public class CaseChangeDetectorServiceImpl implements CaseChangeDetectorService
     
     private String formatHearingDate(Hearing hearing) {
         return hearing.getHearingDate() != null ? 
-            hearing.getHearingDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")) : 
+            hearing.getHearingDate().format(DISPLAY_DATE_TIME) : 
             "Unknown date";
     }
     
@@ -250,16 +244,28 @@ public class CaseChangeDetectorServiceImpl implements CaseChangeDetectorService
         return str1.equalsIgnoreCase(str2);
     }
     
-    private LocalDateTime parseDate(String rawDate, String rawTime) {
-        try {
-            // If rawDate is a full ISO datetime
-            if (rawDate.contains("T") && rawDate.length() > 10) {
-                return LocalDateTime.parse(rawDate);
-            }
-            // If only date and time separated
-            return LocalDateTime.parse(rawDate + "T" + rawTime, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-        } catch (Exception e) {
-            return LocalDateTime.now(); // fallback
+    private static int capacityFor(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+    
+    /**
+     * Hearings are matched on their start minute.
+     */
+    private record HearingKey(long epochMinute) {
+        
+        static HearingKey at(LocalDateTime dateTime) {
+            return new HearingKey(dateTime.toLocalDate().toEpochDay() * MINUTES_PER_DAY
+                    + dateTime.getHour() * 60L + dateTime.getMinute());
+        }
+    }
+    
+    /**
+     * Roles come from a small fixed vocabulary; interning them lets key comparisons short-circuit on identity.
+     */
+    private record PartyKey(String name, String role) {
+        
+        static PartyKey of(String name, String role) {
+            return new PartyKey(name, role != null ? role.intern() : null);
         }
     }
 }
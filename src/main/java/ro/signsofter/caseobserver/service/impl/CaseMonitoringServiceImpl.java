@@ -1,26 +1,59 @@
 package ro.signsofter.caseobserver.service.impl;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.signsofter.caseobserver.config.MonitoringProperties;
 import ro.signsofter.caseobserver.entity.CourtCase;
 import ro.signsofter.caseobserver.entity.NotificationSettings;
+import ro.signsofter.caseobserver.entity.PortalSweepWatermark;
+import ro.signsofter.caseobserver.entity.User;
 import ro.signsofter.caseobserver.entity.UserCase;
 import ro.signsofter.caseobserver.exception.portal.PortalQueryException;
+import ro.signsofter.caseobserver.exception.portal.PortalUnavailableException;
+import ro.signsofter.caseobserver.external.CaseContentFingerprint;
 import ro.signsofter.caseobserver.external.PortalQueryService;
 import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
 import ro.signsofter.caseobserver.repository.CourtCaseRepository;
 import ro.signsofter.caseobserver.repository.NotificationSettingsRepository;
+import ro.signsofter.caseobserver.repository.PortalSweepWatermarkRepository;
 import ro.signsofter.caseobserver.repository.UserCaseRepository;
 import ro.signsofter.caseobserver.service.CaseChangeDetectorService;
+import ro.signsofter.caseobserver.service.CaseChangeMerger;
+import ro.signsofter.caseobserver.service.CaseCheckScheduler;
 import ro.signsofter.caseobserver.service.CaseMonitoringService;
 import ro.signsofter.caseobserver.service.NotificationService;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 @Service
 public class CaseMonitoringServiceImpl implements CaseMonitoringService {
@@ -43,96 +76,162 @@ public class CaseMonitoringServiceImpl implements CaseMonitoringService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private MonitoringProperties monitoringProperties;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CaseCheckScheduler caseCheckScheduler;
+
+    @Autowired
+    private PortalSweepWatermarkRepository portalSweepWatermarkRepository;
+
+    // Runs the individual case checks; its size is the cap on concurrent portal calls
+    private ExecutorService checkExecutor;
+
+    @PostConstruct
+    void startCheckExecutor() {
+        checkExecutor = Executors.newFixedThreadPool(
+                Math.max(1, monitoringProperties.getMaxConcurrentChecks()),
+                new CustomizableThreadFactory("case-check-"));
+        caseCheckScheduler.onDue(caseId -> checkExecutor.execute(() -> runScheduledCheck(caseId)));
+    }
+
+    @PreDestroy
+    void stopCheckExecutor() {
+        checkExecutor.shutdown();
+    }
+
     @Override
-    @Scheduled(fixedRate = 300000) // Run every 5 minutes
-    public void checkAllMonitoredCases() {
-        System.out.println("Starting scheduled case monitoring check at " + LocalDateTime.now());
+    public SweepReport checkAllMonitoredCases() {
+        System.out.println("Starting case monitoring sweep at " + LocalDateTime.now());
+        long startedAt = System.nanoTime();
+        SweepReport report = new SweepReport();
         
         try {
-            List<NotificationSettings> settingsToCheck = notificationSettingsRepository.findSettingsReadyForCheck(LocalDateTime.now());
-            
-            System.out.println("Found " + settingsToCheck.size() + " cases ready for monitoring check");
-            
-            for (NotificationSettings settings : settingsToCheck) {
-                try {
-                    checkCaseForUpdates(settings.getCourtCase().getId());
-                } catch (Exception e) {
-                    System.err.println("Error checking case " + settings.getCourtCase().getId() + ": " + e.getMessage());
-                    e.printStackTrace();
-                }
+            // Keep claiming batches until no unleased due case is left (other nodes claim disjoint batches),
+            // or until the portal is reported unavailable
+            List<DueCase> dueCases;
+            while (report.getDeferred() == 0 && !(dueCases = claimDueCases()).isEmpty()) {
+                System.out.println("Claimed " + dueCases.size() + " cases for monitoring check");
+                
+                // Each institution is swept on its own, so a slow or failing court does not hold up the others
+                Map<String, List<DueCase>> byInstitution = dueCases.stream()
+                        .collect(Collectors.groupingBy(DueCase::institution, TreeMap::new, Collectors.toList()));
+                Map<String, InstitutionStats> batchStats = new TreeMap<>();
+                CompletableFuture<?>[] sweeps = byInstitution.entrySet().stream()
+                        .map(group -> {
+                            InstitutionStats stats = new InstitutionStats();
+                            batchStats.put(group.getKey(), stats);
+                            return sweepInstitutionGroup(group.getKey(), group.getValue(), stats);
+                        })
+                        .toArray(CompletableFuture[]::new);
+                CompletableFuture.allOf(sweeps).join();
+                batchStats.forEach(report::addInstitutionStats);
             }
-            
-            System.out.println("Completed scheduled case monitoring check");
         } catch (Exception e) {
-            System.err.println("Error in scheduled monitoring check: " + e.getMessage());
+            System.err.println("Error in case monitoring sweep: " + e.getMessage());
             e.printStackTrace();
         }
+        
+        report.setDuration(Duration.ofNanos(System.nanoTime() - startedAt));
+        System.out.println("Completed case monitoring sweep: " + report);
+        return report;
     }
 
     @Override
-    @Transactional
-    public void checkCaseForUpdates(Long caseId) throws PortalQueryException {
-        // Fetch the case normally
-        CourtCase courtCase = courtCaseRepository.findById(caseId)
-                .orElseThrow(() -> new IllegalArgumentException("Case not found with id " + caseId));
-        
-        // Explicitly initialize the lazy collections within the transaction
-        // This prevents LazyInitializationException when accessing them later
-        // Hibernate.initialize() forces the collections to be loaded while the session is still open
-        Hibernate.initialize(courtCase.getHearings());
-        Hibernate.initialize(courtCase.getParties());
-        
-        if (!courtCase.getMonitoringEnabled()) {
-            System.out.println("Case " + caseId + " monitoring is disabled, skipping check");
+    @Scheduled(fixedRateString = "${monitoring.scheduled-check-interval-ms:300000}")
+    public void reconcileScheduledChecks() {
+        // The first run, right after startup, seeds the timers
+        if (!monitoringProperties.isEnabled()) {
             return;
         }
-        
-        NotificationSettings settings = notificationSettingsRepository.findByCourtCaseId(caseId)
-                .orElseThrow(() -> new IllegalArgumentException("Notification settings not found for case " + caseId));
-        
-        System.out.println("Checking case " + caseId + " (" + courtCase.getCaseNumber() + ") for updates");
-        
-        // Fetch latest data from portal
-        CaseDetailsDto latestData = portalQueryService.fetchCaseDetails(courtCase.getCaseNumber(), courtCase.getCourtName());
-        
-        if (latestData == null) {
-            System.out.println("Failed to fetch latest data for case " + caseId);
+        try {
+            Set<Long> monitoredCaseIds = new HashSet<>();
+            for (NotificationSettingsRepository.ScheduledCheck check : notificationSettingsRepository.findScheduledChecks()) {
+                monitoredCaseIds.add(check.getCaseId());
+                caseCheckScheduler.schedule(check.getCaseId(), check.getNextCheckAt());
+            }
+            caseCheckScheduler.scheduledCaseIds().stream()
+                    .filter(caseId -> !monitoredCaseIds.contains(caseId))
+                    .forEach(caseCheckScheduler::cancel);
+        } catch (Exception e) {
+            System.err.println("Error reconciling scheduled checks: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean checkCaseForUpdates(Long caseId) throws PortalQueryException {
+        return checkCase(caseId, null, false);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${monitoring.incremental-sweep-interval-ms:300000}")
+    public void sweepModifiedCases() {
+        if (!monitoringProperties.isEnabled() || !monitoringProperties.isIncrementalSweep()) {
             return;
         }
+        try {
+            for (String institution : courtCaseRepository.findMonitoredCourtNames()) {
+                SweepReport report = sweepInstitution(institution);
+                if (report != null) {
+                    System.out.println("Completed incremental sweep of " + institution + ": " + report);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error in incremental sweep: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param sweptData the case as returned by a search, used instead of fetching it
+     * @param unmodified a search covering the time since the last check did not return the case
+     */
+    private boolean checkCase(Long caseId, CaseDetailsDto sweptData, boolean unmodified) throws PortalQueryException {
+        // The check runs in three phases so no connection is held while the portal is queried:
+        // a read-only snapshot, the portal fetch outside any transaction, and a short write transaction.
+        // The snapshot entities are detached by the time they are written back, so the @Version columns
+        // on CourtCase and NotificationSettings reject the write if either row was changed meanwhile.
+        CaseSnapshot snapshot = readTransaction().execute(status -> loadSnapshot(caseId));
+        if (snapshot == null) {
+            caseCheckScheduler.cancel(caseId);
+            return false;
+        }
+        CourtCase courtCase = snapshot.courtCase();
+        NotificationSettings settings = snapshot.settings();
         
-        // Detect changes
-        CaseChangeDetectorService.CaseChanges changes = caseChangeDetectorService.detectChanges(courtCase, latestData);
+        System.out.println("Checking case " + caseId + " (" + courtCase.getCaseNumber() + ") for updates");
         
-        if (changes.hasAnyChanges()) {
-            System.out.println("Changes detected for case " + caseId + ": " + changes.hasAnyChanges());
-            
-            // Get all users monitoring this case
-            List<UserCase> userCases = userCaseRepository.findByCourtCaseId(caseId);
-            
-            for (UserCase userCase : userCases) {
-                // Check if user wants to be notified about these specific changes
-                if (shouldNotifyUser(changes, settings)) {
-                    notificationService.sendCaseChangeNotification(
-                        userCase.getUser(), 
-                        courtCase, 
-                        changes, 
-                        settings
-                    );
-                }
+        // Data handed over by a search is as fresh as a fetch; a case a search vouches for
+        // has not been modified on the portal since its last check, so it needs no fetch at all
+        CaseDetailsDto latestData = sweptData;
+        if (latestData == null && (unmodified || snapshot.coveredBySweep())) {
+            System.out.println("Case " + caseId + " is unchanged according to a portal search");
+        } else if (latestData == null) {
+            latestData = portalQueryService.fetchFreshCaseDetails(courtCase.getCaseNumber(), courtCase.getCourtName());
+            if (latestData == null) {
+                System.out.println("Failed to fetch latest data for case " + caseId);
+                return false;
             }
-            
-            // Update the case with latest data
-            updateCaseWithLatestData(courtCase, latestData);
+        }
+        
+        // Detect changes, unless the portal still serves what the last check saw
+        CaseChangeDetectorService.CaseChanges changes;
+        if (latestData == null
+                || courtCase.hasPortalContent(CaseContentFingerprint.of(latestData), latestData.getModificationDateTime())) {
+            changes = new CaseChangeDetectorService.CaseChanges();
         } else {
-            System.out.println("No changes detected for case " + caseId);
+            changes = caseChangeDetectorService.detectChanges(courtCase, latestData);
         }
         
-        // Update last checked time and schedule next check
-        settings.setLastCheckedAt(LocalDateTime.now());
-        settings.calculateNextCheckTime();
-        notificationSettingsRepository.save(settings);
+        CaseDetailsDto checkedData = latestData;
+        writeTransaction().executeWithoutResult(status -> applyCheckResult(snapshot, checkedData, changes));
+        caseCheckScheduler.schedule(caseId, settings.getNextCheckAt());
         
         System.out.println("Completed check for case " + caseId + ", next check scheduled for " + settings.getNextCheckAt());
+        return changes.hasAnyChanges();
     }
 
     @Override
@@ -155,6 +254,7 @@ public class CaseMonitoringServiceImpl implements CaseMonitoringService {
         settings.calculateNextCheckTime();
         
         notificationSettingsRepository.save(settings);
+        caseCheckScheduler.schedule(caseId, settings.getNextCheckAt());
         
         System.out.println("Started monitoring case " + caseId + " with " + notificationIntervalMinutes + " minute intervals");
     }
@@ -168,6 +268,7 @@ public class CaseMonitoringServiceImpl implements CaseMonitoringService {
         // Disable monitoring on the case
         courtCase.setMonitoringEnabled(false);
         courtCaseRepository.save(courtCase);
+        caseCheckScheduler.cancel(caseId);
         
         System.out.println("Stopped monitoring case " + caseId);
     }
@@ -178,6 +279,17 @@ public class CaseMonitoringServiceImpl implements CaseMonitoringService {
         NotificationSettings existingSettings = notificationSettingsRepository.findByCourtCaseId(caseId)
                 .orElseThrow(() -> new IllegalArgumentException("Notification settings not found for case " + caseId));
         
+        Integer previousIntervalMinutes = existingSettings.getNotificationIntervalMinutes();
+        
+        // A bound left out keeps its stored value, so the range is checked as it will be saved
+        Integer minCheckIntervalMinutes = newSettings.getMinCheckIntervalMinutes() != null
+                ? newSettings.getMinCheckIntervalMinutes() : existingSettings.getMinCheckIntervalMinutes();
+        Integer maxCheckIntervalMinutes = newSettings.getMaxCheckIntervalMinutes() != null
+                ? newSettings.getMaxCheckIntervalMinutes() : existingSettings.getMaxCheckIntervalMinutes();
+        if (minCheckIntervalMinutes > maxCheckIntervalMinutes) {
+            throw new IllegalArgumentException("Minimum check interval must not exceed the maximum check interval");
+        }
+        
         // Update settings
         existingSettings.setNotificationIntervalMinutes(newSettings.getNotificationIntervalMinutes());
         existingSettings.setEmailEnabled(newSettings.getEmailEnabled());
@@ -186,13 +298,16 @@ public class CaseMonitoringServiceImpl implements CaseMonitoringService {
         existingSettings.setNotifyOnStatusChanges(newSettings.getNotifyOnStatusChanges());
         existingSettings.setNotifyOnPartyChanges(newSettings.getNotifyOnPartyChanges());
         existingSettings.setNotifyOnProceduralStageChanges(newSettings.getNotifyOnProceduralStageChanges());
+        existingSettings.setMinCheckIntervalMinutes(minCheckIntervalMinutes);
+        existingSettings.setMaxCheckIntervalMinutes(maxCheckIntervalMinutes);
         
         // Recalculate next check time if interval changed
-        if (!existingSettings.getNotificationIntervalMinutes().equals(newSettings.getNotificationIntervalMinutes())) {
+        if (!previousIntervalMinutes.equals(newSettings.getNotificationIntervalMinutes())) {
             existingSettings.calculateNextCheckTime();
         }
         
         notificationSettingsRepository.save(existingSettings);
+        caseCheckScheduler.schedule(caseId, existingSettings.getNextCheckAt());
         
         System.out.println("Updated notification settings for case " + caseId);
     }
@@ -216,10 +331,348 @@ public class CaseMonitoringServiceImpl implements CaseMonitoringService {
         
         settings.calculateNextCheckTime();
         notificationSettingsRepository.save(settings);
+        caseCheckScheduler.schedule(caseId, settings.getNextCheckAt());
         
         System.out.println("Scheduled next check for case " + caseId + " at " + settings.getNextCheckAt());
     }
     
+    private void runScheduledCheck(Long caseId) {
+        // Every node arms a timer for every case; the lease decides which one runs the check
+        LocalDateTime now = LocalDateTime.now();
+        // Whole seconds, like the column, so a retry timer armed for the lease end finds it lapsed
+        LocalDateTime leaseUntil = now.plus(monitoringProperties.getLeaseDuration()).truncatedTo(ChronoUnit.SECONDS);
+        Integer claimed = writeTransaction().execute(status -> notificationSettingsRepository.claimCase(
+                caseId, monitoringProperties.getNodeId(), leaseUntil, now));
+        if (claimed == null || claimed == 0) {
+            // The timer is spent; follow the stored state rather than wait for the reconciliation
+            rearmFromStoredState(caseId, now);
+            return;
+        }
+        try {
+            checkCaseForUpdates(caseId);
+        } catch (PortalUnavailableException e) {
+            deferCheck(caseId, e.getRetryAt());
+        } catch (Exception e) {
+            System.err.println("Error checking case " + caseId + ": " + e.getMessage());
+            // Retry once the lease taken for this attempt has run out
+            caseCheckScheduler.schedule(caseId, leaseUntil);
+        }
+    }
+    
+    private void rearmFromStoredState(Long caseId, LocalDateTime now) {
+        try {
+            NotificationSettings settings = readTransaction().execute(status ->
+                    notificationSettingsRepository.findByCourtCaseId(caseId).orElse(null));
+            if (settings == null || !Boolean.TRUE.equals(settings.getCourtCase().getMonitoringEnabled())) {
+                caseCheckScheduler.cancel(caseId);
+                return;
+            }
+            LocalDateTime dueAt = settings.getNextCheckAt();
+            LocalDateTime leaseUntil = settings.getLeaseUntil();
+            if (dueAt != null && dueAt.isAfter(now)) {
+                // Not due yet: checked by another node meanwhile, or stored later than the timer's time
+                caseCheckScheduler.schedule(caseId, dueAt);
+            } else if (leaseUntil != null && !leaseUntil.isBefore(now)) {
+                // Being checked elsewhere; by the time the lease lapses its holder has moved the due time on
+                caseCheckScheduler.schedule(caseId, leaseUntil.plusSeconds(1));
+            }
+        } catch (Exception e) {
+            System.err.println("Error rearming check for case " + caseId + ": " + e.getMessage());
+        }
+    }
+    
+    private void deferCheck(Long caseId, Instant retryAt) {
+        // The portal is failing fast; push the check back to when it will be tried again and free the case
+        LocalDateTime deferredUntil = LocalDateTime.ofInstant(retryAt, ZoneId.systemDefault()).truncatedTo(ChronoUnit.SECONDS);
+        try {
+            writeTransaction().executeWithoutResult(status ->
+                    notificationSettingsRepository.findByCourtCaseId(caseId).ifPresent(settings -> {
+                        settings.setNextCheckAt(deferredUntil);
+                        settings.releaseClaim();
+                        notificationSettingsRepository.save(settings);
+                    }));
+            caseCheckScheduler.schedule(caseId, deferredUntil);
+        } catch (Exception e) {
+            System.err.println("Error deferring check for case " + caseId + ": " + e.getMessage());
+        }
+    }
+    
+    private SweepReport sweepInstitution(String institution) {
+        long startedAt = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(monitoringProperties.getLeaseDuration());
+        PortalSweepWatermark watermark;
+        try {
+            watermark = writeTransaction().execute(status -> claimWatermark(institution, now, leaseUntil));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the watermark first
+            return null;
+        }
+        if (watermark == null) {
+            return null;
+        }
+        
+        SweepReport report = new SweepReport();
+        boolean complete = false;
+        try {
+            List<CaseDetailsDto> modifiedCases = portalQueryService.fetchModifiedCases(institution,
+                    watermark.getSyncedUntil().minus(monitoringProperties.getIncrementalSweepOverlap()), now);
+            // The portal may have cut the result short: the returned cases are still checked, but the
+            // window cannot count as searched, or timer checks would skip the modifications past the cap
+            boolean capped = modifiedCases.size() >= monitoringProperties.getBatchSearchMaxResults();
+            if (capped) {
+                System.out.println("Incremental sweep of " + institution + " hit the result limit, keeping the watermark");
+            }
+            Map<String, Long> monitoredCaseIds = new HashMap<>();
+            courtCaseRepository.findMonitoredCases(institution)
+                    .forEach(monitored -> monitoredCaseIds.put(monitored.getCaseNumber(), monitored.getId()));
+            
+            AtomicInteger changed = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            AtomicInteger deferred = new AtomicInteger();
+            CompletableFuture<?>[] checks = modifiedCases.stream()
+                    .filter(caseDetails -> monitoredCaseIds.containsKey(caseDetails.getNumber()))
+                    .map(caseDetails -> CompletableFuture.runAsync(() -> {
+                        Long caseId = monitoredCaseIds.get(caseDetails.getNumber());
+                        try {
+                            if (!claimForSweep(caseId)) {
+                                // Held by a check in progress, which may have fetched before the modification
+                                deferred.incrementAndGet();
+                            } else if (checkCase(caseId, caseDetails, false)) {
+                                changed.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                            System.err.println("Error checking case " + caseId + ": " + e.getMessage());
+                        }
+                    }, checkExecutor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(checks).join();
+            
+            report.setChecked(checks.length);
+            report.setChanged(changed.get());
+            report.setFailed(failed.get());
+            report.setDeferred(deferred.get());
+            // Only a fully checked window moves the watermark; otherwise the next sweep searches it again
+            complete = !capped && failed.get() == 0 && deferred.get() == 0;
+        } catch (PortalQueryException e) {
+            System.err.println("Incremental sweep of " + institution + " failed: " + e.getMessage());
+        } finally {
+            if (complete) {
+                watermark.setSyncedUntil(now);
+            }
+            watermark.setClaimedBy(null);
+            watermark.setLeaseUntil(null);
+            writeTransaction().executeWithoutResult(status -> portalSweepWatermarkRepository.save(watermark));
+        }
+        
+        report.setDuration(Duration.ofNanos(System.nanoTime() - startedAt));
+        return report;
+    }
+    
+    private PortalSweepWatermark claimWatermark(String institution, LocalDateTime now, LocalDateTime leaseUntil) {
+        if (portalSweepWatermarkRepository.claimInstitution(institution, monitoringProperties.getNodeId(), leaseUntil, now) == 1) {
+            return portalSweepWatermarkRepository.findByInstitution(institution).orElseThrow();
+        }
+        if (portalSweepWatermarkRepository.findByInstitution(institution).isEmpty()) {
+            // First sweep of the institution: nothing to search yet, the watermark starts here
+            PortalSweepWatermark watermark = new PortalSweepWatermark();
+            watermark.setInstitution(institution);
+            watermark.setTrackedSince(now);
+            watermark.setSyncedUntil(now);
+            portalSweepWatermarkRepository.saveAndFlush(watermark);
+        }
+        return null;
+    }
+    
+    private boolean claimForSweep(Long caseId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = writeTransaction().execute(status -> notificationSettingsRepository.claimCaseIfUnleased(
+                caseId, monitoringProperties.getNodeId(), now.plus(monitoringProperties.getLeaseDuration()), now));
+        return claimed != null && claimed == 1;
+    }
+    
+    private List<DueCase> claimDueCases() {
+        return writeTransaction().execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime leaseUntil = now.plus(monitoringProperties.getLeaseDuration());
+            List<NotificationSettings> dueSettings = notificationSettingsRepository.findClaimableSettings(
+                    now, PageRequest.of(0, monitoringProperties.getClaimBatchSize()));
+            
+            dueSettings.forEach(settings -> settings.claim(monitoringProperties.getNodeId(), leaseUntil));
+            notificationSettingsRepository.saveAll(dueSettings);
+            return dueSettings.stream()
+                    .map(settings -> new DueCase(settings.getCourtCase().getId(),
+                            Objects.requireNonNullElse(settings.getCourtCase().getCourtName(), ""),
+                            settings.getLastCheckedAt()))
+                    .toList();
+        });
+    }
+    
+    private CompletableFuture<Void> sweepInstitutionGroup(String institution, List<DueCase> dueCases, InstitutionStats stats) {
+        long startedAt = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> searchModifiedCases(institution, dueCases, stats), checkExecutor)
+                .thenCompose(searched -> {
+                    // Cases the search could not vouch for are fetched one by one, a few at a time per institution
+                    Queue<DueCase> toFetch = new ConcurrentLinkedQueue<>(dueCases);
+                    toFetch.removeIf(dueCase -> searched.containsKey(dueCase.caseId()));
+                    List<CompletableFuture<?>> checks = new ArrayList<>();
+                    // Searched cases need no portal call; each is checked as a task of its own, so a large
+                    // result is spread over the pool instead of holding this thread for the whole group
+                    searched.forEach((caseId, caseDetails) -> checks.add(CompletableFuture.runAsync(
+                            () -> runGroupCheck(caseId, caseDetails, true, stats), checkExecutor)));
+                    
+                    int workers = Math.min(toFetch.size(), Math.max(1, monitoringProperties.getMaxConcurrentChecksPerInstitution()));
+                    for (int i = 0; i < workers; i++) {
+                        checks.add(CompletableFuture.runAsync(() -> {
+                            DueCase dueCase;
+                            while ((dueCase = toFetch.poll()) != null) {
+                                runGroupCheck(dueCase.caseId(), null, false, stats);
+                            }
+                        }, checkExecutor));
+                    }
+                    return CompletableFuture.allOf(checks.toArray(CompletableFuture[]::new));
+                })
+                .whenComplete((ignored, error) -> stats.setDuration(Duration.ofNanos(System.nanoTime() - startedAt)));
+    }
+    
+    /**
+     * Answers the group with one search for the institution's cases modified since the oldest last check, when
+     * the group is large enough to be worth it. Returns the cases it covers: those the search returned mapped to
+     * their data, the rest of the covered ones mapped to null (unmodified).
+     */
+    private Map<Long, CaseDetailsDto> searchModifiedCases(String institution, List<DueCase> dueCases, InstitutionStats stats) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oldestSearchable = now.minus(monitoringProperties.getBatchSearchMaxWindow());
+        List<DueCase> searchable = dueCases.stream()
+                .filter(dueCase -> dueCase.lastCheckedAt() != null && dueCase.lastCheckedAt().isAfter(oldestSearchable))
+                .toList();
+        if (!monitoringProperties.isBatchSearch() || institution.isEmpty()
+                || searchable.size() < Math.max(2, monitoringProperties.getBatchSearchMinCases())) {
+            return Map.of();
+        }
+        
+        LocalDateTime from = searchable.stream().map(DueCase::lastCheckedAt).min(LocalDateTime::compareTo).orElseThrow()
+                .minus(monitoringProperties.getIncrementalSweepOverlap());
+        List<CaseDetailsDto> modifiedCases;
+        try {
+            stats.getSearches().incrementAndGet();
+            modifiedCases = portalQueryService.fetchModifiedCases(institution, from, now);
+        } catch (PortalQueryException e) {
+            // Fall back to fetching each case; an unavailable portal is then reported per case
+            System.err.println("Search of cases modified in " + institution + " failed: " + e.getMessage());
+            return Map.of();
+        }
+        if (modifiedCases.size() >= monitoringProperties.getBatchSearchMaxResults()) {
+            // The portal may have cut the result short; absence from it proves nothing
+            System.out.println("Search of cases modified in " + institution + " hit the result limit, fetching cases one by one");
+            return Map.of();
+        }
+        
+        Map<String, CaseDetailsDto> byNumber = new HashMap<>();
+        modifiedCases.forEach(caseDetails -> byNumber.putIfAbsent(caseDetails.getNumber(), caseDetails));
+        Map<String, Long> caseNumbers = new HashMap<>();
+        readTransaction().executeWithoutResult(status -> courtCaseRepository.findMonitoredCases(institution)
+                .forEach(monitored -> caseNumbers.put(monitored.getCaseNumber(), monitored.getId())));
+        Map<Long, CaseDetailsDto> covered = new HashMap<>();
+        Set<Long> searchableIds = new HashSet<>();
+        searchable.forEach(dueCase -> searchableIds.add(dueCase.caseId()));
+        caseNumbers.forEach((caseNumber, caseId) -> {
+            if (searchableIds.contains(caseId)) {
+                covered.put(caseId, byNumber.get(caseNumber));
+            }
+        });
+        stats.getDemultiplexed().addAndGet(covered.size());
+        return covered;
+    }
+    
+    private void runGroupCheck(Long caseId, CaseDetailsDto searchedData, boolean searched, InstitutionStats stats) {
+        // A failing case is counted and logged; it never aborts the rest of the sweep.
+        // Its lease is left to expire, which defers the retry by the lease duration.
+        stats.getChecked().incrementAndGet();
+        try {
+            if (checkCase(caseId, searchedData, searched && searchedData == null)) {
+                stats.getChanged().incrementAndGet();
+            }
+        } catch (PortalUnavailableException e) {
+            stats.getDeferred().incrementAndGet();
+            deferCheck(caseId, e.getRetryAt());
+        } catch (Exception e) {
+            stats.getFailed().incrementAndGet();
+            System.err.println("Error checking case " + caseId + ": " + e.getMessage());
+        }
+    }
+    
+    private CaseSnapshot loadSnapshot(Long caseId) {
+        CourtCase courtCase = courtCaseRepository.findById(caseId)
+                .orElseThrow(() -> new IllegalArgumentException("Case not found with id " + caseId));
+        
+        // Load the lazy collections while the session is open; the change detector reads them
+        // after the snapshot has been detached
+        Hibernate.initialize(courtCase.getHearings());
+        Hibernate.initialize(courtCase.getParties());
+        
+        if (!courtCase.getMonitoringEnabled()) {
+            System.out.println("Case " + caseId + " monitoring is disabled, skipping check");
+            return null;
+        }
+        
+        NotificationSettings settings = notificationSettingsRepository.findByCourtCaseId(caseId)
+                .orElseThrow(() -> new IllegalArgumentException("Notification settings not found for case " + caseId));
+        boolean coveredBySweep = monitoringProperties.isIncrementalSweep()
+                && portalSweepWatermarkRepository.findByInstitution(courtCase.getCourtName())
+                        .map(watermark -> watermark.covers(settings.getLastCheckedAt(), LocalDateTime.now(),
+                                monitoringProperties.getIncrementalSweepMaxLag()))
+                        .orElse(false);
+        return new CaseSnapshot(courtCase, settings, coveredBySweep);
+    }
+    
+    private void applyCheckResult(CaseSnapshot snapshot, CaseDetailsDto latestData,
+                                  CaseChangeDetectorService.CaseChanges changes) {
+        CourtCase courtCase = snapshot.courtCase();
+        NotificationSettings settings = snapshot.settings();
+        boolean contentRecorded = latestData != null && courtCase.recordPortalContent(
+                CaseContentFingerprint.of(latestData), latestData.getModificationDateTime());
+        
+        if (changes.hasAnyChanges()) {
+            System.out.println("Changes detected for case " + courtCase.getId() + ": " + changes.hasAnyChanges());
+            
+            // Check if the case's users want to be notified about these specific changes
+            if (shouldNotifyUser(changes, settings)) {
+                // Get all users monitoring this case; the change is rendered once for all of them
+                List<User> users = userCaseRepository.findByCourtCaseId(courtCase.getId()).stream()
+                        .map(UserCase::getUser)
+                        .toList();
+                notificationService.sendCaseChangeNotification(users, courtCase, changes, settings);
+            }
+            
+            // Update the case with latest data, writing only the hearings and parties that changed
+            CaseChangeMerger.apply(courtCase, latestData, changes);
+            courtCaseRepository.save(courtCase);
+        } else {
+            System.out.println("No changes detected for case " + courtCase.getId());
+            if (contentRecorded) {
+                courtCaseRepository.save(courtCase);
+            }
+        }
+        
+        // Record the check, schedule the next one (adapting to activity and hearings) and hand the case back
+        settings.recordCheck(LocalDateTime.now(), changes.hasAnyChanges());
+        settings.calculateNextCheckTime(courtCase.getHearings());
+        settings.releaseClaim();
+        notificationSettingsRepository.save(settings);
+    }
+    
+    private TransactionTemplate readTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+    
+    private TransactionTemplate writeTransaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+    
     private boolean shouldNotifyUser(CaseChangeDetectorService.CaseChanges changes, NotificationSettings settings) {
         if (changes.isStatusChanged() && settings.getNotifyOnStatusChanges()) {
             return true;
@@ -236,17 +689,9 @@ public class CaseMonitoringServiceImpl implements CaseMonitoringService {
         return false;
     }
     
-    private void updateCaseWithLatestData(CourtCase courtCase, CaseDetailsDto latestData) {
-        // Update basic fields
-        courtCase.setStatus(latestData.getProceduralStage());
-        courtCase.setCategory(latestData.getCaseCategory());
-        courtCase.setDepartment(latestData.getDepartment());
-        courtCase.setSubject(latestData.getSubject());
-        courtCase.setProceduralStage(latestData.getProceduralStage());
-        
-        // TODO: Update hearings and parties if needed
-        // This would require more complex logic to handle additions, removals, and updates
-        
-        courtCaseRepository.save(courtCase);
+    private record DueCase(Long caseId, String institution, LocalDateTime lastCheckedAt) {
+    }
+    
+    private record CaseSnapshot(CourtCase courtCase, NotificationSettings settings, boolean coveredBySweep) {
     }
 }
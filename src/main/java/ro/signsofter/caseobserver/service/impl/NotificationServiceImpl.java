@@ -1,92 +1,264 @@
 package ro.signsofter.caseobserver.service.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import ro.signsofter.caseobserver.entity.CaseChangeEvent;
 import ro.signsofter.caseobserver.entity.CourtCase;
 import ro.signsofter.caseobserver.entity.Notification;
+import ro.signsofter.caseobserver.entity.NotificationDigest;
+import ro.signsofter.caseobserver.entity.NotificationOutbox;
 import ro.signsofter.caseobserver.entity.NotificationSettings;
 import ro.signsofter.caseobserver.entity.User;
+import ro.signsofter.caseobserver.repository.CaseChangeEventRepository;
+import ro.signsofter.caseobserver.repository.NotificationDigestRepository;
+import ro.signsofter.caseobserver.repository.NotificationOutboxRepository;
 import ro.signsofter.caseobserver.repository.NotificationRepository;
 import ro.signsofter.caseobserver.service.CaseChangeDetectorService.CaseChanges;
+import ro.signsofter.caseobserver.service.NotificationBroadcaster;
+import ro.signsofter.caseobserver.service.NotificationCursor;
 import ro.signsofter.caseobserver.service.NotificationService;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class NotificationServiceImpl implements NotificationService {
 
+    private static final DateTimeFormatter DIGEST_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Autowired
+    private CaseChangeEventRepository caseChangeEventRepository;
+
+    @Autowired
+    private NotificationDigestRepository notificationDigestRepository;
+
+    @Autowired
+    private NotificationBroadcaster notificationBroadcaster;
+
     @Override
-    public void sendCaseChangeNotification(User user, CourtCase courtCase, CaseChanges changes, NotificationSettings settings) {
-        if (!changes.hasAnyChanges()) {
-            return; // No changes to notify about
+    public void sendCaseChangeNotification(List<User> users, CourtCase courtCase, CaseChanges changes, NotificationSettings settings) {
+        if (!changes.hasAnyChanges() || users.isEmpty()) {
+            return; // No changes, or nobody, to notify about
         }
 
-        String subject = generateNotificationSubject(courtCase, changes);
-        String message = generateNotificationMessage(courtCase, changes);
+        // Rendered and stored once, however many users follow the case
+        CaseChangeEvent event = new CaseChangeEvent();
+        event.setCourtCase(courtCase);
+        event.setSubject(generateNotificationSubject(courtCase, changes));
+        event.setMessage(generateNotificationMessage(courtCase, changes));
+        caseChangeEventRepository.save(event);
+
+        List<Notification> notifications = new ArrayList<>(users.size());
+        List<NotificationOutbox> outboxMessages = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (User user : users) {
+            Notification notification = new Notification();
+            notification.setUser(user);
+            notification.setCourtCase(courtCase);
+            notification.setEvent(event);
+            notification.setSentAt(now);
+            notifications.add(notification);
+
+            if (user.getDigestMode() != null && user.getDigestMode() != User.DigestMode.IMMEDIATE) {
+                // Held for the user's next digest instead of going out on its own
+                notification.setDigestEmail(settings.getEmailEnabled());
+                notification.setDigestSms(settings.getSmsEnabled());
+                continue;
+            }
+            // Email and SMS go through the outbox, written in the caller's transaction and delivered once it commits
+            if (settings.getEmailEnabled()) {
+                enqueue(outboxMessages, notification, null, NotificationOutbox.Channel.EMAIL, user.getEmail(), now);
+            }
+            if (settings.getSmsEnabled()) {
+                enqueue(outboxMessages, notification, null, NotificationOutbox.Channel.SMS, user.getUsername(), now); // Assuming username is phone number
+            }
+        }
+        notificationRepository.saveAll(notifications);
+        notificationOutboxRepository.saveAll(outboxMessages);
+        notificationBroadcaster.publish(notifications);
+    }
 
-        // Send email notification if enabled
-        if (settings.getEmailEnabled()) {
-            sendEmailNotification(user, courtCase, subject, message);
+    @Override
+    public int flushDigests(User.DigestMode mode, int limit) {
+        // A user who went back to immediate delivery may still have notifications flagged for a digest;
+        // the hourly flush sends those too, so they are never left behind
+        Set<User.DigestMode> modes = mode == User.DigestMode.HOURLY
+                ? EnumSet.of(User.DigestMode.HOURLY, User.DigestMode.IMMEDIATE)
+                : EnumSet.of(mode);
+        List<Notification> pending = notificationRepository.findPendingDigest(modes, PageRequest.of(0, limit));
+        if (pending.size() == limit && !pending.get(0).getUser().getId().equals(pending.get(limit - 1).getUser().getId())) {
+            // The last user's notifications may continue past the batch; leave them whole for the next one
+            Long lastUserId = pending.get(limit - 1).getUser().getId();
+            pending = pending.stream().filter(notification -> !notification.getUser().getId().equals(lastUserId)).toList();
         }
 
-        // Send SMS notification if enabled
-        if (settings.getSmsEnabled()) {
-            sendSmsNotification(user, courtCase, message);
+        List<NotificationDigest> digests = new ArrayList<>();
+        List<NotificationOutbox> outboxMessages = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        int from = 0;
+        while (from < pending.size()) {
+            User user = pending.get(from).getUser();
+            int to = from;
+            boolean email = false;
+            boolean sms = false;
+            while (to < pending.size() && pending.get(to).getUser().getId().equals(user.getId())) {
+                email |= pending.get(to).getDigestEmail();
+                sms |= pending.get(to).getDigestSms();
+                to++;
+            }
+            List<Notification> userNotifications = pending.subList(from, to);
+
+            NotificationDigest digest = new NotificationDigest();
+            digest.setUser(user);
+            digest.setSubject(generateDigestSubject(userNotifications));
+            digest.setMessage(generateDigestMessage(mode, userNotifications));
+            digest.setNotificationCount(userNotifications.size());
+            digests.add(digest);
+            if (email) {
+                enqueue(outboxMessages, null, digest, NotificationOutbox.Channel.EMAIL, user.getEmail(), now);
+            }
+            if (sms) {
+                enqueue(outboxMessages, null, digest, NotificationOutbox.Channel.SMS, user.getUsername(), now); // Assuming username is phone number
+            }
+            userNotifications.forEach(Notification::markDigested);
+            from = to;
         }
+        notificationDigestRepository.saveAll(digests);
+        notificationRepository.saveAll(pending);
+        notificationOutboxRepository.saveAll(outboxMessages);
+        return pending.size();
+    }
 
-        // Save notification to database
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setCourtCase(courtCase);
-        notification.setMessage(message);
-        notification.setSentAt(LocalDateTime.now());
-        
-        notificationRepository.save(notification);
+    @Override
+    public void deliver(NotificationOutbox outboxMessage) {
+        switch (outboxMessage.getChannel()) {
+            case EMAIL -> deliverEmail(outboxMessage.getRecipient(), outboxMessage.getSubject(), outboxMessage.getMessage());
+            case SMS -> deliverSms(outboxMessage.getRecipient(), outboxMessage.getMessage());
+        }
     }
 
     @Override
     public void sendEmailNotification(User user, CourtCase courtCase, String subject, String message) {
+        deliverEmail(user.getEmail(), subject, message);
+    }
+
+    @Override
+    public void sendSmsNotification(User user, CourtCase courtCase, String message) {
+        deliverSms(user.getUsername(), message); // Assuming username is phone number
+    }
+
+    private void enqueue(List<NotificationOutbox> outboxMessages, Notification notification, NotificationDigest digest,
+                         NotificationOutbox.Channel channel, String recipient, LocalDateTime now) {
+        if (recipient == null || recipient.isBlank()) {
+            User user = notification != null ? notification.getUser() : digest.getUser();
+            System.err.println("No " + channel + " recipient for user " + user.getId() + ", not queued");
+            return;
+        }
+        NotificationOutbox outboxMessage = new NotificationOutbox();
+        outboxMessage.setNotification(notification);
+        outboxMessage.setDigest(digest);
+        outboxMessage.setChannel(channel);
+        outboxMessage.setRecipient(recipient);
+        outboxMessage.setNextAttemptAt(now);
+        outboxMessages.add(outboxMessage);
+    }
+
+    private String generateDigestSubject(List<Notification> notifications) {
+        long cases = notifications.stream().map(notification -> notification.getCourtCase().getId()).distinct().count();
+        return "Case Observer Digest: " + notifications.size() + (notifications.size() == 1 ? " update" : " updates")
+                + " on " + cases + (cases == 1 ? " case" : " cases");
+    }
+
+    private String generateDigestMessage(User.DigestMode mode, List<Notification> notifications) {
+        StringBuilder message = new StringBuilder();
+        message.append(mode == User.DigestMode.DAILY ? "Daily" : "Hourly").append(" Case Update Digest\n");
+        message.append("========================\n\n");
+        message.append(notifications.size()).append(notifications.size() == 1 ? " change was" : " changes were")
+                .append(" detected since your last digest.\n");
+        for (Notification notification : notifications) {
+            CaseChangeEvent event = notification.getEvent();
+            message.append("\n--- ").append(event.getSubject() != null ? event.getSubject() : notification.getCourtCase().getCaseNumber())
+                    .append(" (").append(notification.getSentAt().format(DIGEST_TIME)).append(") ---\n");
+            message.append(event.getMessage()).append("\n");
+        }
+        return message.toString();
+    }
+
+    private void deliverEmail(String to, String subject, String message) {
         // TODO: Implement actual email sending using email service provider
         // For now, just log the email that would be sent
         System.out.println("=== EMAIL NOTIFICATION ===");
-        System.out.println("To: " + user.getEmail());
+        System.out.println("To: " + to);
         System.out.println("Subject: " + subject);
         System.out.println("Message: " + message);
         System.out.println("========================");
         
         // In production, integrate with email service like SendGrid, AWS SES, etc.
+        // Failures must be thrown, so the dispatcher retries the message
         // Example:
-        // emailService.sendEmail(user.getEmail(), subject, message);
+        // emailService.sendEmail(to, subject, message);
     }
 
-    @Override
-    public void sendSmsNotification(User user, CourtCase courtCase, String message) {
+    private void deliverSms(String to, String message) {
         // TODO: Implement actual SMS sending using SMS service provider
         // For now, just log the SMS that would be sent
         System.out.println("=== SMS NOTIFICATION ===");
-        System.out.println("To: " + user.getUsername()); // Assuming username is phone number
+        System.out.println("To: " + to);
         System.out.println("Message: " + message);
         System.out.println("========================");
         
         // In production, integrate with SMS service like Twilio, AWS SNS, etc.
         // Example:
-        // smsService.sendSms(user.getPhoneNumber(), message);
+        // smsService.sendSms(to, message);
     }
 
     @Override
-    public List<Notification> getNotificationsForUser(Long userId) {
-        return notificationRepository.findByUserIdOrderBySentAtDesc(userId);
+    public FeedPage getNotificationFeed(Long userId, NotificationCursor cursor, int limit) {
+        // One row past the page tells whether there is a next one
+        Pageable page = PageRequest.of(0, feedPageSize(limit) + 1);
+        List<NotificationRepository.FeedItem> items = cursor == null
+                ? notificationRepository.findFeed(userId, page)
+                : notificationRepository.findFeedAfter(userId, cursor.sentAt(), cursor.id(), page);
+        return toFeedPage(items, page.getPageSize() - 1);
+    }
+
+    @Override
+    public FeedPage getCaseNotificationFeed(Long userId, Long caseId, NotificationCursor cursor, int limit) {
+        Pageable page = PageRequest.of(0, feedPageSize(limit) + 1);
+        List<NotificationRepository.FeedItem> items = cursor == null
+                ? notificationRepository.findCaseFeed(userId, caseId, page)
+                : notificationRepository.findCaseFeedAfter(userId, caseId, cursor.sentAt(), cursor.id(), page);
+        return toFeedPage(items, page.getPageSize() - 1);
+    }
+
+    private static int feedPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+    }
+
+    private static FeedPage toFeedPage(List<NotificationRepository.FeedItem> items, int pageSize) {
+        if (items.size() <= pageSize) {
+            return new FeedPage(items, null);
+        }
+        NotificationRepository.FeedItem last = items.get(pageSize - 1);
+        return new FeedPage(items.subList(0, pageSize), new NotificationCursor(last.getSentAt(), last.getId()));
     }
 
     @Override
-    public List<Notification> getNotificationsForCase(Long caseId) {
-        return notificationRepository.findByCourtCaseIdOrderBySentAtDesc(caseId);
+    public long countUnreadNotifications(Long userId) {
+        return notificationRepository.countByUserIdAndReadAtIsNull(userId);
     }
 
     @Override
@@ -94,7 +266,7 @@ public class NotificationServiceImpl implements NotificationService {
         Optional<Notification> notificationOpt = notificationRepository.findById(notificationId);
         if (notificationOpt.isPresent()) {
             Notification notification = notificationOpt.get();
-            // Add a readAt field to Notification entity if needed
+            notification.markRead(LocalDateTime.now());
             notificationRepository.save(notification);
         }
     }
@@ -0,0 +1,25 @@
+-- V10__create_notification_outbox_table.sql
+-- Emails and SMS written with the change that triggered them and delivered asynchronously,
+-- so a slow provider does not stall the monitoring sweep and a crash does not lose them
+
+CREATE TABLE notification_outbox (
+    id BIGINT PRIMARY KEY,
+    notification_id BIGINT NOT NULL,
+    channel ENUM ('EMAIL', 'SMS') NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(500) NULL,
+    message TEXT NOT NULL,
+    status ENUM ('PENDING', 'SENT', 'FAILED') NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(1000) NULL,
+    claimed_by VARCHAR(100) NULL,
+    lease_until TIMESTAMP NULL,
+    sent_at TIMESTAMP NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (notification_id) REFERENCES notification (id) ON DELETE CASCADE,
+    INDEX idx_notification_outbox_due (status, next_attempt_at)
+);
+
+INSERT INTO id_generator (sequence_name, next_val) VALUES ('notification_outbox', 50);
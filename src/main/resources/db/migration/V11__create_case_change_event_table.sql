@@ -0,0 +1,40 @@
+-- V11__create_case_change_event_table.sql
+-- A change is rendered once into case_change_event; the per-user notification rows and the outbox
+-- reference it instead of each storing a copy of the message
+
+CREATE TABLE case_change_event (
+    id BIGINT PRIMARY KEY,
+    case_id BIGINT NOT NULL,
+    subject VARCHAR(500) NULL,
+    message TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (case_id) REFERENCES court_case (id) ON DELETE CASCADE,
+    INDEX idx_case_change_event_case (case_id)
+);
+
+-- Existing notifications each become their own event, keyed by the notification id
+INSERT INTO case_change_event (id, case_id, subject, message, created_at)
+SELECT n.id, n.case_id, NULL, n.message, COALESCE(n.sent_at, CURRENT_TIMESTAMP) FROM notification n;
+
+-- Queued emails carry the only copy of their subject
+UPDATE case_change_event e
+    JOIN notification_outbox o ON o.notification_id = e.id AND o.subject IS NOT NULL
+SET e.subject = o.subject;
+
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'case_change_event', COALESCE(MAX(id), 0) + 50 FROM case_change_event;
+
+ALTER TABLE notification
+    ADD COLUMN event_id BIGINT NULL,
+    ADD COLUMN read_at TIMESTAMP NULL;
+
+UPDATE notification SET event_id = id;
+
+ALTER TABLE notification
+    MODIFY event_id BIGINT NOT NULL,
+    ADD CONSTRAINT fk_notification_event FOREIGN KEY (event_id) REFERENCES case_change_event (id) ON DELETE CASCADE,
+    DROP COLUMN message;
+
+ALTER TABLE notification_outbox
+    DROP COLUMN subject,
+    DROP COLUMN message;
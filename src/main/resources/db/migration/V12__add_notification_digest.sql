@@ -0,0 +1,30 @@
+-- V12__add_notification_digest.sql
+-- Users can collect their change notifications into an hourly or daily digest; each digest is
+-- queued in the outbox once per channel instead of one email and SMS per change
+
+ALTER TABLE user
+    ADD COLUMN digest_mode ENUM ('IMMEDIATE', 'HOURLY', 'DAILY') NOT NULL DEFAULT 'IMMEDIATE';
+
+ALTER TABLE notification
+    ADD COLUMN digest_email BOOLEAN NOT NULL DEFAULT FALSE,
+    ADD COLUMN digest_sms BOOLEAN NOT NULL DEFAULT FALSE,
+    ADD INDEX idx_notification_digest_email (digest_email),
+    ADD INDEX idx_notification_digest_sms (digest_sms);
+
+CREATE TABLE notification_digest (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    subject VARCHAR(500) NULL,
+    message TEXT NOT NULL,
+    notification_count INT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES user (id) ON DELETE CASCADE
+);
+
+INSERT INTO id_generator (sequence_name, next_val) VALUES ('notification_digest', 50);
+
+-- An outbox message carries either one notification or one digest
+ALTER TABLE notification_outbox
+    MODIFY notification_id BIGINT NULL,
+    ADD COLUMN digest_id BIGINT NULL,
+    ADD CONSTRAINT fk_notification_outbox_digest FOREIGN KEY (digest_id) REFERENCES notification_digest (id) ON DELETE CASCADE;
@@ -0,0 +1,8 @@
+-- V13__add_notification_feed_indexes.sql
+-- The notification feeds page by (sent_at, id) after a cursor, per user and per user and case;
+-- these indexes serve both the filter and the order, so a page reads only its own rows
+
+ALTER TABLE notification
+    ADD INDEX idx_notification_user_feed (user_id, sent_at, id),
+    ADD INDEX idx_notification_user_case_feed (user_id, case_id, sent_at, id),
+    DROP INDEX idx_user_id;
@@ -0,0 +1,8 @@
+-- V14__add_case_list_sort_indexes.sql
+-- The case list pages by (sort key, id) after a cursor; these indexes give the last-updated and status orders
+-- a walk in key order that stops once the page is full. The case number order reads the unique number index,
+-- which already ends in the primary key.
+
+ALTER TABLE court_case
+    ADD INDEX idx_court_case_last_updated (last_updated, id),
+    ADD INDEX idx_court_case_status (status, id);
@@ -0,0 +1,6 @@
+-- V15__add_notification_unread_index.sql
+-- The notification bell counts a user's unread notifications over the whole feed; with read_at in the index
+-- the count is a range scan of the index, without reading the notification rows
+
+ALTER TABLE notification
+    ADD INDEX idx_notification_user_unread (user_id, read_at);
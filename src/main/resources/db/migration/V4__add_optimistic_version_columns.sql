@@ -0,0 +1,9 @@
+-- V4__add_optimistic_version_columns.sql
+-- Optimistic locking for the monitoring check, which writes back case and settings state
+-- loaded before the portal call
+
+ALTER TABLE court_case
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE notification_settings
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
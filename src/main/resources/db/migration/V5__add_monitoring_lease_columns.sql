@@ -0,0 +1,11 @@
+-- V5__add_monitoring_lease_columns.sql
+-- Lease columns so several backend instances can share the monitoring sweep:
+-- a node claims due rows by setting claimed_by and lease_until, and a claim that is
+-- never released (crashed node) simply expires
+
+ALTER TABLE notification_settings
+    ADD COLUMN claimed_by VARCHAR(100) NULL,
+    ADD COLUMN lease_until TIMESTAMP NULL;
+
+CREATE INDEX idx_notification_settings_next_check_lease
+    ON notification_settings(next_check_at, lease_until);
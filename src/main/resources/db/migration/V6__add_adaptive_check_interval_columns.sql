@@ -0,0 +1,11 @@
+-- V6__add_adaptive_check_interval_columns.sql
+-- Bounds and state for the adaptive check interval: checks tighten around hearings and after
+-- a change, and back off while a case stays unchanged
+
+ALTER TABLE notification_settings
+    ADD COLUMN min_check_interval_minutes INT NOT NULL DEFAULT 15,
+    ADD COLUMN max_check_interval_minutes INT NOT NULL DEFAULT 10080,
+    ADD COLUMN last_change_detected_at TIMESTAMP NULL,
+    ADD COLUMN unchanged_check_count INT NOT NULL DEFAULT 0,
+    ADD CONSTRAINT chk_check_interval_bounds_positive
+        CHECK (min_check_interval_minutes > 0 AND max_check_interval_minutes > 0);
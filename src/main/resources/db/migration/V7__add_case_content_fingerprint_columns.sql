@@ -0,0 +1,6 @@
+-- V7__add_case_content_fingerprint_columns.sql
+-- What the monitor last saw on the portal, so checks of unchanged cases skip the change detector
+
+ALTER TABLE court_case
+    ADD COLUMN content_hash VARCHAR(64) NULL,
+    ADD COLUMN portal_modification_date VARCHAR(64) NULL;
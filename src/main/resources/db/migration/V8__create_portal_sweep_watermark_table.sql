@@ -0,0 +1,14 @@
+-- V8__create_portal_sweep_watermark_table.sql
+-- Per-institution watermark for the incremental sweep, which asks the portal only for cases
+-- modified since the last successful sweep
+
+CREATE TABLE portal_sweep_watermark (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    institution VARCHAR(255) NOT NULL UNIQUE,
+    tracked_since TIMESTAMP NOT NULL,
+    synced_until TIMESTAMP NOT NULL,
+    claimed_by VARCHAR(100) NULL,
+    lease_until TIMESTAMP NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
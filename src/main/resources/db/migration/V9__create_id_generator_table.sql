@@ -0,0 +1,15 @@
+-- V9__create_id_generator_table.sql
+-- Table-backed id allocation for the entities written in bulk (cases, hearings, parties, notifications).
+-- Hibernate reserves a block of ids per round trip, so their inserts can be batched; IDENTITY columns
+-- cannot be. Each counter starts one allocation block past the current maximum id, as the pooled
+-- optimizer hands out the block ending at the stored value.
+
+CREATE TABLE id_generator (
+    sequence_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'court_case', COALESCE(MAX(id), 0) + 50 FROM court_case;
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'hearing', COALESCE(MAX(id), 0) + 100 FROM hearing;
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'party', COALESCE(MAX(id), 0) + 50 FROM party;
+INSERT INTO id_generator (sequence_name, next_val) SELECT 'notification', COALESCE(MAX(id), 0) + 50 FROM notification;
@@ -23,6 +23,7 @@ import ro.signsofter.caseobserver.repository.NotificationSettingsRepository;
 import ro.signsofter.caseobserver.repository.UserCaseRepository;
 import ro.signsofter.caseobserver.repository.UserRepository;
 import ro.signsofter.caseobserver.security.JwtService;
+import ro.signsofter.caseobserver.service.CaseChangeDetectorService;
 import ro.signsofter.caseobserver.service.CaseMonitoringService;
 import ro.signsofter.caseobserver.service.CourtCaseService;
 
@@ -30,8 +31,10 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 @WebMvcTest(controllers = CourtCaseController.class)
@@ -53,6 +56,7 @@ class CourtCaseControllerTest {
     @MockBean private UserCaseRepository userCaseRepository;
     @MockBean private NotificationSettingsRepository notificationSettingsRepository;
     @MockBean private CaseMonitoringService caseMonitoringService;
+    @MockBean private CaseChangeDetectorService caseChangeDetectorService;
     @MockBean private JwtService jwtService;
 
     @Test
@@ -121,47 +125,58 @@ class CourtCaseControllerTest {
     }
 
     @Test
-    void listCases_returns200_withUserCases() throws Exception {
+    void listCases_returns200_withPageOfUserCases() throws Exception {
         // Create test cases
-        CourtCase case1 = new CourtCase();
-        case1.setId(1L);
-        case1.setCaseNumber("12345/2025");
-        case1.setCourtName("TRIBUNALUL BUCURESTI");
-        case1.setStatus("Fond");
+        UserCaseRepository.CaseSummary case1 = caseSummary(1L, "12345/2025", "TRIBUNALUL BUCURESTI");
+        UserCaseRepository.CaseSummary case2 = caseSummary(2L, "67890/2025", "TRIBUNALUL CLUJ");
 
-        CourtCase case2 = new CourtCase();
-        case2.setId(2L);
-        case2.setCaseNumber("67890/2025");
-        case2.setCourtName("TRIBUNALUL CLUJ");
-        case2.setStatus("Procedura");
-
-        List<CourtCase> userCases = List.of(case1, case2);
+        CourtCaseService.CasePage page = new CourtCaseService.CasePage(List.of(case1, case2), "next", 3L);
 
         // Mock the service method
-        when(courtCaseService.getCasesForUser(anyString())).thenReturn(userCases);
+        when(courtCaseService.getCasePage(anyString(), any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(page);
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/cases")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(MockMvcResultMatchers.status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$").isArray())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].caseNumber").value("12345/2025"))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].courtName").value("TRIBUNALUL BUCURESTI"))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[1].caseNumber").value("67890/2025"))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[1].courtName").value("TRIBUNALUL CLUJ"));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.cases.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.cases[0].caseNumber").value("12345/2025"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.cases[0].courtName").value("TRIBUNALUL BUCURESTI"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.cases[1].caseNumber").value("67890/2025"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.cases[1].courtName").value("TRIBUNALUL CLUJ"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.cases[0].hearings").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value("next"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totalCount").value(3));
     }
 
     @Test
-    void listCases_returns200_withEmptyList_whenUserHasNoCases() throws Exception {
-        // Mock empty list for user with no cases
-        when(courtCaseService.getCasesForUser(anyString())).thenReturn(List.of());
+    void listCases_returns200_withEmptyPage_whenUserHasNoCases() throws Exception {
+        // Mock empty page for user with no cases
+        when(courtCaseService.getCasePage(anyString(), any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(new CourtCaseService.CasePage(List.of(), null, 0L));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/api/cases")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(MockMvcResultMatchers.status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$").isArray())
-                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(0));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.cases").isArray())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.cases.length()").value(0))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").doesNotExist());
     }
-}
 
+    @Test
+    void listCases_returns400_whenCursorIsInvalid() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/cases")
+                        .param("cursor", "not-a-cursor")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("Invalid case list cursor"));
+    }
 
+    private static UserCaseRepository.CaseSummary caseSummary(Long id, String caseNumber, String courtName) {
+        UserCaseRepository.CaseSummary summary = mock(UserCaseRepository.CaseSummary.class);
+        when(summary.getId()).thenReturn(id);
+        when(summary.getCaseNumber()).thenReturn(caseNumber);
+        when(summary.getCourtName()).thenReturn(courtName);
+        return summary;
+    }
+}
@@ -0,0 +1,89 @@
+package ro.signsofter.caseobserver.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ro.signsofter.caseobserver.entity.NotificationSettings;
+import ro.signsofter.caseobserver.entity.User;
+import ro.signsofter.caseobserver.repository.UserRepository;
+import ro.signsofter.caseobserver.security.JwtService;
+import ro.signsofter.caseobserver.service.CaseMonitoringService;
+import ro.signsofter.caseobserver.service.NotificationBroadcaster;
+import ro.signsofter.caseobserver.service.NotificationService;
+import ro.signsofter.caseobserver.service.UserService;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebMvcTest(controllers = MonitoringController.class)
+@Import(TestSecurityConfig.class)
+class MonitoringControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean private CaseMonitoringService caseMonitoringService;
+    @MockBean private NotificationService notificationService;
+    @MockBean private UserService userService;
+    @MockBean private NotificationBroadcaster notificationBroadcaster;
+    @MockBean private UserRepository userRepository;
+    @MockBean private JwtService jwtService;
+
+    @Test
+    @WithMockUser(username = "lawyer")
+    void getUnreadNotificationCount_returnsCountForCurrentUser() throws Exception {
+        User user = new User();
+        user.setId(7L);
+        when(userService.getUserByUsername("lawyer")).thenReturn(Optional.of(user));
+        when(notificationService.countUnreadNotifications(7L)).thenReturn(120L);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/monitoring/notifications/unread-count"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.data").value(120));
+    }
+
+    @Test
+    void updateNotificationSettings_returns400_whenMinimumIntervalExceedsMaximum() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/monitoring/cases/{caseId}/settings", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"minCheckIntervalMinutes\":240,\"maxCheckIntervalMinutes\":120}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message")
+                        .value("Minimum check interval must not exceed the maximum check interval"));
+
+        verify(caseMonitoringService, never()).updateNotificationSettings(anyLong(), any(NotificationSettings.class));
+    }
+
+    @Test
+    void updateNotificationSettings_returns400_whenIntervalIsNotPositive() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/monitoring/cases/{caseId}/settings", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"minCheckIntervalMinutes\":0}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message")
+                        .value("Minimum check interval must be at least 1 minute"));
+    }
+
+    @Test
+    void updateNotificationSettings_returns200_whenRangeIsValid() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.put("/api/monitoring/cases/{caseId}/settings", 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"minCheckIntervalMinutes\":30,\"maxCheckIntervalMinutes\":120}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.result").value("SUCCESS"));
+
+        verify(caseMonitoringService).updateNotificationSettings(anyLong(), any(NotificationSettings.class));
+    }
+}
@@ -0,0 +1,63 @@
+package ro.signsofter.caseobserver.entity;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationOutboxTest {
+
+    private final LocalDateTime failedAt = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    private NotificationOutbox outboxMessage;
+
+    @BeforeEach
+    void setUp() {
+        outboxMessage = new NotificationOutbox();
+        outboxMessage.setNextAttemptAt(failedAt);
+        outboxMessage.claim("node-a", failedAt.plusMinutes(5));
+    }
+
+    @Test
+    void recordFailure_backsOffExponentiallyUpToTheCap() {
+        outboxMessage.recordFailure("timeout", failedAt, 10, Duration.ofSeconds(30), Duration.ofMinutes(3));
+        assertEquals(failedAt.plusSeconds(30), outboxMessage.getNextAttemptAt());
+
+        outboxMessage.recordFailure("timeout", failedAt, 10, Duration.ofSeconds(30), Duration.ofMinutes(3));
+        assertEquals(failedAt.plusMinutes(1), outboxMessage.getNextAttemptAt());
+
+        for (int i = 0; i < 4; i++) {
+            outboxMessage.recordFailure("timeout", failedAt, 10, Duration.ofSeconds(30), Duration.ofMinutes(3));
+        }
+        assertEquals(failedAt.plusMinutes(3), outboxMessage.getNextAttemptAt());
+        assertEquals(NotificationOutbox.Status.PENDING, outboxMessage.getStatus());
+        assertNull(outboxMessage.getClaimedBy());
+        assertNull(outboxMessage.getLeaseUntil());
+    }
+
+    @Test
+    void recordFailure_givesUpAfterMaxAttempts() {
+        outboxMessage.recordFailure("timeout", failedAt, 2, Duration.ofSeconds(30), Duration.ofMinutes(3));
+        outboxMessage.recordFailure("mailbox full", failedAt, 2, Duration.ofSeconds(30), Duration.ofMinutes(3));
+
+        assertEquals(NotificationOutbox.Status.FAILED, outboxMessage.getStatus());
+        assertEquals(2, outboxMessage.getAttempts().intValue());
+        assertEquals("mailbox full", outboxMessage.getLastError());
+    }
+
+    @Test
+    void recordDelivery_marksSentAndReleasesTheClaim() {
+        outboxMessage.recordFailure("timeout", failedAt, 5, Duration.ofSeconds(30), Duration.ofMinutes(3));
+
+        outboxMessage.recordDelivery(failedAt.plusMinutes(1));
+
+        assertEquals(NotificationOutbox.Status.SENT, outboxMessage.getStatus());
+        assertEquals(failedAt.plusMinutes(1), outboxMessage.getSentAt());
+        assertEquals(2, outboxMessage.getAttempts().intValue());
+        assertNull(outboxMessage.getLastError());
+        assertNull(outboxMessage.getClaimedBy());
+    }
+}
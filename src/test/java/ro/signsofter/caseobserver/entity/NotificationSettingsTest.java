@@ -0,0 +1,103 @@
+package ro.signsofter.caseobserver.entity;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationSettingsTest {
+
+    private final LocalDateTime checkedAt = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    private NotificationSettings settings;
+
+    @BeforeEach
+    void setUp() {
+        settings = new NotificationSettings();
+        settings.setNotificationIntervalMinutes(60);
+        settings.setMinCheckIntervalMinutes(15);
+        settings.setMaxCheckIntervalMinutes(1440);
+    }
+
+    @Test
+    void calculateNextCheckTime_usesConfiguredIntervalForNewCase() {
+        settings.setLastCheckedAt(checkedAt);
+
+        settings.calculateNextCheckTime();
+
+        assertEquals(checkedAt.plusMinutes(60), settings.getNextCheckAt());
+    }
+
+    @Test
+    void calculateNextCheckTime_truncatesToWholeSeconds() {
+        settings.setLastCheckedAt(checkedAt.plusNanos(600_000_000));
+
+        settings.calculateNextCheckTime();
+
+        assertEquals(checkedAt.plusMinutes(60), settings.getNextCheckAt());
+    }
+
+    @Test
+    void calculateNextCheckTime_usesMinimumRightAfterChange() {
+        settings.recordCheck(checkedAt, true);
+
+        settings.calculateNextCheckTime();
+
+        assertEquals(checkedAt.plusMinutes(15), settings.getNextCheckAt());
+        assertEquals(0, settings.getUnchangedCheckCount());
+    }
+
+    @Test
+    void calculateNextCheckTime_usesMinimumAroundHearing() {
+        settings.recordCheck(checkedAt, false);
+
+        settings.calculateNextCheckTime(List.of(hearingAt(checkedAt.plusHours(30))));
+
+        assertEquals(checkedAt.plusMinutes(15), settings.getNextCheckAt());
+    }
+
+    @Test
+    void calculateNextCheckTime_backsOffExponentiallyUpToMaximum() {
+        for (int i = 0; i < 5; i++) {
+            settings.recordCheck(checkedAt, false);
+        }
+        settings.calculateNextCheckTime();
+        assertEquals(checkedAt.plusMinutes(240), settings.getNextCheckAt());
+
+        for (int i = 0; i < 10; i++) {
+            settings.recordCheck(checkedAt, false);
+        }
+        settings.calculateNextCheckTime();
+        assertEquals(checkedAt.plusMinutes(1440), settings.getNextCheckAt());
+    }
+
+    @Test
+    void calculateNextCheckTime_doesNotBackOffPastUpcomingHearingWindow() {
+        for (int i = 0; i < 15; i++) {
+            settings.recordCheck(checkedAt, false);
+        }
+
+        settings.calculateNextCheckTime(List.of(hearingAt(checkedAt.plusHours(58))));
+
+        assertEquals(checkedAt.plusHours(10), settings.getNextCheckAt());
+    }
+
+    @Test
+    void calculateNextCheckTime_neverGoesBelowConfiguredIntervalWhenItIsUnderMinimum() {
+        settings.setNotificationIntervalMinutes(5);
+        settings.recordCheck(checkedAt, true);
+
+        settings.calculateNextCheckTime();
+
+        assertEquals(checkedAt.plusMinutes(5), settings.getNextCheckAt());
+    }
+
+    private static Hearing hearingAt(LocalDateTime date) {
+        Hearing hearing = new Hearing();
+        hearing.setHearingDate(date);
+        return hearing;
+    }
+}
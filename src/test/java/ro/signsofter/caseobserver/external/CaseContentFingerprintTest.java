@@ -0,0 +1,54 @@
+package ro.signsofter.caseobserver.external;
+
+import org.junit.jupiter.api.Test;
+import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaseContentFingerprintTest {
+
+    @Test
+    void compute_isStableAcrossOrderAndModificationDate() throws Exception {
+        CaseDetailsDto original = parse();
+        CaseDetailsDto reordered = parse();
+        reordered.setModificationDateTime("2030-01-01T00:00:00");
+        Collections.reverse(reordered.getHearings());
+        Collections.reverse(reordered.getParties());
+
+        assertThat(CaseContentFingerprint.compute(reordered)).isEqualTo(CaseContentFingerprint.compute(original));
+    }
+
+    @Test
+    void compute_changesWithComparedContent() throws Exception {
+        CaseDetailsDto original = parse();
+        String fingerprint = CaseContentFingerprint.compute(original);
+
+        CaseDetailsDto solution = parse();
+        solution.getHearings().get(0).setSolution("Amână pronunţarea");
+        CaseDetailsDto role = parse();
+        role.getParties().get(0).setRole("Intervenient");
+        CaseDetailsDto emptied = parse();
+        emptied.setSubject(null);
+
+        assertThat(CaseContentFingerprint.compute(solution)).isNotEqualTo(fingerprint);
+        assertThat(CaseContentFingerprint.compute(role)).isNotEqualTo(fingerprint);
+        assertThat(CaseContentFingerprint.compute(emptied)).isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    void of_prefersFingerprintComputedWhileParsing() throws Exception {
+        CaseDetailsDto details = parse();
+        details.setContentHash("parsed");
+
+        assertThat(CaseContentFingerprint.of(details)).isEqualTo("parsed");
+    }
+
+    private static CaseDetailsDto parse() throws Exception {
+        return CaseDetailsStaxParser.parse(new ByteArrayInputStream(
+                PortalResponseFixtures.recorded().getBytes(StandardCharsets.UTF_8)));
+    }
+}
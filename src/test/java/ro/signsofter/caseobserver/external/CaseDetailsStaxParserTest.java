@@ -0,0 +1,73 @@
+package ro.signsofter.caseobserver.external;
+
+import org.junit.jupiter.api.Test;
+import ro.signsofter.caseobserver.exception.portal.PortalQueryException;
+import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
+import ro.signsofter.caseobserver.external.dto.caseResponse.FetchCaseEnvelope;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CaseDetailsStaxParserTest {
+
+    @Test
+    void parse_readsRecordedResponse() throws Exception {
+        CaseDetailsDto details = CaseDetailsStaxParser.parse(stream(PortalResponseFixtures.recorded()));
+
+        assertThat(details.getNumber()).isEqualTo("12345/3/2023");
+        assertThat(details.getInstitution()).isEqualTo("TribunalulBUCURESTI");
+        assertThat(details.getDepartment()).isEqualTo("Secţia a III-a Civilă");
+        assertThat(details.getProceduralStage()).isEqualTo("Fond");
+        assertThat(details.getModificationDateTime()).isEqualTo("2024-04-11T08:15:42.347");
+
+        assertThat(details.getParties()).hasSize(3);
+        assertThat(details.getParties().get(2).getName()).isEqualTo("SC EXEMPLU & ASOCIATII SRL");
+        assertThat(details.getParties().get(1).getRole()).isEqualTo("Pârât");
+
+        assertThat(details.getHearings()).hasSize(3);
+        assertThat(details.getHearings().get(1).getDate()).isEqualTo("2024-03-04T00:00:00");
+        assertThat(details.getHearings().get(1).getTime()).isEqualTo("10:30");
+        assertThat(details.getHearings().get(1).getPronouncementDate()).isEqualTo("2024-03-18T00:00:00");
+    }
+
+    @Test
+    void parse_matchesJaxbBinding() throws Exception {
+        String response = PortalResponseFixtures.withHearings(50);
+
+        CaseDetailsDto streamed = CaseDetailsStaxParser.parse(stream(response));
+        FetchCaseEnvelope envelope = CaseEnvelopeUnmarshaller.unmarshal(stream(response));
+
+        assertThat(streamed).isEqualTo(envelope.getBody().getResponse().getResult().getCaseDetails());
+    }
+
+    @Test
+    void parse_throws_whenResultHasNoCase() {
+        String empty = """
+                <soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/">
+                  <soap:Body>
+                    <CautareDosareResponse xmlns="portalquery.just.ro">
+                      <CautareDosareResult />
+                    </CautareDosareResponse>
+                  </soap:Body>
+                </soap:Envelope>
+                """;
+
+        assertThatThrownBy(() -> CaseDetailsStaxParser.parse(stream(empty)))
+                .isInstanceOf(PortalQueryException.class)
+                .hasMessageContaining("empty or malformed");
+    }
+
+    @Test
+    void parse_throws_whenNotASoapEnvelope() {
+        assertThatThrownBy(() -> CaseDetailsStaxParser.parse(stream("<html><body>Service Unavailable</body></html>")))
+                .isInstanceOf(PortalQueryException.class);
+    }
+
+    private static InputStream stream(String payload) {
+        return new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
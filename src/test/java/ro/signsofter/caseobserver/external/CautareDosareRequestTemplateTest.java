@@ -0,0 +1,72 @@
+package ro.signsofter.caseobserver.external;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CautareDosareRequestTemplateTest {
+
+    private PortalQueryService portalQueryService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        PortalProperties portalProperties = new PortalProperties();
+        portalProperties.setRequestTemplate(false);
+        portalQueryService = new PortalQueryService();
+        ReflectionTestUtils.setField(portalQueryService, "portalProperties", portalProperties);
+        ReflectionTestUtils.setField(portalQueryService, "meterRegistry", new SimpleMeterRegistry());
+        portalQueryService.initialize();
+    }
+
+    static Stream<String> parameters() {
+        return Stream.of(
+                "12345/3/2023",
+                "",
+                "TribunalulBUCURESTI",
+                "Judecătoria SECTORUL 4 BUCUREŞTI",
+                "a<b>&c \"quoted\" 'single' ]]>",
+                "tab\there\nnew line\rcarriage",
+                "\u0001\u001f\u007f\u0085\u009f ",
+                "emoji 😀 and €",
+                // Every character up to the end of Latin Extended
+                IntStream.range(0, 0x300).collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString()
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("parameters")
+    void writeTo_producesSameBytesAsSaaj(String value) throws Exception {
+        ByteArrayOutputStream saaj = new ByteArrayOutputStream();
+        portalQueryService.writeRequest(saaj, value, value);
+
+        ByteArrayOutputStream template = new ByteArrayOutputStream();
+        CautareDosareRequestTemplate.writeTo(template, value, value);
+
+        assertThat(template.toByteArray()).isEqualTo(saaj.toByteArray());
+    }
+
+    @Test
+    void writeTo_producesSameBytesAsSaaj_withModificationRange() throws Exception {
+        PortalQueryService.CautareDosareQuery query = new PortalQueryService.CautareDosareQuery("", "TribunalulBUCURESTI",
+                LocalDateTime.of(2024, 4, 10, 8, 0), LocalDateTime.of(2024, 4, 11, 8, 30, 15));
+
+        ByteArrayOutputStream saaj = new ByteArrayOutputStream();
+        portalQueryService.writeRequest(saaj, query);
+
+        ByteArrayOutputStream template = new ByteArrayOutputStream();
+        CautareDosareRequestTemplate.writeTo(template, query.caseNumber(), query.institution(),
+                query.modifiedStart(), query.modifiedStop());
+
+        assertThat(template.toByteArray()).isEqualTo(saaj.toByteArray());
+    }
+}
@@ -0,0 +1,108 @@
+package ro.signsofter.caseobserver.external;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PortalCircuitBreakerTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final PortalCircuitBreaker breaker =
+            new PortalCircuitBreaker(4, 4, 50, Duration.ofSeconds(30), clock);
+
+    @Test
+    void opensOnceFailureRateReachesThresholdOverMinimumCalls() {
+        record(false, true, false);
+        assertThat(breaker.state()).isEqualTo(PortalCircuitBreaker.State.CLOSED);
+
+        record(true);
+
+        assertThat(breaker.state()).isEqualTo(PortalCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        assertThat(breaker.retryAt()).isEqualTo(clock.instant().plusSeconds(30));
+    }
+
+    @Test
+    void oldOutcomesLeaveTheWindow() {
+        record(true, false, false, false, false, true, false);
+
+        assertThat(breaker.failureRate()).isEqualTo(0.25);
+        assertThat(breaker.state()).isEqualTo(PortalCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void letsOneTrialThroughAfterOpenDurationAndClosesOnSuccess() {
+        record(true, true, true, true);
+        clock.advance(Duration.ofSeconds(30));
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(PortalCircuitBreaker.State.CLOSED);
+        assertThat(breaker.failureRate()).isZero();
+    }
+
+    @Test
+    void reopensWhenTrialFails() {
+        record(true, true, true, true);
+        clock.advance(Duration.ofSeconds(30));
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(PortalCircuitBreaker.State.OPEN);
+        assertThat(breaker.retryAt()).isEqualTo(clock.instant().plusSeconds(30));
+    }
+
+    @Test
+    void ignoredTrialFreesTheSlotForAnotherOne() {
+        record(true, true, true, true);
+        clock.advance(Duration.ofSeconds(30));
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onIgnored();
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    private void record(boolean... failures) {
+        for (boolean failure : failures) {
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            if (failure) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-03-10T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
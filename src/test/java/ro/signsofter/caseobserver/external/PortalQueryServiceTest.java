@@ -0,0 +1,309 @@
+package ro.signsofter.caseobserver.external;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ro.signsofter.caseobserver.exception.portal.PortalQueryException;
+import ro.signsofter.caseobserver.exception.portal.PortalUnavailableException;
+import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs PortalQueryService against a local HTTP server that replays a recorded CautareDosare response.
+ */
+class PortalQueryServiceTest {
+
+    private HttpServer server;
+    private PortalProperties portalProperties;
+    private final List<String> requestBodies = new ArrayList<>();
+    private final List<String> soapActions = new ArrayList<>();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private volatile boolean gzipResponse;
+    private volatile CountDownLatch responseGate;
+    private volatile String responseBody = PortalResponseFixtures.recorded();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/query.asmx", this::handle);
+        server.start();
+
+        portalProperties = new PortalProperties();
+        portalProperties.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/query.asmx");
+        portalProperties.setSoapAction("portalquery.just.ro/CautareDosare");
+        portalProperties.setConnectTimeoutMs(2000);
+        portalProperties.setReadTimeoutMs(2000);
+        portalProperties.setRetries(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void fetchCaseDetails_postsSoapRequestAndParsesResponse() throws Exception {
+        PortalQueryService service = createService();
+
+        CaseDetailsDto details = service.fetchCaseDetails("12345/3/2023", "TribunalulBUCURESTI");
+
+        assertThat(details.getNumber()).isEqualTo("12345/3/2023");
+        assertThat(details.getHearings()).hasSize(3);
+        assertThat(soapActions).containsExactly("portalquery.just.ro/CautareDosare");
+        assertThat(requestBodies.get(0))
+                .contains("<numarDosar>12345/3/2023</numarDosar>")
+                .contains("<institutie>TribunalulBUCURESTI</institutie>");
+    }
+
+    @Test
+    void fetchCaseDetails_decodesGzipResponse() throws Exception {
+        gzipResponse = true;
+        PortalQueryService service = createService();
+
+        CaseDetailsDto details = service.fetchCaseDetails("12345/3/2023", "TribunalulBUCURESTI");
+
+        assertThat(details.getParties()).hasSize(3);
+    }
+
+    @Test
+    void fetchCaseDetails_reusesClientAcrossRequests() throws Exception {
+        PortalQueryService service = createService();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(service.fetchFreshCaseDetails("12345/3/2023", "TribunalulBUCURESTI")).isNotNull();
+        }
+
+        assertThat(requestBodies).hasSize(3);
+    }
+
+    @Test
+    void fetchCaseDetails_throws_onErrorStatus() throws Exception {
+        status.set(500);
+        PortalQueryService service = createService();
+
+        assertThatThrownBy(() -> service.fetchCaseDetails("12345/3/2023", "TribunalulBUCURESTI"))
+                .isInstanceOf(PortalQueryException.class)
+                .hasMessageContaining("status 500");
+    }
+
+    @Test
+    void fetchCaseDetails_retriesServerErrorsButNotClientErrors() throws Exception {
+        portalProperties.setRetries(2);
+        portalProperties.setRetryBackoffMs(1);
+        status.set(503);
+        PortalQueryService service = createService();
+
+        assertThatThrownBy(() -> service.fetchCaseDetails("12345/3/2023", "TribunalulBUCURESTI"))
+                .isInstanceOf(PortalQueryException.class);
+        assertThat(requestBodies).hasSize(3);
+
+        requestBodies.clear();
+        status.set(400);
+        assertThatThrownBy(() -> service.fetchCaseDetails("12345/3/2023", "TribunalulBUCURESTI"))
+                .hasMessageContaining("status 400");
+        assertThat(requestBodies).hasSize(1);
+    }
+
+    @Test
+    void fetchCaseDetails_failsFastOnceCircuitOpens() throws Exception {
+        portalProperties.setCircuitWindowSize(2);
+        portalProperties.setCircuitMinimumCalls(2);
+        status.set(500);
+        PortalQueryService service = createService();
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> service.fetchCaseDetails("12345/3/2023", "TribunalulBUCURESTI"))
+                    .hasMessageContaining("status 500");
+        }
+        assertThatThrownBy(() -> service.fetchCaseDetails("12345/3/2023", "TribunalulBUCURESTI"))
+                .isInstanceOf(PortalUnavailableException.class);
+
+        assertThat(requestBodies).hasSize(2);
+        assertThat(meterRegistry.get("portal.circuit.state").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("portal.requests").tag("outcome", "rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fetchCaseDetails_coalescesConcurrentFetchesOfTheSameCase() throws Exception {
+        responseGate = new CountDownLatch(1);
+        PortalQueryService service = createService();
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<CaseDetailsDto> first = callers.submit(() -> service.fetchCaseDetails("12345/3/2023", "TribunalulBUCURESTI"));
+            awaitCondition(() -> requestCount() == 1);
+            Future<CaseDetailsDto> second = callers.submit(() -> service.fetchCaseDetails("12345/3/2023", "TribunalulBUCURESTI"));
+            Counter coalesced = meterRegistry.get("portal.requests.coalesced").counter();
+            awaitCondition(() -> coalesced.count() == 1);
+            responseGate.countDown();
+
+            assertThat(second.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+            assertThat(requestCount()).isEqualTo(1);
+        } finally {
+            responseGate.countDown();
+            callers.shutdownNow();
+        }
+
+        // Once the shared fetch is done, the next one goes to the portal again
+        service.fetchFreshCaseDetails("12345/3/2023", "TribunalulBUCURESTI");
+        assertThat(requestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void fetchCaseDetails_waitsForBusyConnectionWithoutReadTimeout() throws Exception {
+        // The base profile sets no read timeout; a busy connection must still be waited for
+        portalProperties.setReadTimeoutMs(0);
+        portalProperties.setMaxConnectionsPerHost(1);
+        responseGate = new CountDownLatch(1);
+        PortalQueryService service = createService();
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<CaseDetailsDto> first = callers.submit(() -> service.fetchFreshCaseDetails("12345/3/2023", "TribunalulBUCURESTI"));
+            awaitCondition(() -> requestCount() == 1);
+            Future<CaseDetailsDto> second = callers.submit(() -> service.fetchFreshCaseDetails("12345/3/2023", "TribunalulCLUJ"));
+            Thread.sleep(100);
+            assertThat(second.isDone()).isFalse();
+            responseGate.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isNotNull();
+            assertThat(second.get(5, TimeUnit.SECONDS)).isNotNull();
+            assertThat(requestCount()).isEqualTo(2);
+        } finally {
+            responseGate.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void fetchCaseDetails_answersRepeatedFetchesFromResponseCache() throws Exception {
+        PortalQueryService service = createService();
+
+        CaseDetailsDto first = service.fetchCaseDetails("12345/3/2023", "TribunalulBUCURESTI");
+        CaseDetailsDto second = service.fetchCaseDetails("12345/3/2023", "TribunalulBUCURESTI");
+        service.fetchCaseDetails("12345/3/2023", "TribunalulCLUJ");
+
+        assertThat(second).isSameAs(first);
+        assertThat(requestCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "portal.case-details").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fetchFreshCaseDetails_bypassesAndRefreshesResponseCache() throws Exception {
+        PortalQueryService service = createService();
+
+        CaseDetailsDto cached = service.fetchCaseDetails("12345/3/2023", "TribunalulBUCURESTI");
+        CaseDetailsDto fresh = service.fetchFreshCaseDetails("12345/3/2023", "TribunalulBUCURESTI");
+
+        assertThat(fresh).isNotSameAs(cached);
+        assertThat(requestCount()).isEqualTo(2);
+        assertThat(service.fetchCaseDetails("12345/3/2023", "TribunalulBUCURESTI")).isSameAs(fresh);
+        assertThat(requestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void fetchCaseDetails_doesNotCacheWhenTtlIsZero() throws Exception {
+        portalProperties.setResponseCacheTtlMs(0);
+        PortalQueryService service = createService();
+
+        service.fetchCaseDetails("12345/3/2023", "TribunalulBUCURESTI");
+        service.fetchCaseDetails("12345/3/2023", "TribunalulBUCURESTI");
+
+        assertThat(requestCount()).isEqualTo(2);
+    }
+
+    @Test
+    void fetchModifiedCases_searchesInstitutionByModificationRange() throws Exception {
+        responseBody = PortalResponseFixtures.withCases("100/3/2024", "200/3/2024");
+        PortalQueryService service = createService();
+
+        List<CaseDetailsDto> cases = service.fetchModifiedCases("TribunalulBUCURESTI",
+                LocalDateTime.of(2024, 4, 10, 8, 0), LocalDateTime.of(2024, 4, 11, 8, 30, 15));
+
+        assertThat(cases).extracting(CaseDetailsDto::getNumber).containsExactly("100/3/2024", "200/3/2024");
+        assertThat(cases).allSatisfy(caseDetails -> assertThat(caseDetails.getContentHash()).isNotNull());
+        assertThat(requestBodies.get(0))
+                .contains("<numarDosar/>")
+                .contains("<institutie>TribunalulBUCURESTI</institutie>")
+                .contains("<dataUltimaModificareStart>2024-04-10T08:00:00</dataUltimaModificareStart>")
+                .contains("<dataUltimaModificareStop>2024-04-11T08:30:15</dataUltimaModificareStop>");
+    }
+
+    private int requestCount() {
+        synchronized (requestBodies) {
+            return requestBodies.size();
+        }
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private PortalQueryService createService() throws Exception {
+        PortalQueryService service = new PortalQueryService();
+        ReflectionTestUtils.setField(service, "portalProperties", portalProperties);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        service.initialize();
+        return service;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        synchronized (requestBodies) {
+            requestBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            soapActions.add(exchange.getRequestHeaders().getFirst("SOAPAction"));
+        }
+        if (responseGate != null) {
+            try {
+                responseGate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+        if (status.get() != 200) {
+            body = "Server was unable to process request.".getBytes(StandardCharsets.UTF_8);
+        }
+        if (gzipResponse) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().add("Content-Type", "text/xml; charset=utf-8");
+        exchange.sendResponseHeaders(status.get(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
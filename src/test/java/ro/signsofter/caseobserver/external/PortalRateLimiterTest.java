@@ -0,0 +1,34 @@
+package ro.signsofter.caseobserver.external;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PortalRateLimiterTest {
+
+    @Test
+    void allowsBurstOfOneSecondThenSpacesRequests() throws InterruptedException {
+        PortalRateLimiter limiter = new PortalRateLimiter(20);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(limiter.tryAcquire(0, TimeUnit.MILLISECONDS)).isTrue();
+        }
+        assertThat(limiter.tryAcquire(0, TimeUnit.MILLISECONDS)).isFalse();
+
+        long start = System.nanoTime();
+        assertThat(limiter.tryAcquire(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(limiter.tryAcquire(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(60);
+    }
+
+    @Test
+    void disabledWhenRateIsNotPositive() throws InterruptedException {
+        PortalRateLimiter limiter = new PortalRateLimiter(0);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(limiter.tryAcquire(0, TimeUnit.MILLISECONDS)).isTrue();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ro.signsofter.caseobserver.external;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Recorded CautareDosare SOAP responses used by tests and benchmarks.
+ */
+final class PortalResponseFixtures {
+
+    static final String RECORDED_RESPONSE = "/portal/cautare-dosare-response.xml";
+
+    private PortalResponseFixtures() {
+    }
+
+    static String recorded() {
+        try (InputStream in = PortalResponseFixtures.class.getResourceAsStream(RECORDED_RESPONSE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + RECORDED_RESPONSE);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The recorded response with its first hearing repeated until the case has {@code hearingCount} hearings.
+     */
+    static String withHearings(int hearingCount) {
+        String recorded = recorded();
+        int start = recorded.indexOf("<DosarSedinta>");
+        int end = recorded.indexOf("</sedinte>");
+        String hearing = recorded.substring(start, recorded.indexOf("</DosarSedinta>") + "</DosarSedinta>".length());
+
+        StringBuilder hearings = new StringBuilder(hearing.length() * hearingCount);
+        for (int i = 0; i < hearingCount; i++) {
+            int day = 1 + (i % 28);
+            hearings.append(hearing.replace("2024-01-15T00:00:00",
+                    String.format("%04d-%02d-%02dT00:00:00", 2000 + i / 336, 1 + (i / 28) % 12, day)));
+        }
+        return recorded.substring(0, start) + hearings + recorded.substring(end);
+    }
+
+    /**
+     * The recorded response with its case repeated once per case number, as a search matching several cases returns.
+     */
+    static String withCases(String... caseNumbers) {
+        String recorded = recorded();
+        int start = recorded.indexOf("<Dosar>");
+        int end = recorded.indexOf("</Dosar>") + "</Dosar>".length();
+        String caseElement = recorded.substring(start, end);
+
+        StringBuilder cases = new StringBuilder();
+        for (String caseNumber : caseNumbers) {
+            cases.append(caseElement.replace("<numar>12345/3/2023</numar>", "<numar>" + caseNumber + "</numar>"));
+        }
+        return recorded.substring(0, start) + cases + recorded.substring(end);
+    }
+}
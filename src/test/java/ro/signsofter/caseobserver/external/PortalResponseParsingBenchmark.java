@@ -0,0 +1,63 @@
+package ro.signsofter.caseobserver.external;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Unmarshaller;
+import org.openjdk.jmh.annotations.*;
+import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
+import ro.signsofter.caseobserver.external.dto.caseResponse.FetchCaseEnvelope;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse throughput of recorded CautareDosare responses: a JAXB context built per call over a String copy
+ * of the body (the old behaviour), the shared context with pooled unmarshallers, and the StAX parser.
+ * Both current paths read the raw bytes the way they arrive from the connection.
+ *
+ * <p>Run with ({@code -prof gc} adds allocation per operation):
+ * <pre>
+ * ./mvnw -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     org.openjdk.jmh.Main PortalResponseParsingBenchmark -t 4 -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PortalResponseParsingBenchmark {
+
+    @Param({"3", "300"})
+    private int hearings;
+
+    private byte[] soapResponse;
+
+    @Setup
+    public void setUp() {
+        soapResponse = PortalResponseFixtures.withHearings(hearings).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public CaseDetailsDto contextPerCall() throws Exception {
+        String payload = new String(soapResponse, StandardCharsets.UTF_8);
+        JAXBContext context = JAXBContext.newInstance(FetchCaseEnvelope.class);
+        Unmarshaller unmarshaller = context.createUnmarshaller();
+        FetchCaseEnvelope envelope = (FetchCaseEnvelope) unmarshaller.unmarshal(new StringReader(payload));
+        return envelope.getBody().getResponse().getResult().getCaseDetails();
+    }
+
+    @Benchmark
+    public CaseDetailsDto sharedContextPooledUnmarshaller() throws Exception {
+        FetchCaseEnvelope envelope = CaseEnvelopeUnmarshaller.unmarshal(new ByteArrayInputStream(soapResponse));
+        return envelope.getBody().getResponse().getResult().getCaseDetails();
+    }
+
+    @Benchmark
+    public CaseDetailsDto staxStreaming() throws Exception {
+        return CaseDetailsStaxParser.parse(new ByteArrayInputStream(soapResponse));
+    }
+}
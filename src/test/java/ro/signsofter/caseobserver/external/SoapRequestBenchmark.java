@@ -0,0 +1,50 @@
+package ro.signsofter.caseobserver.external;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rendering one CautareDosare request: a SAAJ message built per call against the pre-rendered template.
+ * Run with {@code -prof gc} to compare allocation per request (see {@link PortalResponseParsingBenchmark}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SoapRequestBenchmark {
+
+    private static final String CASE_NUMBER = "12345/3/2023";
+    private static final String INSTITUTION = "TribunalulBUCURESTI";
+
+    private PortalQueryService portalQueryService;
+
+    @Setup
+    public void setUp() throws Exception {
+        PortalProperties portalProperties = new PortalProperties();
+        portalProperties.setRequestTemplate(false);
+        portalQueryService = new PortalQueryService();
+        ReflectionTestUtils.setField(portalQueryService, "portalProperties", portalProperties);
+        ReflectionTestUtils.setField(portalQueryService, "meterRegistry", new SimpleMeterRegistry());
+        portalQueryService.initialize();
+    }
+
+    @Benchmark
+    public byte[] saajMessage() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        portalQueryService.writeRequest(out, CASE_NUMBER, INSTITUTION);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] template() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        CautareDosareRequestTemplate.writeTo(out, CASE_NUMBER, INSTITUTION);
+        return out.toByteArray();
+    }
+}
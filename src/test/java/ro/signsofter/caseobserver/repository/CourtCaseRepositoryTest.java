@@ -0,0 +1,170 @@
+package ro.signsofter.caseobserver.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.signsofter.caseobserver.entity.CourtCase;
+import ro.signsofter.caseobserver.entity.Hearing;
+import ro.signsofter.caseobserver.entity.Party;
+import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
+import ro.signsofter.caseobserver.external.dto.caseResponse.HearingDto;
+import ro.signsofter.caseobserver.external.dto.caseResponse.PartyDto;
+import ro.signsofter.caseobserver.service.CaseChangeDetectorService;
+import ro.signsofter.caseobserver.service.CaseChangeMerger;
+import ro.signsofter.caseobserver.service.impl.CaseChangeDetectorServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Saves a merged case the way the monitor does: the snapshot is loaded in one transaction, changed while
+ * detached and saved in another, so the collection changes have to survive the merge.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CourtCaseRepositoryTest {
+
+    @Autowired
+    private CourtCaseRepository courtCaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final CaseChangeDetectorService detector = new CaseChangeDetectorServiceImpl();
+
+    @AfterEach
+    void tearDown() {
+        courtCaseRepository.deleteAll();
+    }
+
+    @Test
+    void save_mergedChangesOnlyTouchChangedRows() {
+        Long caseId = createCase().getId();
+        CourtCase snapshot = inTransaction(() -> {
+            CourtCase courtCase = courtCaseRepository.findById(caseId).orElseThrow();
+            Hibernate.initialize(courtCase.getHearings());
+            Hibernate.initialize(courtCase.getParties());
+            return courtCase;
+        });
+        Long keptHearingId = hearingOn(snapshot, 1).getId();
+        Long updatedHearingId = hearingOn(snapshot, 2).getId();
+        Long keptPartyId = snapshot.getParties().get(0).getId();
+
+        // Portal now: hearing 1 unchanged, hearing 2 with a solution, hearing 3 gone, hearing 4 new, party replaced
+        CaseDetailsDto latest = new CaseDetailsDto();
+        latest.setProceduralStage("Apel");
+        latest.setHearings(List.of(hearingDto(1, "Amână"), hearingDto(2, "Admite"), hearingDto(4, null)));
+        latest.setParties(List.of(partyDto("Ion Popescu", "Reclamant"), partyDto("Maria Ionescu", "Intimat")));
+
+        CaseChangeDetectorService.CaseChanges changes = detector.detectChanges(snapshot, latest);
+        CaseChangeMerger.apply(snapshot, latest, changes);
+        inTransaction(() -> courtCaseRepository.save(snapshot));
+
+        CourtCase stored = inTransaction(() -> {
+            CourtCase courtCase = courtCaseRepository.findById(caseId).orElseThrow();
+            Hibernate.initialize(courtCase.getHearings());
+            Hibernate.initialize(courtCase.getParties());
+            return courtCase;
+        });
+        List<Hearing> hearings = new ArrayList<>(stored.getHearings());
+        hearings.sort(Comparator.comparing(Hearing::getHearingDate));
+        assertEquals(3, hearings.size());
+        assertEquals(keptHearingId, hearings.get(0).getId());
+        assertEquals(updatedHearingId, hearings.get(1).getId());
+        assertEquals("Admite", hearings.get(1).getSolution());
+        assertEquals(day(4), hearings.get(2).getHearingDate());
+        assertEquals("Apel", stored.getProceduralStage());
+
+        assertEquals(List.of("Ion Popescu", "Maria Ionescu"),
+                stored.getParties().stream().map(Party::getName).sorted().toList());
+        assertTrue(stored.getParties().stream().anyMatch(party -> party.getId().equals(keptPartyId)));
+
+        // Stored data now matches the portal, so the same response reports nothing
+        assertFalse(detector.detectChanges(stored, latest).hasAnyChanges());
+    }
+
+    @Test
+    void save_importsLargeCaseInBatches() {
+        CourtCase courtCase = new CourtCase();
+        courtCase.setCaseNumber("2/2024");
+        courtCase.setCourtName("TribunalulBUCURESTI");
+        for (int i = 0; i < 300; i++) {
+            Hearing hearing = CaseChangeMerger.newHearing(courtCase, hearingDto(1, "Amână"));
+            hearing.setHearingDate(hearing.getHearingDate().plusDays(i));
+            courtCase.getHearings().add(hearing);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        inTransaction(() -> courtCaseRepository.save(courtCase));
+
+        assertEquals(301, statistics.getEntityInsertCount());
+        // One insert statement per table, executed in batches of 50; IDENTITY ids needed one per row
+        assertTrue(statistics.getPrepareStatementCount() <= 5,
+                "Expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    private CourtCase createCase() {
+        CourtCase courtCase = new CourtCase();
+        courtCase.setCaseNumber("1/2024");
+        courtCase.setCourtName("TribunalulBUCURESTI");
+        courtCase.setStatus("Fond");
+        courtCase.setProceduralStage("Fond");
+        for (int day = 1; day <= 3; day++) {
+            courtCase.getHearings().add(CaseChangeMerger.newHearing(courtCase, hearingDto(day, "Amână")));
+        }
+        courtCase.getHearings().get(1).setSolution(null);
+        courtCase.getParties().add(CaseChangeMerger.newParty(courtCase, partyDto("Ion Popescu", "Reclamant")));
+        courtCase.getParties().add(CaseChangeMerger.newParty(courtCase, partyDto("Vasile Pop", "Pârât")));
+        return courtCaseRepository.save(courtCase);
+    }
+
+    private static Hearing hearingOn(CourtCase courtCase, int day) {
+        return courtCase.getHearings().stream()
+                .filter(hearing -> hearing.getHearingDate().equals(day(day)))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static HearingDto hearingDto(int day, String solution) {
+        HearingDto hearing = new HearingDto();
+        hearing.setDate(day(day).toLocalDate().toString());
+        hearing.setTime("09:00");
+        hearing.setSolution(solution);
+        return hearing;
+    }
+
+    private static PartyDto partyDto(String name, String role) {
+        PartyDto party = new PartyDto();
+        party.setName(name);
+        party.setRole(role);
+        return party;
+    }
+
+    private static LocalDateTime day(int day) {
+        return LocalDateTime.of(2024, 3, day, 9, 0);
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+}
@@ -0,0 +1,175 @@
+package ro.signsofter.caseobserver.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.signsofter.caseobserver.entity.CaseChangeEvent;
+import ro.signsofter.caseobserver.entity.CourtCase;
+import ro.signsofter.caseobserver.entity.Notification;
+import ro.signsofter.caseobserver.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pages through the notification feed with the keyset queries, including notifications sharing a sent_at,
+ * which only the id tie-break keeps apart, and selects the notifications still owed to a digest.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationRepositoryTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private CaseChangeEventRepository caseChangeEventRepository;
+
+    @Autowired
+    private CourtCaseRepository courtCaseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        caseChangeEventRepository.deleteAll();
+        courtCaseRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findFeedAfter_pagesNewestFirstWithoutGapsOrRepeats() {
+        User user = createUser("lawyer");
+        User other = createUser("other");
+        CourtCase courtCase = createCase("1/2024");
+        List<Long> expected = new ArrayList<>();
+        // Three notifications at the same instant, then two older ones
+        for (int i = 0; i < 3; i++) {
+            expected.add(createNotification(user, courtCase, now));
+        }
+        expected.sort((a, b) -> Long.compare(b, a));
+        expected.add(createNotification(user, courtCase, now.minusMinutes(1)));
+        expected.add(createNotification(user, courtCase, now.minusMinutes(2)));
+        createNotification(other, courtCase, now);
+
+        List<Long> paged = new ArrayList<>();
+        List<NotificationRepository.FeedItem> page = notificationRepository.findFeed(user.getId(), PageRequest.of(0, 2));
+        while (!page.isEmpty()) {
+            page.forEach(item -> paged.add(item.getId()));
+            NotificationRepository.FeedItem last = page.get(page.size() - 1);
+            page = notificationRepository.findFeedAfter(user.getId(), last.getSentAt(), last.getId(), PageRequest.of(0, 2));
+        }
+
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    void findCaseFeed_projectsCaseNumberForOneCase() {
+        User user = createUser("lawyer");
+        CourtCase followed = createCase("1/2024");
+        CourtCase otherCase = createCase("2/2024");
+        Long id = createNotification(user, followed, now);
+        createNotification(user, otherCase, now);
+
+        List<NotificationRepository.FeedItem> feed = notificationRepository.findCaseFeed(
+                user.getId(), followed.getId(), PageRequest.of(0, 10));
+
+        assertEquals(1, feed.size());
+        assertEquals(id, feed.get(0).getId());
+        assertEquals("1/2024", feed.get(0).getCaseNumber());
+        assertEquals("Changes detected", feed.get(0).getMessage());
+    }
+
+    @Test
+    void countByUserIdAndReadAtIsNull_countsUnreadBeyondTheFirstPage() {
+        User user = createUser("lawyer");
+        CourtCase courtCase = createCase("1/2024");
+        for (int i = 0; i < 5; i++) {
+            createNotification(user, courtCase, now.minusMinutes(i));
+        }
+        Long read = createNotification(user, courtCase, now.minusMinutes(10));
+        jdbcTemplate.update("UPDATE \"notification\" SET \"read_at\" = ? WHERE \"id\" = ?", now, read);
+        createNotification(createUser("other"), courtCase, now);
+
+        assertEquals(5, notificationRepository.countByUserIdAndReadAtIsNull(user.getId()));
+    }
+
+    @Test
+    void findPendingDigest_keepsNotificationsOfUserWhoSwitchedToImmediateDelivery() {
+        User user = createUser("lawyer");
+        user.setDigestMode(User.DigestMode.HOURLY);
+        userRepository.save(user);
+        CourtCase courtCase = createCase("1/2024");
+        Long id = createNotification(user, courtCase, now);
+        jdbcTemplate.update("UPDATE \"notification\" SET \"digest_email\" = TRUE WHERE \"id\" = ?", id);
+        user = userRepository.findById(user.getId()).orElseThrow();
+        user.setDigestMode(User.DigestMode.IMMEDIATE);
+        userRepository.save(user);
+
+        List<Long> hourly = inTransaction(() -> notificationRepository.findPendingDigest(
+                EnumSet.of(User.DigestMode.HOURLY, User.DigestMode.IMMEDIATE), PageRequest.of(0, 10))
+                .stream().map(Notification::getId).toList());
+        List<Notification> daily = inTransaction(() -> notificationRepository.findPendingDigest(
+                EnumSet.of(User.DigestMode.DAILY), PageRequest.of(0, 10)));
+
+        assertEquals(List.of(id), hourly);
+        assertTrue(daily.isEmpty());
+    }
+
+    private User createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+
+    private CourtCase createCase(String caseNumber) {
+        CourtCase courtCase = new CourtCase();
+        courtCase.setCaseNumber(caseNumber);
+        return courtCaseRepository.save(courtCase);
+    }
+
+    private Long createNotification(User user, CourtCase courtCase, LocalDateTime sentAt) {
+        CaseChangeEvent event = new CaseChangeEvent();
+        event.setCourtCase(courtCase);
+        event.setMessage("Changes detected");
+        caseChangeEventRepository.save(event);
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setCourtCase(courtCase);
+        notification.setEvent(event);
+        Long id = notificationRepository.save(notification).getId();
+        // sent_at is stamped on insert; pin it to build ties
+        jdbcTemplate.update("UPDATE \"notification\" SET \"sent_at\" = ? WHERE \"id\" = ?", sentAt, id);
+        return id;
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+}
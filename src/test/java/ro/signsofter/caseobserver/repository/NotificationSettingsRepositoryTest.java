@@ -0,0 +1,129 @@
+package ro.signsofter.caseobserver.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.signsofter.caseobserver.entity.CourtCase;
+import ro.signsofter.caseobserver.entity.NotificationSettings;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the lease claim query against H2, with each claim in its own transaction.
+ * H2 has no SKIP LOCKED, so only the lease filtering is covered here; skipping rows locked
+ * by an in-flight claim is left to MySQL.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationSettingsRepositoryTest {
+
+    @Autowired
+    private NotificationSettingsRepository notificationSettingsRepository;
+
+    @Autowired
+    private CourtCaseRepository courtCaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @AfterEach
+    void tearDown() {
+        notificationSettingsRepository.deleteAll();
+        courtCaseRepository.deleteAll();
+    }
+
+    @Test
+    void findClaimableSettings_skipsFutureLeasedAndDisabledCases() {
+        NotificationSettings due = createSettings("1/2024", true, now.minusMinutes(5));
+        NotificationSettings expiredLease = createSettings("2/2024", true, now.minusMinutes(5));
+        expiredLease.claim("crashed-node", now.minusMinutes(1));
+        notificationSettingsRepository.save(expiredLease);
+        NotificationSettings liveLease = createSettings("3/2024", true, now.minusMinutes(5));
+        liveLease.claim("other-node", now.plusMinutes(5));
+        notificationSettingsRepository.save(liveLease);
+        createSettings("4/2024", true, now.plusMinutes(5));
+        createSettings("5/2024", false, now.minusMinutes(5));
+
+        List<String> claimable = inTransaction(() -> notificationSettingsRepository
+                .findClaimableSettings(now, PageRequest.of(0, 10)).stream()
+                .map(settings -> settings.getCourtCase().getCaseNumber())
+                .toList());
+
+        assertEquals(List.of(due.getCourtCase().getCaseNumber(), expiredLease.getCourtCase().getCaseNumber()),
+                claimable.stream().sorted().toList());
+    }
+
+    @Test
+    void findClaimableSettings_committedClaimsAreNotHandedOutAgain() {
+        for (int i = 0; i < 4; i++) {
+            createSettings(i + "/2024", true, now.minusMinutes(10 - i));
+        }
+
+        List<Long> first = inTransaction(() -> claim("node-a"));
+        List<Long> second = inTransaction(() -> claim("node-b"));
+        List<Long> third = inTransaction(() -> claim("node-c"));
+
+        assertEquals(2, first.size());
+        assertEquals(2, second.size());
+        assertTrue(second.stream().noneMatch(first::contains));
+        assertTrue(third.isEmpty());
+    }
+
+    @Test
+    void claimCase_onlyOneClaimerWinsTheLease() {
+        NotificationSettings due = createSettings("1/2024", true, now.minusMinutes(5));
+        NotificationSettings notDue = createSettings("2/2024", true, now.plusMinutes(5));
+        Long dueCaseId = due.getCourtCase().getId();
+
+        int first = inTransaction(() -> notificationSettingsRepository.claimCase(dueCaseId, "node-a", now.plusMinutes(10), now));
+        int second = inTransaction(() -> notificationSettingsRepository.claimCase(dueCaseId, "node-b", now.plusMinutes(10), now));
+        int early = inTransaction(() -> notificationSettingsRepository.claimCase(
+                notDue.getCourtCase().getId(), "node-a", now.plusMinutes(10), now));
+
+        assertEquals(1, first);
+        assertEquals(0, second);
+        assertEquals(0, early);
+        NotificationSettings claimed = notificationSettingsRepository.findById(due.getId()).orElseThrow();
+        assertEquals("node-a", claimed.getClaimedBy());
+        assertEquals(due.getVersion() + 1, claimed.getVersion());
+    }
+
+    private List<Long> claim(String nodeId) {
+        List<NotificationSettings> batch = notificationSettingsRepository.findClaimableSettings(now, PageRequest.of(0, 2));
+        batch.forEach(settings -> settings.claim(nodeId, now.plusMinutes(10)));
+        return notificationSettingsRepository.saveAll(batch).stream()
+                .map(NotificationSettings::getId)
+                .toList();
+    }
+
+    private NotificationSettings createSettings(String caseNumber, boolean monitoringEnabled, LocalDateTime nextCheckAt) {
+        CourtCase courtCase = new CourtCase();
+        courtCase.setCaseNumber(caseNumber);
+        courtCase.setCourtName("TribunalulBUCURESTI");
+        courtCase.setMonitoringEnabled(monitoringEnabled);
+        courtCase = courtCaseRepository.save(courtCase);
+
+        NotificationSettings settings = new NotificationSettings();
+        settings.setCourtCase(courtCase);
+        settings.setNextCheckAt(nextCheckAt);
+        return notificationSettingsRepository.save(settings);
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+}
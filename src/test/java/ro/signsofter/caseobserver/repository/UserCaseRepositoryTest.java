@@ -0,0 +1,169 @@
+package ro.signsofter.caseobserver.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ro.signsofter.caseobserver.entity.CourtCase;
+import ro.signsofter.caseobserver.entity.Hearing;
+import ro.signsofter.caseobserver.entity.User;
+import ro.signsofter.caseobserver.entity.UserCase;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lists a user's cases a page at a time through the summary rows, which must not load the cases or their collections.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserCaseRepositoryTest {
+
+    private static final UserCaseRepositoryCustom.CaseFilter NO_FILTER =
+            new UserCaseRepositoryCustom.CaseFilter(null, null, null, null);
+
+    @Autowired
+    private UserCaseRepository userCaseRepository;
+
+    @Autowired
+    private CourtCaseRepository courtCaseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        userCaseRepository.deleteAll();
+        courtCaseRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findCaseSummaryPage_listsCasesInOneQuery() {
+        User user = createUser("lawyer");
+        for (int i = 1; i <= 5; i++) {
+            follow(user, createCase(i + "/2024", "Fond"));
+        }
+        follow(createUser("other"), createCase("9/2024", "Fond"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<UserCaseRepository.CaseSummary> summaries =
+                userCaseRepository.findCaseSummaryPage("lawyer", NO_FILTER, CaseSort.CASE_NUMBER, null, null, 10);
+
+        assertEquals(List.of("1/2024", "2/2024", "3/2024", "4/2024", "5/2024"),
+                summaries.stream().map(UserCaseRepository.CaseSummary::getCaseNumber).toList());
+        assertEquals(1L, summaries.get(0).getHearingCount());
+        assertEquals(0L, summaries.get(0).getPartyCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+    }
+
+    @Test
+    void findCaseSummaryPage_appliesSearchAndStatus() {
+        User user = createUser("lawyer");
+        follow(user, createCase("1/2024", "Fond"));
+        follow(user, createCase("2/2024", "Apel"));
+        follow(user, createCase("3/2025", "Apel"));
+        UserCaseRepositoryCustom.CaseFilter filter = new UserCaseRepositoryCustom.CaseFilter("2024", "Apel", null, "");
+
+        List<UserCaseRepository.CaseSummary> summaries =
+                userCaseRepository.findCaseSummaryPage("lawyer", filter, CaseSort.LAST_UPDATED, null, null, 10);
+
+        assertEquals(1, summaries.size());
+        assertEquals("2/2024", summaries.get(0).getCaseNumber());
+        assertEquals("Apel", summaries.get(0).getStatus());
+        assertEquals(1, userCaseRepository.countCases("lawyer", filter));
+    }
+
+    @Test
+    void findCaseSummaryPage_pagesAfterTheLastCase_withCasesWithoutStatusLast() {
+        User user = createUser("lawyer");
+        CourtCase undated = createCase("1/2024", null);
+        CourtCase fond = createCase("2/2024", "Fond");
+        CourtCase firstApel = createCase("3/2024", "Apel");
+        CourtCase secondUndated = createCase("4/2024", null);
+        CourtCase secondApel = createCase("5/2024", "Apel");
+        List.of(undated, fond, firstApel, secondUndated, secondApel).forEach(courtCase -> follow(user, courtCase));
+
+        List<Long> listed = new ArrayList<>();
+        String afterKey = null;
+        Long afterId = null;
+        List<UserCaseRepository.CaseSummary> page;
+        do {
+            page = userCaseRepository.findCaseSummaryPage("lawyer", NO_FILTER, CaseSort.STATUS, afterKey, afterId, 2);
+            page.forEach(summary -> listed.add(summary.getId()));
+            if (!page.isEmpty()) {
+                afterKey = page.get(page.size() - 1).getStatus();
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 2);
+
+        assertEquals(List.of(firstApel.getId(), secondApel.getId(), fond.getId(), undated.getId(), secondUndated.getId()),
+                listed);
+        assertEquals(5, userCaseRepository.countCases("lawyer", NO_FILTER));
+    }
+
+    @Test
+    void findCaseSummaryPage_matchesLikeWildcardsInSearchLiterally() {
+        User user = createUser("lawyer");
+        for (String caseNumber : List.of("1_2/2024", "112/2024", "50%/2024", "500/2024", "7\\8/2024", "78/2024")) {
+            follow(user, createCase(caseNumber, "Fond"));
+        }
+
+        assertEquals(List.of("1_2/2024"), searchCaseNumbers("1_2"));
+        assertEquals(List.of("50%/2024"), searchCaseNumbers("50%"));
+        assertEquals(List.of("7\\8/2024"), searchCaseNumbers("7\\8"));
+        assertEquals(1, userCaseRepository.countCases("lawyer",
+                new UserCaseRepositoryCustom.CaseFilter("50%", null, null, null)));
+    }
+
+    private List<String> searchCaseNumbers(String search) {
+        UserCaseRepositoryCustom.CaseFilter filter = new UserCaseRepositoryCustom.CaseFilter(search, null, null, null);
+        return userCaseRepository.findCaseSummaryPage("lawyer", filter, CaseSort.CASE_NUMBER, null, null, 10).stream()
+                .map(UserCaseRepository.CaseSummary::getCaseNumber)
+                .toList();
+    }
+
+    private User createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        return userRepository.save(user);
+    }
+
+    private CourtCase createCase(String caseNumber, String status) {
+        CourtCase courtCase = new CourtCase();
+        courtCase.setCaseNumber(caseNumber);
+        courtCase.setCourtName("TribunalulBUCURESTI");
+        courtCase.setStatus(status);
+        Hearing hearing = new Hearing();
+        hearing.setCourtCase(courtCase);
+        hearing.setHearingDate(LocalDateTime.of(2025, 3, 1, 9, 0));
+        hearing.setPronouncementDate(hearing.getHearingDate());
+        courtCase.getHearings().add(hearing);
+        return courtCaseRepository.save(courtCase);
+    }
+
+    private void follow(User user, CourtCase courtCase) {
+        UserCase userCase = new UserCase();
+        userCase.setUser(user);
+        userCase.setCourtCase(courtCase);
+        userCaseRepository.save(userCase);
+    }
+}
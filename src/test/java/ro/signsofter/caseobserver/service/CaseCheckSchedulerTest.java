@@ -0,0 +1,58 @@
+package ro.signsofter.caseobserver.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaseCheckSchedulerTest {
+
+    private CaseCheckScheduler scheduler;
+    private LinkedBlockingQueue<Long> fired;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new CaseCheckScheduler();
+        fired = new LinkedBlockingQueue<>();
+        scheduler.onDue(fired::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void schedule_firesOverdueCaseImmediatelyAndForgetsIt() throws InterruptedException {
+        scheduler.schedule(1L, LocalDateTime.now().minusMinutes(1));
+
+        assertEquals(1L, fired.poll(5, TimeUnit.SECONDS));
+        assertTrue(scheduler.scheduledCaseIds().isEmpty());
+    }
+
+    @Test
+    void schedule_replacesPendingTimerOfTheSameCase() throws InterruptedException {
+        scheduler.schedule(1L, LocalDateTime.now().plusHours(1));
+        scheduler.schedule(2L, LocalDateTime.now().plusHours(1));
+        scheduler.schedule(1L, LocalDateTime.now().plusNanos(50_000_000));
+
+        assertEquals(1L, fired.poll(5, TimeUnit.SECONDS));
+        assertNull(fired.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(Set.of(2L), scheduler.scheduledCaseIds());
+    }
+
+    @Test
+    void cancel_preventsTimerFromFiring() throws InterruptedException {
+        scheduler.schedule(1L, LocalDateTime.now().plusNanos(100_000_000));
+        scheduler.cancel(1L);
+
+        assertNull(fired.poll(300, TimeUnit.MILLISECONDS));
+        assertTrue(scheduler.scheduledCaseIds().isEmpty());
+    }
+}
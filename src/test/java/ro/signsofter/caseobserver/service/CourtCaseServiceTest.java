@@ -10,19 +10,22 @@ import ro.signsofter.caseobserver.controller.dto.CreateCaseRequestDto;
 import ro.signsofter.caseobserver.entity.CourtCase;
 import ro.signsofter.caseobserver.entity.Hearing;
 import ro.signsofter.caseobserver.entity.Party;
-import ro.signsofter.caseobserver.entity.UserCase;
 import ro.signsofter.caseobserver.exception.portal.PortalQueryException;
 import ro.signsofter.caseobserver.external.PortalQueryService;
 import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
 import ro.signsofter.caseobserver.external.dto.caseResponse.HearingDto;
 import ro.signsofter.caseobserver.external.dto.caseResponse.PartyDto;
+import ro.signsofter.caseobserver.repository.CaseSort;
 import ro.signsofter.caseobserver.repository.CourtCaseRepository;
 import ro.signsofter.caseobserver.repository.UserCaseRepository;
+import ro.signsofter.caseobserver.repository.UserCaseRepositoryCustom;
 import ro.signsofter.caseobserver.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,6 +48,8 @@ class CourtCaseServiceTest {
         hearingDto.setSolution("Amana");
         hearingDto.setSummary("Short summary");
         hearingDto.setJudicialPanel("Panel 1");
+        HearingDto undatedHearingDto = new HearingDto();
+        undatedHearingDto.setSolution("Pending");
 
         PartyDto partyDto = new PartyDto();
         partyDto.setName("John Doe");
@@ -57,7 +62,7 @@ class CourtCaseServiceTest {
         details.setCaseCategory("Civil");
         details.setDepartment("Civil");
         details.setSubject("Litigiu");
-        details.setHearings(List.of(hearingDto));
+        details.setHearings(List.of(hearingDto, undatedHearingDto));
         details.setParties(List.of(partyDto));
 
         when(portalQueryService.fetchCaseDetails(anyString(), anyString())).thenReturn(details);
@@ -80,6 +85,7 @@ class CourtCaseServiceTest {
         assertThat(saved.getDepartment()).isEqualTo("Civil");
         assertThat(saved.getSubject()).isEqualTo("Litigiu");
 
+        // The undated hearing is not stored
         assertThat(saved.getHearings()).hasSize(1);
         Hearing h = saved.getHearings().get(0);
         assertThat(h.getJudicialPanel()).isEqualTo("Panel 1");
@@ -100,53 +106,62 @@ class CourtCaseServiceTest {
     }
 
     @Test
-    void getCasesForUser_returnsUserCases() {
+    void getCasePage_returnsFirstPage_withNextCursorAndTotalCount() {
         // Arrange
-        String username = "testuser";
-        
-        CourtCase case1 = new CourtCase();
-        case1.setId(1L);
-        case1.setCaseNumber("12345/2025");
-        case1.setCourtName("TRIBUNALUL BUCURESTI");
-        
-        CourtCase case2 = new CourtCase();
-        case2.setId(2L);
-        case2.setCaseNumber("67890/2025");
-        case2.setCourtName("TRIBUNALUL CLUJ");
-        
-        UserCase userCase1 = new UserCase();
-        userCase1.setCourtCase(case1);
-        
-        UserCase userCase2 = new UserCase();
-        userCase2.setCourtCase(case2);
-        
-        List<UserCase> userCases = List.of(userCase1, userCase2);
-        
-        when(userCaseRepository.findByUserUsername(username)).thenReturn(userCases);
-        
+        UserCaseRepository.CaseSummary newest = caseSummary(3L, "3/2025", LocalDateTime.of(2025, 3, 1, 10, 0));
+        UserCaseRepository.CaseSummary newer = caseSummary(2L, "2/2025", LocalDateTime.of(2025, 2, 1, 10, 0));
+        UserCaseRepository.CaseSummary older = caseSummary(1L, "1/2025", LocalDateTime.of(2025, 1, 1, 10, 0));
+        UserCaseRepositoryCustom.CaseFilter filter = new UserCaseRepositoryCustom.CaseFilter("2025", null, null, null);
+        when(userCaseRepository.findCaseSummaryPage("testuser", filter, CaseSort.LAST_UPDATED, null, null, 3))
+                .thenReturn(List.of(newest, newer, older));
+        when(userCaseRepository.countCases("testuser", filter)).thenReturn(7L);
+
         // Act
-        List<CourtCase> result = courtCaseService.getCasesForUser(username);
-        
+        CourtCaseService.CasePage page =
+                courtCaseService.getCasePage("testuser", "2025", null, null, null, null, null, 2);
+
         // Assert
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getCaseNumber()).isEqualTo("12345/2025");
-        assertThat(result.get(1).getCaseNumber()).isEqualTo("67890/2025");
-        
-        verify(userCaseRepository).findByUserUsername(username);
+        assertThat(page.cases()).containsExactly(newest, newer);
+        assertThat(page.totalCount()).isEqualTo(7L);
+        assertThat(CaseListCursor.decode(page.nextCursor(), CaseSort.LAST_UPDATED))
+                .isEqualTo(new CaseListCursor(CaseSort.LAST_UPDATED, "2025-02-01T10:00", 2L));
     }
 
     @Test
-    void getCasesForUser_returnsEmptyList_whenUserHasNoCases() {
+    void getCasePage_continuesAfterCursor_withoutCountingAgain() {
         // Arrange
-        String username = "testuser";
-        when(userCaseRepository.findByUserUsername(username)).thenReturn(List.of());
-        
+        UserCaseRepository.CaseSummary apel = caseSummary(4L, "4/2025", null);
+        UserCaseRepositoryCustom.CaseFilter filter = new UserCaseRepositoryCustom.CaseFilter(null, null, true, null);
+        String cursor = new CaseListCursor(CaseSort.STATUS, "Apel", 2L).encode();
+        when(userCaseRepository.findCaseSummaryPage("testuser", filter, CaseSort.STATUS, "Apel", 2L, 51))
+                .thenReturn(List.of(apel));
+
         // Act
-        List<CourtCase> result = courtCaseService.getCasesForUser(username);
-        
+        CourtCaseService.CasePage page =
+                courtCaseService.getCasePage("testuser", null, null, true, null, "status", cursor, 50);
+
         // Assert
-        assertThat(result).isEmpty();
-        verify(userCaseRepository).findByUserUsername(username);
+        assertThat(page.cases()).containsExactly(apel);
+        assertThat(page.nextCursor()).isNull();
+        assertThat(page.totalCount()).isNull();
+        verify(userCaseRepository, never()).countCases(anyString(), any());
+    }
+
+    @Test
+    void getCasePage_rejectsCursorOfAnotherSort() {
+        String cursor = new CaseListCursor(CaseSort.STATUS, "Apel", 2L).encode();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> courtCaseService.getCasePage("testuser", null, null, null, null, "caseNumber", cursor, 50));
+        verifyNoInteractions(userCaseRepository);
+    }
+
+    private static UserCaseRepository.CaseSummary caseSummary(Long id, String caseNumber, LocalDateTime lastUpdated) {
+        UserCaseRepository.CaseSummary summary = mock(UserCaseRepository.CaseSummary.class);
+        lenient().when(summary.getId()).thenReturn(id);
+        lenient().when(summary.getCaseNumber()).thenReturn(caseNumber);
+        lenient().when(summary.getLastUpdated()).thenReturn(lastUpdated);
+        return summary;
     }
 }
 
@@ -0,0 +1,196 @@
+package ro.signsofter.caseobserver.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ro.signsofter.caseobserver.config.NotificationProperties;
+import ro.signsofter.caseobserver.entity.CaseChangeEvent;
+import ro.signsofter.caseobserver.entity.CourtCase;
+import ro.signsofter.caseobserver.entity.Notification;
+import ro.signsofter.caseobserver.entity.User;
+import ro.signsofter.caseobserver.repository.NotificationRepository;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationBroadcasterTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Spy
+    private NotificationProperties notificationProperties = new NotificationProperties();
+
+    @InjectMocks
+    private NotificationBroadcaster notificationBroadcaster;
+
+    @BeforeEach
+    void setUp() {
+        notificationBroadcaster.startStreamExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationBroadcaster.stopStreamExecutor();
+    }
+
+    @Test
+    void publish_pushesToTheUsersOwnStreams() throws Exception {
+        RecordingEmitter subscriber = new RecordingEmitter(1);
+        RecordingEmitter otherUser = new RecordingEmitter(1);
+        notificationBroadcaster.register(1L, subscriber);
+        notificationBroadcaster.register(2L, otherUser);
+
+        notificationBroadcaster.publish(List.of(notification(10L, 1L)));
+
+        assertTrue(subscriber.sent.await(5, TimeUnit.SECONDS));
+        assertEquals(1, subscriber.events.size());
+        assertEquals(0, otherUser.events.size());
+    }
+
+    @Test
+    void publish_dropsStreamsThatFail() throws Exception {
+        RecordingEmitter broken = new RecordingEmitter(1) {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                super.send(builder);
+                throw new IOException("Broken pipe");
+            }
+        };
+        notificationBroadcaster.register(1L, broken);
+
+        notificationBroadcaster.publish(List.of(notification(10L, 1L)));
+
+        assertTrue(broken.sent.await(5, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (notificationBroadcaster.connectionCount(1L) > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, notificationBroadcaster.connectionCount(1L));
+    }
+
+    @Test
+    void publish_slowStreamDoesNotHoldUpOtherUsers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new BlockingEmitter(release);
+        RecordingEmitter other = new RecordingEmitter(1);
+        notificationBroadcaster.register(1L, slow);
+        notificationBroadcaster.register(2L, other);
+
+        try {
+            notificationBroadcaster.publish(List.of(notification(10L, 1L)));
+            assertTrue(slow.sent.await(5, TimeUnit.SECONDS));
+            notificationBroadcaster.publish(List.of(notification(11L, 2L)));
+
+            assertTrue(other.sent.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void publish_closesStreamThatFallsTooFarBehind() throws Exception {
+        notificationProperties.setStreamMaxPendingEvents(2);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new BlockingEmitter(release);
+        notificationBroadcaster.register(1L, slow);
+
+        try {
+            notificationBroadcaster.publish(List.of(notification(10L, 1L)));
+            assertTrue(slow.sent.await(5, TimeUnit.SECONDS));
+            for (long id = 11; id <= 13; id++) {
+                notificationBroadcaster.publish(List.of(notification(id, 1L)));
+            }
+
+            assertEquals(0, notificationBroadcaster.connectionCount(1L));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void subscribe_replaysNotificationsSinceLastEventId() {
+        NotificationCursor lastSeen = new NotificationCursor(LocalDateTime.of(2025, 3, 1, 10, 0), 42L);
+
+        notificationBroadcaster.subscribe(1L, lastSeen.encode());
+
+        verify(notificationRepository).findFeedSince(eq(1L), eq(lastSeen.sentAt()), eq(42L), any());
+        assertEquals(1, notificationBroadcaster.connectionCount(1L));
+    }
+
+    @Test
+    void subscribe_ignoresUnknownLastEventId() {
+        notificationBroadcaster.subscribe(1L, "not-a-cursor!");
+
+        verifyNoInteractions(notificationRepository);
+        assertEquals(1, notificationBroadcaster.connectionCount(1L));
+    }
+
+    private static Notification notification(Long id, Long userId) {
+        User user = new User();
+        user.setId(userId);
+        CourtCase courtCase = new CourtCase();
+        courtCase.setId(5L);
+        courtCase.setCaseNumber("12345/2025");
+        CaseChangeEvent event = new CaseChangeEvent();
+        event.setMessage("Changes detected");
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setUser(user);
+        notification.setCourtCase(courtCase);
+        notification.setEvent(event);
+        notification.setSentAt(LocalDateTime.now());
+        return notification;
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        final List<SseEventBuilder> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch sent;
+
+        RecordingEmitter(int expected) {
+            this.sent = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            events.add(builder);
+            sent.countDown();
+        }
+    }
+
+    // Holds the sending thread until released, like a client that stopped reading
+    private static class BlockingEmitter extends RecordingEmitter {
+        private final CountDownLatch release;
+
+        BlockingEmitter(CountDownLatch release) {
+            super(1);
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            super.send(builder);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
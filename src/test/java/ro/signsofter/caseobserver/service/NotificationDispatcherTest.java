@@ -0,0 +1,110 @@
+package ro.signsofter.caseobserver.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ro.signsofter.caseobserver.config.MonitoringProperties;
+import ro.signsofter.caseobserver.config.NotificationProperties;
+import ro.signsofter.caseobserver.entity.CaseChangeEvent;
+import ro.signsofter.caseobserver.entity.Notification;
+import ro.signsofter.caseobserver.entity.NotificationOutbox;
+import ro.signsofter.caseobserver.repository.NotificationOutboxRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+    @Mock
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private NotificationProperties notificationProperties = new NotificationProperties();
+
+    @Spy
+    private MonitoringProperties monitoringProperties = new MonitoringProperties();
+
+    @InjectMocks
+    private NotificationDispatcher notificationDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        notificationDispatcher.startDispatchExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationDispatcher.stopDispatchExecutor();
+    }
+
+    @Test
+    void dispatchPending_deliversClaimedMessagesOffTheCallingThread() {
+        NotificationOutbox first = outboxMessage(1L);
+        NotificationOutbox second = outboxMessage(2L);
+        when(notificationOutboxRepository.findClaimable(any(LocalDateTime.class), any())).thenReturn(List.of(first, second));
+        when(notificationOutboxRepository.findWithEventByIdIn(List.of(1L, 2L))).thenReturn(List.of(first, second));
+
+        notificationDispatcher.dispatchPending();
+
+        verify(notificationService, timeout(2000)).deliver(first);
+        verify(notificationService, timeout(2000)).deliver(second);
+        verify(notificationOutboxRepository, timeout(2000).times(2)).save(argThat(message ->
+                message.getStatus() == NotificationOutbox.Status.SENT));
+    }
+
+    @Test
+    void deliver_schedulesRetryWhenTheProviderFails() {
+        NotificationOutbox message = outboxMessage(1L);
+        doThrow(new IllegalStateException("SMTP timeout")).when(notificationService).deliver(message);
+        LocalDateTime before = LocalDateTime.now();
+
+        notificationDispatcher.deliver(message);
+
+        assertEquals(NotificationOutbox.Status.PENDING, message.getStatus());
+        assertEquals(1, message.getAttempts().intValue());
+        assertEquals("SMTP timeout", message.getLastError());
+        assertFalse(message.getNextAttemptAt().isBefore(before.plus(notificationProperties.getRetryBackoff())));
+        verify(notificationOutboxRepository).save(message);
+    }
+
+    @Test
+    void dispatchPending_doesNothingWhenDisabled() {
+        notificationProperties.setDispatchEnabled(false);
+
+        notificationDispatcher.dispatchPending();
+
+        verifyNoInteractions(notificationOutboxRepository, notificationService);
+    }
+
+    private static NotificationOutbox outboxMessage(Long id) {
+        NotificationOutbox message = new NotificationOutbox();
+        message.setId(id);
+        message.setChannel(NotificationOutbox.Channel.EMAIL);
+        message.setRecipient("user@example.com");
+        CaseChangeEvent event = new CaseChangeEvent();
+        event.setSubject("Case Update");
+        event.setMessage("Changes detected");
+        Notification notification = new Notification();
+        notification.setEvent(event);
+        message.setNotification(notification);
+        message.setNextAttemptAt(LocalDateTime.now());
+        return message;
+    }
+}
@@ -0,0 +1,124 @@
+package ro.signsofter.caseobserver.service.impl;
+
+import org.openjdk.jmh.annotations.*;
+import ro.signsofter.caseobserver.entity.CourtCase;
+import ro.signsofter.caseobserver.entity.Hearing;
+import ro.signsofter.caseobserver.entity.Party;
+import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
+import ro.signsofter.caseobserver.external.dto.caseResponse.HearingDto;
+import ro.signsofter.caseobserver.external.dto.caseResponse.PartyDto;
+import ro.signsofter.caseobserver.service.CaseChangeDetectorService;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Change detection throughput for a stored case against a freshly fetched copy: one where nothing changed
+ * (the common outcome of a check) and one with a hearing updated, one added and a party replaced.
+ *
+ * <p>Run with ({@code -prof gc} adds allocation per operation):
+ * <pre>
+ * ./mvnw -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     org.openjdk.jmh.Main CaseChangeDetectorBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CaseChangeDetectorBenchmark {
+
+    private static final String[] ROLES = {"Reclamant", "Pârât", "Intervenient", "Creditor", "Debitor"};
+
+    @Param({"10", "100", "1000"})
+    private int hearings;
+
+    private final CaseChangeDetectorServiceImpl detector = new CaseChangeDetectorServiceImpl();
+
+    private CourtCase storedCase;
+
+    private CaseDetailsDto unchanged;
+
+    private CaseDetailsDto changed;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime first = LocalDateTime.of(2020, 1, 6, 9, 0);
+        int parties = Math.max(2, hearings / 10);
+
+        storedCase = new CourtCase();
+        storedCase.setProceduralStage("Fond");
+        storedCase.setStatus("Fond");
+        List<Hearing> storedHearings = new ArrayList<>();
+        for (int i = 0; i < hearings; i++) {
+            Hearing hearing = new Hearing();
+            hearing.setHearingDate(first.plusDays(7L * i));
+            hearing.setSolution("Amână cauza");
+            hearing.setDescription("Termen " + i);
+            hearing.setJudicialPanel("C" + (i % 5));
+            storedHearings.add(hearing);
+        }
+        storedCase.setHearings(storedHearings);
+        List<Party> storedParties = new ArrayList<>();
+        for (int i = 0; i < parties; i++) {
+            Party party = new Party();
+            party.setName("Parte " + i);
+            party.setRole(ROLES[i % ROLES.length]);
+            storedParties.add(party);
+        }
+        storedCase.setParties(storedParties);
+
+        unchanged = fetchedCopy();
+        changed = fetchedCopy();
+        changed.getHearings().get(hearings / 2).setSolution("Admite cererea");
+        HearingDto added = new HearingDto();
+        added.setDate(first.plusDays(7L * hearings).toLocalDate().toString());
+        added.setTime("09:00");
+        added.setSolution("");
+        changed.getHearings().add(added);
+        changed.getParties().get(0).setName("Parte nouă");
+    }
+
+    @Benchmark
+    public CaseChangeDetectorService.CaseChanges unchanged() {
+        return detector.detectChanges(storedCase, unchanged);
+    }
+
+    @Benchmark
+    public CaseChangeDetectorService.CaseChanges changed() {
+        return detector.detectChanges(storedCase, changed);
+    }
+
+    private CaseDetailsDto fetchedCopy() {
+        DateTimeFormatter time = DateTimeFormatter.ofPattern("HH:mm");
+        CaseDetailsDto details = new CaseDetailsDto();
+        details.setProceduralStage(storedCase.getProceduralStage());
+        List<HearingDto> fetchedHearings = new ArrayList<>();
+        for (Hearing hearing : storedCase.getHearings()) {
+            HearingDto dto = new HearingDto();
+            dto.setDate(hearing.getHearingDate().toLocalDate().toString());
+            dto.setTime(hearing.getHearingDate().format(time));
+            dto.setSolution(hearing.getSolution());
+            dto.setSummary(hearing.getDescription());
+            dto.setJudicialPanel(hearing.getJudicialPanel());
+            fetchedHearings.add(dto);
+        }
+        details.setHearings(fetchedHearings);
+        List<PartyDto> fetchedParties = new ArrayList<>();
+        for (Party party : storedCase.getParties()) {
+            PartyDto dto = new PartyDto();
+            dto.setName(party.getName());
+            // Fresh strings, as they come out of the parser
+            dto.setRole(new String(party.getRole()));
+            fetchedParties.add(dto);
+        }
+        details.setParties(fetchedParties);
+        return details;
+    }
+}
@@ -339,4 +339,58 @@ class CaseChangeDetectorServiceImplTest {
                 .anyMatch(h -> "ADDED".equals(h.getType()));
         assertTrue(hasAddedHearing);
     }
+
+    @Test
+    void testDetectChanges_UndatedHearingsAreStable() {
+        // Given
+        Hearing undatedHearing = new Hearing();
+        undatedHearing.setSolution("Pending");
+        existingCase.setHearings(Arrays.asList(existingCase.getHearings().get(0), undatedHearing));
+
+        HearingDto unparseableHearing = new HearingDto();
+        unparseableHearing.setDate("");
+        unparseableHearing.setTime("");
+        unparseableHearing.setSolution("Pending");
+        newData.setHearings(Arrays.asList(newData.getHearings().get(0), unparseableHearing));
+
+        // When
+        CaseChangeDetectorService.CaseChanges first = caseChangeDetectorService.detectChanges(existingCase, newData);
+        CaseChangeDetectorService.CaseChanges second = caseChangeDetectorService.detectChanges(existingCase, newData);
+
+        // Then
+        assertFalse(first.isHearingsChanged());
+        assertFalse(second.isHearingsChanged());
+    }
+
+    @Test
+    void testDetectChanges_UndatedPortalHearingIsNotReportedAsAdded() {
+        // Given a hearing the portal lists without a usable date; such hearings are never stored
+        HearingDto unparseableHearing = new HearingDto();
+        unparseableHearing.setDate("not a date");
+        unparseableHearing.setTime("10:00");
+        unparseableHearing.setSolution("Admitted");
+        newData.setHearings(Arrays.asList(newData.getHearings().get(0), unparseableHearing));
+
+        // When
+        CaseChangeDetectorService.CaseChanges changes = caseChangeDetectorService.detectChanges(existingCase, newData);
+
+        // Then
+        assertFalse(changes.isHearingsChanged());
+        assertTrue(changes.getHearingChanges().isEmpty());
+    }
+
+    @Test
+    void testDetectChanges_PartyKeysDoNotCollideOnSeparator() {
+        // Given
+        existingCase.getParties().get(0).setName("John_Doe");
+        existingCase.getParties().get(0).setRole("Plaintiff");
+        newData.getParties().get(0).setName("John");
+        newData.getParties().get(0).setRole("Doe_Plaintiff");
+
+        // When
+        CaseChangeDetectorService.CaseChanges changes = caseChangeDetectorService.detectChanges(existingCase, newData);
+
+        // Then
+        assertEquals(2, changes.getPartyChanges().size());
+    }
 }
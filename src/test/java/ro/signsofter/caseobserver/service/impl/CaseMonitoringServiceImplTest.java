@@ -3,29 +3,46 @@ package ro.signsofter.caseobserver.service.impl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import ro.signsofter.caseobserver.config.MonitoringProperties;
 import ro.signsofter.caseobserver.entity.CourtCase;
 import ro.signsofter.caseobserver.entity.NotificationSettings;
+import ro.signsofter.caseobserver.entity.PortalSweepWatermark;
 import ro.signsofter.caseobserver.entity.User;
 import ro.signsofter.caseobserver.entity.UserCase;
 import ro.signsofter.caseobserver.exception.portal.PortalQueryException;
+import ro.signsofter.caseobserver.exception.portal.PortalUnavailableException;
+import ro.signsofter.caseobserver.external.CaseContentFingerprint;
 import ro.signsofter.caseobserver.external.dto.caseResponse.CaseDetailsDto;
 import ro.signsofter.caseobserver.external.dto.caseResponse.HearingDto;
 import ro.signsofter.caseobserver.external.dto.caseResponse.PartyDto;
 import ro.signsofter.caseobserver.repository.CourtCaseRepository;
 import ro.signsofter.caseobserver.repository.NotificationSettingsRepository;
+import ro.signsofter.caseobserver.repository.PortalSweepWatermarkRepository;
 import ro.signsofter.caseobserver.repository.UserCaseRepository;
 import ro.signsofter.caseobserver.service.CaseChangeDetectorService;
+import ro.signsofter.caseobserver.service.CaseCheckScheduler;
 import ro.signsofter.caseobserver.service.CaseMonitoringService;
 import ro.signsofter.caseobserver.service.NotificationService;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -51,6 +68,18 @@ class CaseMonitoringServiceImplTest {
     
     @Mock
     private ro.signsofter.caseobserver.external.PortalQueryService portalQueryService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CaseCheckScheduler caseCheckScheduler;
+
+    @Mock
+    private PortalSweepWatermarkRepository portalSweepWatermarkRepository;
+    
+    @Spy
+    private MonitoringProperties monitoringProperties = new MonitoringProperties();
 
     @InjectMocks
     private CaseMonitoringServiceImpl caseMonitoringService;
@@ -145,7 +174,7 @@ class CaseMonitoringServiceImplTest {
         when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
         when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
         when(userCaseRepository.findByCourtCaseId(1L)).thenReturn(Arrays.asList(testUserCase));
-        when(portalQueryService.fetchCaseDetails(anyString(), anyString())).thenReturn(testCaseDetails);
+        when(portalQueryService.fetchFreshCaseDetails(anyString(), anyString())).thenReturn(testCaseDetails);
         
         CaseChangeDetectorService.CaseChanges changes = new CaseChangeDetectorService.CaseChanges();
         changes.setHasChanges(true);
@@ -162,7 +191,7 @@ class CaseMonitoringServiceImplTest {
         verify(courtCaseRepository).findById(1L);
         verify(notificationSettingsRepository).findByCourtCaseId(1L);
         verify(caseChangeDetectorService).detectChanges(testCase, testCaseDetails);
-        verify(notificationService).sendCaseChangeNotification(eq(testUser), eq(testCase), eq(changes), eq(testSettings));
+        verify(notificationService).sendCaseChangeNotification(eq(List.of(testUser)), eq(testCase), eq(changes), eq(testSettings));
         verify(notificationSettingsRepository).save(testSettings);
     }
 
@@ -171,7 +200,7 @@ class CaseMonitoringServiceImplTest {
         // Given
         when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
         when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
-        when(portalQueryService.fetchCaseDetails(anyString(), anyString())).thenReturn(testCaseDetails);
+        when(portalQueryService.fetchFreshCaseDetails(anyString(), anyString())).thenReturn(testCaseDetails);
         
         CaseChangeDetectorService.CaseChanges changes = new CaseChangeDetectorService.CaseChanges();
         changes.setHasChanges(false);
@@ -189,6 +218,184 @@ class CaseMonitoringServiceImplTest {
         verify(notificationSettingsRepository).save(testSettings);
     }
 
+    @Test
+    void testCheckCaseForUpdates_SkipsDetectorWhenContentUnchanged() throws PortalQueryException {
+        // Given
+        testCase.recordPortalContent(CaseContentFingerprint.of(testCaseDetails), null);
+        when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
+        when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
+        when(portalQueryService.fetchFreshCaseDetails(anyString(), anyString())).thenReturn(testCaseDetails);
+
+        // When
+        boolean changed = caseMonitoringService.checkCaseForUpdates(1L);
+
+        // Then
+        assertFalse(changed);
+        verify(caseChangeDetectorService, never()).detectChanges(any(), any());
+        verify(courtCaseRepository, never()).save(any());
+        verify(notificationSettingsRepository).save(testSettings);
+        assertEquals(1, testSettings.getUnchangedCheckCount().intValue());
+    }
+
+    @Test
+    void testCheckCaseForUpdates_SkipsDetectorWhenPortalModificationDateUnchanged() throws PortalQueryException {
+        // Given
+        testCase.recordPortalContent("stale", "2025-01-15T10:30:00");
+        testCaseDetails.setModificationDateTime("2025-01-15T10:30:00");
+        when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
+        when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
+        when(portalQueryService.fetchFreshCaseDetails(anyString(), anyString())).thenReturn(testCaseDetails);
+
+        // When
+        caseMonitoringService.checkCaseForUpdates(1L);
+
+        // Then the fingerprint is brought up to date for responses that come without a modification date
+        verify(caseChangeDetectorService, never()).detectChanges(any(), any());
+        verify(courtCaseRepository).save(testCase);
+        assertEquals(CaseContentFingerprint.of(testCaseDetails), testCase.getContentHash());
+    }
+
+    @Test
+    void testCheckCaseForUpdates_SkipsPortalWhileIncrementalSweepCoversCase() throws PortalQueryException {
+        // Given
+        monitoringProperties.setIncrementalSweep(true);
+        when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
+        when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
+        when(portalSweepWatermarkRepository.findByInstitution(testCase.getCourtName()))
+                .thenReturn(Optional.of(watermark(LocalDateTime.now().minusDays(1), LocalDateTime.now().minusMinutes(5))));
+
+        // When
+        boolean changed = caseMonitoringService.checkCaseForUpdates(1L);
+
+        // Then
+        assertFalse(changed);
+        verify(portalQueryService, never()).fetchFreshCaseDetails(anyString(), anyString());
+        verify(caseChangeDetectorService, never()).detectChanges(any(), any());
+        verify(notificationSettingsRepository).save(testSettings);
+    }
+
+    @Test
+    void testCheckCaseForUpdates_FetchesWhenIncrementalSweepLags() throws PortalQueryException {
+        // Given
+        monitoringProperties.setIncrementalSweep(true);
+        when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
+        when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
+        when(portalSweepWatermarkRepository.findByInstitution(testCase.getCourtName()))
+                .thenReturn(Optional.of(watermark(LocalDateTime.now().minusDays(1), LocalDateTime.now().minusHours(1))));
+        when(portalQueryService.fetchFreshCaseDetails(anyString(), anyString())).thenReturn(testCaseDetails);
+        when(caseChangeDetectorService.detectChanges(testCase, testCaseDetails))
+                .thenReturn(new CaseChangeDetectorService.CaseChanges());
+
+        // When
+        caseMonitoringService.checkCaseForUpdates(1L);
+
+        // Then
+        verify(portalQueryService).fetchFreshCaseDetails(anyString(), anyString());
+    }
+
+    @Test
+    void testSweepModifiedCases_ChecksModifiedMonitoredCasesAndAdvancesWatermark() throws PortalQueryException {
+        // Given
+        monitoringProperties.setIncrementalSweep(true);
+        String institution = testCase.getCourtName();
+        LocalDateTime syncedUntil = LocalDateTime.now().minusMinutes(5);
+        PortalSweepWatermark watermark = watermark(LocalDateTime.now().minusDays(1), syncedUntil);
+        CaseDetailsDto unmonitored = new CaseDetailsDto();
+        unmonitored.setNumber("999/2025");
+        CourtCaseRepository.MonitoredCase monitored = monitoredCase(testCase);
+
+        when(courtCaseRepository.findMonitoredCourtNames()).thenReturn(List.of(institution));
+        when(portalSweepWatermarkRepository.claimInstitution(eq(institution), anyString(), any(), any())).thenReturn(1);
+        when(portalSweepWatermarkRepository.findByInstitution(institution)).thenReturn(Optional.of(watermark));
+        when(portalQueryService.fetchModifiedCases(eq(institution), any(), any()))
+                .thenReturn(List.of(testCaseDetails, unmonitored));
+        when(courtCaseRepository.findMonitoredCases(institution)).thenReturn(List.of(monitored));
+        when(notificationSettingsRepository.claimCaseIfUnleased(eq(1L), anyString(), any(), any())).thenReturn(1);
+        when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
+        when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
+        when(caseChangeDetectorService.detectChanges(testCase, testCaseDetails))
+                .thenReturn(new CaseChangeDetectorService.CaseChanges());
+
+        // When
+        caseMonitoringService.startCheckExecutor();
+        try {
+            caseMonitoringService.sweepModifiedCases();
+        } finally {
+            caseMonitoringService.stopCheckExecutor();
+        }
+
+        // Then the search starts an overlap before the watermark, and only the monitored case is checked
+        LocalDateTime searchFrom = syncedUntil.minus(monitoringProperties.getIncrementalSweepOverlap());
+        verify(portalQueryService).fetchModifiedCases(eq(institution), eq(searchFrom), any());
+        verify(portalQueryService, never()).fetchFreshCaseDetails(anyString(), anyString());
+        verify(caseChangeDetectorService).detectChanges(testCase, testCaseDetails);
+        verify(portalSweepWatermarkRepository).save(watermark);
+        assertTrue(watermark.getSyncedUntil().isAfter(syncedUntil));
+        assertNull(watermark.getLeaseUntil());
+    }
+
+    @Test
+    void testSweepModifiedCases_KeepsWatermarkWhenResultIsCapped() throws PortalQueryException {
+        // Given a search that returns as many cases as the portal serves at most
+        monitoringProperties.setIncrementalSweep(true);
+        monitoringProperties.setBatchSearchMaxResults(2);
+        String institution = testCase.getCourtName();
+        LocalDateTime syncedUntil = LocalDateTime.now().minusMinutes(5);
+        PortalSweepWatermark watermark = watermark(LocalDateTime.now().minusDays(1), syncedUntil);
+        CaseDetailsDto unmonitored = new CaseDetailsDto();
+        unmonitored.setNumber("999/2025");
+        CourtCaseRepository.MonitoredCase monitored = monitoredCase(testCase);
+
+        when(courtCaseRepository.findMonitoredCourtNames()).thenReturn(List.of(institution));
+        when(portalSweepWatermarkRepository.claimInstitution(eq(institution), anyString(), any(), any())).thenReturn(1);
+        when(portalSweepWatermarkRepository.findByInstitution(institution)).thenReturn(Optional.of(watermark));
+        when(portalQueryService.fetchModifiedCases(eq(institution), any(), any()))
+                .thenReturn(List.of(testCaseDetails, unmonitored));
+        when(courtCaseRepository.findMonitoredCases(institution)).thenReturn(List.of(monitored));
+        when(notificationSettingsRepository.claimCaseIfUnleased(eq(1L), anyString(), any(), any())).thenReturn(1);
+        when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
+        when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
+        when(caseChangeDetectorService.detectChanges(testCase, testCaseDetails))
+                .thenReturn(new CaseChangeDetectorService.CaseChanges());
+
+        // When
+        caseMonitoringService.startCheckExecutor();
+        try {
+            caseMonitoringService.sweepModifiedCases();
+        } finally {
+            caseMonitoringService.stopCheckExecutor();
+        }
+
+        // Then the returned case is checked, but the window is searched again next time
+        verify(caseChangeDetectorService).detectChanges(testCase, testCaseDetails);
+        verify(portalSweepWatermarkRepository).save(watermark);
+        assertEquals(syncedUntil, watermark.getSyncedUntil());
+        assertNull(watermark.getLeaseUntil());
+    }
+
+    @Test
+    void testCheckCaseForUpdates_FetchesOutsideTransaction() throws PortalQueryException {
+        // Given
+        when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
+        when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
+        when(portalQueryService.fetchFreshCaseDetails(anyString(), anyString())).thenReturn(testCaseDetails);
+        when(caseChangeDetectorService.detectChanges(testCase, testCaseDetails))
+                .thenReturn(new CaseChangeDetectorService.CaseChanges());
+
+        // When
+        caseMonitoringService.checkCaseForUpdates(1L);
+
+        // Then the snapshot transaction is committed before the portal call and the write opens a new one
+        InOrder inOrder = inOrder(transactionManager, courtCaseRepository, portalQueryService, notificationSettingsRepository);
+        inOrder.verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        inOrder.verify(courtCaseRepository).findById(1L);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(portalQueryService).fetchFreshCaseDetails(anyString(), anyString());
+        inOrder.verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+        inOrder.verify(notificationSettingsRepository).save(testSettings);
+        inOrder.verify(transactionManager).commit(any());
+    }
+
     @Test
     void testCheckCaseForUpdates_MonitoringDisabled() throws PortalQueryException {
         // Given
@@ -205,6 +412,225 @@ class CaseMonitoringServiceImplTest {
         verify(notificationService, never()).sendCaseChangeNotification(any(), any(), any(), any());
     }
 
+    @Test
+    void testCheckAllMonitoredCases_ReportsChangedAndFailedCases() throws PortalQueryException {
+        // Given
+        CourtCase missingCase = new CourtCase();
+        missingCase.setId(2L);
+        NotificationSettings missingCaseSettings = new NotificationSettings();
+        missingCaseSettings.setCourtCase(missingCase);
+        when(notificationSettingsRepository.findClaimableSettings(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(testSettings, missingCaseSettings), List.of());
+        when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
+        when(courtCaseRepository.findById(2L)).thenReturn(Optional.empty());
+        when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
+        when(userCaseRepository.findByCourtCaseId(1L)).thenReturn(List.of(testUserCase));
+        when(portalQueryService.fetchFreshCaseDetails(anyString(), anyString())).thenReturn(testCaseDetails);
+        
+        CaseChangeDetectorService.CaseChanges changes = new CaseChangeDetectorService.CaseChanges();
+        changes.setStatusChanged(true);
+        when(caseChangeDetectorService.detectChanges(testCase, testCaseDetails)).thenReturn(changes);
+
+        // When
+        caseMonitoringService.startCheckExecutor();
+        CaseMonitoringService.SweepReport report;
+        try {
+            report = caseMonitoringService.checkAllMonitoredCases();
+        } finally {
+            caseMonitoringService.stopCheckExecutor();
+        }
+
+        // Then
+        assertEquals(2, report.getChecked());
+        assertEquals(1, report.getChanged());
+        assertEquals(1, report.getFailed());
+        assertNotNull(report.getDuration());
+        verify(notificationService).sendCaseChangeNotification(eq(List.of(testUser)), eq(testCase), eq(changes), eq(testSettings));
+        // The checked case is handed back, the failed one keeps its lease until it expires
+        assertNull(testSettings.getClaimedBy());
+        assertEquals(monitoringProperties.getNodeId(), missingCaseSettings.getClaimedBy());
+        assertNotNull(missingCaseSettings.getLeaseUntil());
+    }
+
+    @Test
+    void testCheckAllMonitoredCases_AnswersInstitutionWithOneSearch() throws PortalQueryException {
+        // Given three due cases of the same court, one of them modified on the portal
+        monitoringProperties.setBatchSearchMinCases(3);
+        String institution = testCase.getCourtName();
+        List<NotificationSettings> dueSettings = new ArrayList<>(List.of(testSettings));
+        List<CourtCaseRepository.MonitoredCase> monitored = new ArrayList<>(List.of(monitoredCase(testCase)));
+        when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
+        when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
+        for (long id = 2; id <= 3; id++) {
+            CourtCase courtCase = new CourtCase();
+            courtCase.setId(id);
+            courtCase.setCaseNumber(id + "/2025");
+            courtCase.setCourtName(institution);
+            NotificationSettings settings = new NotificationSettings();
+            settings.setCourtCase(courtCase);
+            settings.setLastCheckedAt(LocalDateTime.now().minusHours(2));
+            dueSettings.add(settings);
+            monitored.add(monitoredCase(courtCase));
+            when(courtCaseRepository.findById(id)).thenReturn(Optional.of(courtCase));
+            when(notificationSettingsRepository.findByCourtCaseId(id)).thenReturn(Optional.of(settings));
+        }
+        when(notificationSettingsRepository.findClaimableSettings(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(dueSettings, List.of());
+        when(portalQueryService.fetchModifiedCases(eq(institution), any(), any())).thenReturn(List.of(testCaseDetails));
+        when(courtCaseRepository.findMonitoredCases(institution)).thenReturn(monitored);
+        when(caseChangeDetectorService.detectChanges(testCase, testCaseDetails))
+                .thenReturn(new CaseChangeDetectorService.CaseChanges());
+
+        // When
+        caseMonitoringService.startCheckExecutor();
+        CaseMonitoringService.SweepReport report;
+        try {
+            report = caseMonitoringService.checkAllMonitoredCases();
+        } finally {
+            caseMonitoringService.stopCheckExecutor();
+        }
+
+        // Then the search covers all three; only the returned case goes through the detector
+        verify(portalQueryService, never()).fetchFreshCaseDetails(anyString(), anyString());
+        verify(caseChangeDetectorService).detectChanges(testCase, testCaseDetails);
+        verify(notificationSettingsRepository, times(3)).save(any(NotificationSettings.class));
+        assertEquals(3, report.getChecked());
+        CaseMonitoringService.InstitutionStats stats = report.getInstitutions().get(institution);
+        assertEquals(1, stats.getSearches().get());
+        assertEquals(3, stats.getDemultiplexed().get());
+        assertEquals(0, stats.getFailed().get());
+    }
+
+    @Test
+    void testCheckAllMonitoredCases_FetchesEachCaseWhenSearchHitsResultLimit() throws PortalQueryException {
+        // Given a search whose result may have been cut short by the portal
+        monitoringProperties.setBatchSearchMaxResults(1);
+        List<CourtCase> dueCases = givenThreeDueCasesOfOneCourt();
+        when(portalQueryService.fetchModifiedCases(eq(testCase.getCourtName()), any(), any()))
+                .thenReturn(List.of(testCaseDetails));
+
+        // When
+        CaseMonitoringService.SweepReport report = checkAllMonitoredCases();
+
+        // Then absence from the result proves nothing, so every case is fetched and checked
+        assertEachCaseFetchedAndChecked(dueCases, report);
+    }
+
+    @Test
+    void testCheckAllMonitoredCases_FetchesEachCaseWhenSearchFails() throws PortalQueryException {
+        // Given a search the portal fails
+        List<CourtCase> dueCases = givenThreeDueCasesOfOneCourt();
+        when(portalQueryService.fetchModifiedCases(eq(testCase.getCourtName()), any(), any()))
+                .thenThrow(new PortalQueryException("Search failed"));
+
+        // When
+        CaseMonitoringService.SweepReport report = checkAllMonitoredCases();
+
+        // Then every case is fetched and checked on its own
+        assertEachCaseFetchedAndChecked(dueCases, report);
+    }
+
+    private List<CourtCase> givenThreeDueCasesOfOneCourt() throws PortalQueryException {
+        monitoringProperties.setBatchSearchMinCases(3);
+        String institution = testCase.getCourtName();
+        List<CourtCase> dueCases = new ArrayList<>(List.of(testCase));
+        List<NotificationSettings> dueSettings = new ArrayList<>(List.of(testSettings));
+        when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
+        when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
+        for (long id = 2; id <= 3; id++) {
+            CourtCase courtCase = new CourtCase();
+            courtCase.setId(id);
+            courtCase.setCaseNumber(id + "/2025");
+            courtCase.setCourtName(institution);
+            NotificationSettings settings = new NotificationSettings();
+            settings.setCourtCase(courtCase);
+            settings.setLastCheckedAt(LocalDateTime.now().minusHours(2));
+            dueCases.add(courtCase);
+            dueSettings.add(settings);
+            when(courtCaseRepository.findById(id)).thenReturn(Optional.of(courtCase));
+            when(notificationSettingsRepository.findByCourtCaseId(id)).thenReturn(Optional.of(settings));
+        }
+        when(notificationSettingsRepository.findClaimableSettings(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(dueSettings, List.of());
+        when(portalQueryService.fetchFreshCaseDetails(anyString(), eq(institution))).thenReturn(testCaseDetails);
+        when(caseChangeDetectorService.detectChanges(any(CourtCase.class), eq(testCaseDetails)))
+                .thenReturn(new CaseChangeDetectorService.CaseChanges());
+        return dueCases;
+    }
+
+    private CaseMonitoringService.SweepReport checkAllMonitoredCases() {
+        caseMonitoringService.startCheckExecutor();
+        try {
+            return caseMonitoringService.checkAllMonitoredCases();
+        } finally {
+            caseMonitoringService.stopCheckExecutor();
+        }
+    }
+
+    private void assertEachCaseFetchedAndChecked(List<CourtCase> dueCases, CaseMonitoringService.SweepReport report)
+            throws PortalQueryException {
+        for (CourtCase courtCase : dueCases) {
+            verify(portalQueryService).fetchFreshCaseDetails(courtCase.getCaseNumber(), courtCase.getCourtName());
+            verify(caseChangeDetectorService).detectChanges(courtCase, testCaseDetails);
+        }
+        verify(notificationSettingsRepository, times(3)).save(any(NotificationSettings.class));
+        assertEquals(3, report.getChecked());
+        CaseMonitoringService.InstitutionStats stats = report.getInstitutions().get(testCase.getCourtName());
+        assertEquals(1, stats.getSearches().get());
+        assertEquals(0, stats.getDemultiplexed().get());
+        assertEquals(0, stats.getFailed().get());
+    }
+
+    @Test
+    void testCheckAllMonitoredCases_DefersCasesWhilePortalIsUnavailable() throws PortalQueryException {
+        // Given
+        Instant retryAt = Instant.now().plusSeconds(60);
+        when(notificationSettingsRepository.findClaimableSettings(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(testSettings));
+        when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
+        when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
+        when(portalQueryService.fetchFreshCaseDetails(anyString(), anyString()))
+                .thenThrow(new PortalUnavailableException("Portal is unavailable", retryAt));
+
+        // When
+        caseMonitoringService.startCheckExecutor();
+        CaseMonitoringService.SweepReport report;
+        try {
+            report = caseMonitoringService.checkAllMonitoredCases();
+        } finally {
+            caseMonitoringService.stopCheckExecutor();
+        }
+
+        // Then the sweep stops claiming and the case is released until the portal is retried
+        assertEquals(1, report.getDeferred());
+        assertEquals(0, report.getFailed());
+        verify(notificationSettingsRepository, times(1)).findClaimableSettings(any(LocalDateTime.class), any(Pageable.class));
+        LocalDateTime deferredUntil = LocalDateTime.ofInstant(retryAt, ZoneId.systemDefault()).truncatedTo(ChronoUnit.SECONDS);
+        assertEquals(deferredUntil, testSettings.getNextCheckAt());
+        assertNull(testSettings.getClaimedBy());
+        verify(caseCheckScheduler).schedule(1L, deferredUntil);
+    }
+
+    @Test
+    void testScheduledCheck_RearmsForStoredDueTime_WhenClaimMisses() throws PortalQueryException {
+        // Given the stored due time is a second past the time the timer fired for
+        LocalDateTime storedDueAt = LocalDateTime.now().plusSeconds(1).truncatedTo(ChronoUnit.SECONDS);
+        testSettings.setNextCheckAt(storedDueAt);
+        when(notificationSettingsRepository.claimCase(eq(1L), anyString(), any(), any())).thenReturn(0);
+        when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
+        ArgumentCaptor<Consumer<Long>> dueHandler = ArgumentCaptor.captor();
+
+        // When the timer fires
+        caseMonitoringService.startCheckExecutor();
+        verify(caseCheckScheduler).onDue(dueHandler.capture());
+        dueHandler.getValue().accept(1L);
+
+        // Then the case is not checked, but its timer is armed again for the stored time
+        verify(caseCheckScheduler, timeout(5000)).schedule(1L, storedDueAt);
+        caseMonitoringService.stopCheckExecutor();
+        verify(portalQueryService, never()).fetchFreshCaseDetails(anyString(), anyString());
+    }
+
     @Test
     void testUpdateNotificationSettings() {
         // Given
@@ -235,6 +661,24 @@ class CaseMonitoringServiceImplTest {
         assertTrue(testSettings.getNotifyOnProceduralStageChanges());
     }
 
+    @Test
+    void testUpdateNotificationSettings_RejectsMinimumAboveStoredMaximum() {
+        // Given only the minimum is sent, above the maximum already stored
+        testSettings.setMaxCheckIntervalMinutes(120);
+        NotificationSettings newSettings = new NotificationSettings();
+        newSettings.setNotificationIntervalMinutes(60);
+        newSettings.setMinCheckIntervalMinutes(240);
+        newSettings.setMaxCheckIntervalMinutes(null);
+
+        when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class,
+                () -> caseMonitoringService.updateNotificationSettings(1L, newSettings));
+        verify(notificationSettingsRepository, never()).save(any(NotificationSettings.class));
+        assertEquals(120, testSettings.getMaxCheckIntervalMinutes());
+    }
+
     @Test
     void testIsCaseBeingMonitored_True() {
         // Given
@@ -275,4 +719,19 @@ class CaseMonitoringServiceImplTest {
         verify(notificationSettingsRepository).save(testSettings);
         assertNotNull(testSettings.getNextCheckAt());
     }
+
+    private PortalSweepWatermark watermark(LocalDateTime trackedSince, LocalDateTime syncedUntil) {
+        PortalSweepWatermark watermark = new PortalSweepWatermark();
+        watermark.setInstitution(testCase.getCourtName());
+        watermark.setTrackedSince(trackedSince);
+        watermark.setSyncedUntil(syncedUntil);
+        return watermark;
+    }
+
+    private CourtCaseRepository.MonitoredCase monitoredCase(CourtCase courtCase) {
+        CourtCaseRepository.MonitoredCase monitored = mock(CourtCaseRepository.MonitoredCase.class);
+        when(monitored.getId()).thenReturn(courtCase.getId());
+        when(monitored.getCaseNumber()).thenReturn(courtCase.getCaseNumber());
+        return monitored;
+    }
 }
@@ -5,7 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ro.signsofter.caseobserver.config.MonitoringProperties;
 import ro.signsofter.caseobserver.entity.CourtCase;
 import ro.signsofter.caseobserver.entity.NotificationSettings;
 import ro.signsofter.caseobserver.entity.User;
@@ -17,9 +20,11 @@ import ro.signsofter.caseobserver.repository.CourtCaseRepository;
 import ro.signsofter.caseobserver.repository.NotificationSettingsRepository;
 import ro.signsofter.caseobserver.repository.UserCaseRepository;
 import ro.signsofter.caseobserver.service.CaseChangeDetectorService;
+import ro.signsofter.caseobserver.service.CaseCheckScheduler;
 import ro.signsofter.caseobserver.service.NotificationService;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -51,6 +56,15 @@ class MonitoringIntegrationTest {
     
     @Mock
     private NotificationService notificationService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CaseCheckScheduler caseCheckScheduler;
+
+    @Spy
+    private MonitoringProperties monitoringProperties = new MonitoringProperties();
 
     @InjectMocks
     private CaseMonitoringServiceImpl caseMonitoringService;
@@ -137,7 +151,7 @@ class MonitoringIntegrationTest {
         when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
         when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
         when(userCaseRepository.findByCourtCaseId(1L)).thenReturn(Collections.singletonList(testUserCase));
-        when(portalQueryService.fetchCaseDetails(testCase.getCaseNumber(), testCase.getCourtName()))
+        when(portalQueryService.fetchFreshCaseDetails(testCase.getCaseNumber(), testCase.getCourtName()))
                 .thenReturn(updatedCaseData);
 
         // Create realistic change detection result
@@ -159,12 +173,12 @@ class MonitoringIntegrationTest {
         verify(courtCaseRepository, atLeastOnce()).findById(1L);
         verify(notificationSettingsRepository, atLeastOnce()).findByCourtCaseId(1L);
         verify(userCaseRepository).findByCourtCaseId(1L);
-        verify(portalQueryService).fetchCaseDetails(anyString(), anyString());
+        verify(portalQueryService).fetchFreshCaseDetails(anyString(), anyString());
         verify(caseChangeDetectorService).detectChanges(testCase, updatedCaseData);
         
         // Critical verification: notification was sent to the user
         verify(notificationService).sendCaseChangeNotification(
-            eq(testUser), 
+            eq(List.of(testUser)), 
             eq(testCase), 
             eq(changes), 
             eq(testSettings)
@@ -186,7 +200,7 @@ class MonitoringIntegrationTest {
         reset(notificationSettingsRepository);
         when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
         when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
-        when(portalQueryService.fetchCaseDetails(anyString(), anyString())).thenReturn(initialCaseData);
+        when(portalQueryService.fetchFreshCaseDetails(anyString(), anyString())).thenReturn(initialCaseData);
         
         CaseChangeDetectorService.CaseChanges noChanges = new CaseChangeDetectorService.CaseChanges();
         noChanges.setHasChanges(false);
@@ -212,7 +226,7 @@ class MonitoringIntegrationTest {
         
         when(courtCaseRepository.findById(1L)).thenReturn(Optional.of(testCase));
         when(notificationSettingsRepository.findByCourtCaseId(1L)).thenReturn(Optional.of(testSettings));
-        when(portalQueryService.fetchCaseDetails(anyString(), anyString())).thenReturn(initialCaseData);
+        when(portalQueryService.fetchFreshCaseDetails(anyString(), anyString())).thenReturn(initialCaseData);
         
         CaseChangeDetectorService.CaseChanges changes = new CaseChangeDetectorService.CaseChanges();
         changes.setHasChanges(false);
@@ -226,7 +240,7 @@ class MonitoringIntegrationTest {
         // But the case was still checked
         verify(courtCaseRepository).findById(1L);
         verify(notificationSettingsRepository).findByCourtCaseId(1L);
-        verify(portalQueryService).fetchCaseDetails(anyString(), anyString());
+        verify(portalQueryService).fetchFreshCaseDetails(anyString(), anyString());
         verify(caseChangeDetectorService).detectChanges(testCase, initialCaseData);
     }
 }
@@ -0,0 +1,183 @@
+package ro.signsofter.caseobserver.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ro.signsofter.caseobserver.entity.CaseChangeEvent;
+import ro.signsofter.caseobserver.entity.CourtCase;
+import ro.signsofter.caseobserver.entity.Notification;
+import ro.signsofter.caseobserver.entity.NotificationDigest;
+import ro.signsofter.caseobserver.entity.NotificationOutbox;
+import ro.signsofter.caseobserver.entity.NotificationSettings;
+import ro.signsofter.caseobserver.entity.User;
+import ro.signsofter.caseobserver.repository.CaseChangeEventRepository;
+import ro.signsofter.caseobserver.repository.NotificationDigestRepository;
+import ro.signsofter.caseobserver.repository.NotificationOutboxRepository;
+import ro.signsofter.caseobserver.repository.NotificationRepository;
+import ro.signsofter.caseobserver.service.CaseChangeDetectorService;
+import ro.signsofter.caseobserver.service.NotificationBroadcaster;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceImplTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Mock
+    private CaseChangeEventRepository caseChangeEventRepository;
+
+    @Mock
+    private NotificationDigestRepository notificationDigestRepository;
+
+    @Mock
+    private NotificationBroadcaster notificationBroadcaster;
+
+    @InjectMocks
+    private NotificationServiceImpl notificationService;
+
+    private CourtCase courtCase;
+    private NotificationSettings settings;
+    private CaseChangeDetectorService.CaseChanges changes;
+
+    @BeforeEach
+    void setUp() {
+        courtCase = new CourtCase();
+        courtCase.setId(1L);
+        courtCase.setCaseNumber("12345/2025");
+
+        settings = new NotificationSettings();
+        settings.setEmailEnabled(true);
+        settings.setSmsEnabled(true);
+
+        changes = new CaseChangeDetectorService.CaseChanges();
+        changes.setStatusChanged(true);
+        changes.setOldStatus("Fond");
+        changes.setNewStatus("Apel");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendCaseChangeNotification_rendersOneEventForAllUsers() {
+        List<User> users = List.of(user(1L, "a@example.com"), user(2L, "b@example.com"), user(3L, null));
+
+        notificationService.sendCaseChangeNotification(users, courtCase, changes, settings);
+
+        ArgumentCaptor<CaseChangeEvent> event = ArgumentCaptor.forClass(CaseChangeEvent.class);
+        verify(caseChangeEventRepository, times(1)).save(event.capture());
+        assertTrue(event.getValue().getMessage().contains("Status changed from 'Fond' to 'Apel'"));
+
+        ArgumentCaptor<List<Notification>> notifications = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(notifications.capture());
+        assertEquals(3, notifications.getValue().size());
+        assertTrue(notifications.getValue().stream().allMatch(notification -> notification.getEvent() == event.getValue()));
+
+        // Two emails (the third user has no address) and three SMS
+        ArgumentCaptor<List<NotificationOutbox>> outbox = ArgumentCaptor.forClass(List.class);
+        verify(notificationOutboxRepository).saveAll(outbox.capture());
+        assertEquals(2, outbox.getValue().stream().filter(m -> m.getChannel() == NotificationOutbox.Channel.EMAIL).count());
+        assertEquals(3, outbox.getValue().stream().filter(m -> m.getChannel() == NotificationOutbox.Channel.SMS).count());
+        verify(notificationBroadcaster).publish(notifications.getValue());
+    }
+
+    @Test
+    void sendCaseChangeNotification_rendersNothingWithoutSubscribers() {
+        notificationService.sendCaseChangeNotification(List.of(), courtCase, changes, settings);
+
+        verify(caseChangeEventRepository, never()).save(any());
+        verifyNoInteractions(notificationRepository, notificationOutboxRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendCaseChangeNotification_holdsChangesForDigestUsers() {
+        User digestUser = user(1L, "a@example.com");
+        digestUser.setDigestMode(User.DigestMode.DAILY);
+
+        notificationService.sendCaseChangeNotification(List.of(digestUser), courtCase, changes, settings);
+
+        ArgumentCaptor<List<Notification>> notifications = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(notifications.capture());
+        assertTrue(notifications.getValue().get(0).getDigestEmail());
+        assertTrue(notifications.getValue().get(0).getDigestSms());
+        verify(notificationOutboxRepository).saveAll(List.of());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushDigests_queuesOneMessagePerUserAndChannel() {
+        User first = user(1L, "a@example.com");
+        User second = user(2L, "b@example.com");
+        List<Notification> pending = List.of(
+                pending(first, true, false), pending(first, true, true), pending(first, false, false),
+                pending(second, true, false));
+        when(notificationRepository.findPendingDigest(eq(EnumSet.of(User.DigestMode.HOURLY, User.DigestMode.IMMEDIATE)), any()))
+                .thenReturn(pending);
+
+        int flushed = notificationService.flushDigests(User.DigestMode.HOURLY, 10);
+
+        assertEquals(4, flushed);
+        ArgumentCaptor<List<NotificationDigest>> digests = ArgumentCaptor.forClass(List.class);
+        verify(notificationDigestRepository).saveAll(digests.capture());
+        assertEquals(2, digests.getValue().size());
+        assertEquals(3, digests.getValue().get(0).getNotificationCount());
+        assertEquals("Case Observer Digest: 3 updates on 1 case", digests.getValue().get(0).getSubject());
+
+        ArgumentCaptor<List<NotificationOutbox>> outbox = ArgumentCaptor.forClass(List.class);
+        verify(notificationOutboxRepository).saveAll(outbox.capture());
+        assertEquals(3, outbox.getValue().size()); // Email and SMS for the first user, email for the second
+        assertTrue(outbox.getValue().stream().allMatch(m -> m.getDigest() != null && m.getNotification() == null));
+        assertTrue(pending.stream().noneMatch(n -> n.getDigestEmail() || n.getDigestSms()));
+    }
+
+    @Test
+    void flushDigests_leavesLastUserWholeForTheNextBatch() {
+        User first = user(1L, "a@example.com");
+        User second = user(2L, "b@example.com");
+        Notification carriedOver = pending(second, true, false);
+        when(notificationRepository.findPendingDigest(eq(EnumSet.of(User.DigestMode.DAILY)), any()))
+                .thenReturn(List.of(pending(first, true, false), carriedOver));
+
+        int flushed = notificationService.flushDigests(User.DigestMode.DAILY, 2);
+
+        assertEquals(1, flushed);
+        assertTrue(carriedOver.getDigestEmail());
+    }
+
+    private Notification pending(User user, boolean email, boolean sms) {
+        CaseChangeEvent event = new CaseChangeEvent();
+        event.setSubject("Case Update: " + courtCase.getCaseNumber() + " - Status Changed");
+        event.setMessage("Changes detected");
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setCourtCase(courtCase);
+        notification.setEvent(event);
+        notification.setSentAt(LocalDateTime.now());
+        notification.setDigestEmail(email);
+        notification.setDigestSms(sms);
+        return notification;
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setEmail(email);
+        return user;
+    }
+}